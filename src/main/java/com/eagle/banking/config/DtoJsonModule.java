@@ -0,0 +1,90 @@
+package com.eagle.banking.config;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializers for the DTOs that appear in lists, registered with Spring Boot's ObjectMapper as a
+ * module bean. Field names are pre-encoded and values are written directly, so Jackson does not introspect
+ * the records or resolve per-property serializers. The output matches the default record serialization:
+ * same field order, nulls written, instants as ISO-8601 strings.
+ */
+@Component
+public class DtoJsonModule extends SimpleModule {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+    private static final SerializableString ACCOUNT_TYPE = new SerializedString("accountType");
+    private static final SerializableString BALANCE = new SerializedString("balance");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString BALANCE_AFTER = new SerializedString("balanceAfter");
+    private static final SerializableString TRANSFER_ID = new SerializedString("transferId");
+
+    public DtoJsonModule() {
+        super("banking-dto");
+        addSerializer(AccountDto.class, new AccountDtoSerializer());
+        addSerializer(TransactionDto.class, new TransactionDtoSerializer());
+    }
+
+    static class AccountDtoSerializer extends StdSerializer<AccountDto> {
+
+        AccountDtoSerializer() {
+            super(AccountDto.class);
+        }
+
+        @Override
+        public void serialize(AccountDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+            gen.writeFieldName(ID);
+            gen.writeString(dto.id());
+            gen.writeFieldName(USER_ID);
+            gen.writeString(dto.userId());
+            gen.writeFieldName(ACCOUNT_NUMBER);
+            gen.writeString(dto.accountNumber());
+            gen.writeFieldName(ACCOUNT_TYPE);
+            gen.writeString(dto.accountType());
+            gen.writeFieldName(BALANCE);
+            gen.writeNumber(dto.balance());
+            gen.writeEndObject();
+        }
+    }
+
+    static class TransactionDtoSerializer extends StdSerializer<TransactionDto> {
+
+        TransactionDtoSerializer() {
+            super(TransactionDto.class);
+        }
+
+        @Override
+        public void serialize(TransactionDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+            gen.writeFieldName(ID);
+            gen.writeString(dto.id());
+            gen.writeFieldName(ACCOUNT_TYPE);
+            gen.writeString(dto.accountType());
+            gen.writeFieldName(AMOUNT);
+            gen.writeNumber(dto.amount());
+            gen.writeFieldName(TYPE);
+            gen.writeString(dto.type() == null ? null : dto.type().name());
+            gen.writeFieldName(CREATED_AT);
+            gen.writeString(dto.createdAt() == null ? null : dto.createdAt().toString());
+            gen.writeFieldName(BALANCE_AFTER);
+            gen.writeNumber(dto.balanceAfter());
+            gen.writeFieldName(TRANSFER_ID);
+            gen.writeString(dto.transferId());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.eagle.banking.config;
+
+import com.eagle.banking.repo.journal.FsyncPolicy;
+import com.eagle.banking.repo.journal.Journal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+@Configuration
+@Profile("memory")
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public Journal journal(@Value("${app.journal.enabled:false}") boolean enabled,
+                           @Value("${app.journal.dir:data/journal}") String dir,
+                           @Value("${app.journal.segment-size-mb:64}") int segmentSizeMb,
+                           @Value("${app.journal.fsync:group-commit}") String fsync,
+                           @Value("${app.journal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+                           @Value("${app.journal.compact-after-segments:8}") int compactAfterSegments) {
+        if (!enabled) return Journal.disabled();
+        return new Journal(Path.of(dir), segmentSizeMb * 1024 * 1024, FsyncPolicy.from(fsync), fsyncIntervalMillis,
+                compactAfterSegments);
+    }
+}
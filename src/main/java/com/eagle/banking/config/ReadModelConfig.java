@@ -0,0 +1,45 @@
+package com.eagle.banking.config;
+
+import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.readmodel.ChangeFeed;
+import com.eagle.banking.service.readmodel.ReadModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+@Configuration
+public class ReadModelConfig {
+
+    @Bean(destroyMethod = "close")
+    @Profile("!memory")
+    public ChangeFeed changeFeed(@Value("${app.read-model.enabled:false}") boolean enabled,
+                                 @Value("${app.read-model.queue-capacity:65536}") int queueCapacity) {
+        return enabled ? new ChangeFeed(queueCapacity) : ChangeFeed.disabled();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("!memory")
+    public ReadModel readModel(ChangeFeed changeFeed, AccountRepository accountRepository,
+                               TransactionService transactionService,
+                               @Value("${app.read-model.max-wait-ms:1000}") long maxWaitMillis,
+                               @Value("${app.read-model.history-window:1000}") int historyWindow) {
+        return new ReadModel(changeFeed, accountRepository, transactionService, maxWaitMillis, historyWindow);
+    }
+
+    // the memory profile's reads already never touch a database
+    @Bean
+    @Profile("memory")
+    public ReadModel disabledReadModel() {
+        return ReadModel.disabled();
+    }
+
+    // built once the schema and any startup data are in place
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReadModel(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(ReadModel.class).start();
+    }
+}
@@ -0,0 +1,84 @@
+package com.eagle.banking.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces Hibernate's show-sql, which printed every statement to stdout on the request thread. A fraction
+ * {@code app.sql-log.sample-rate} of statements is handed to a bounded queue and written by one background
+ * thread; when the queue is full the statement is dropped and counted rather than making the request wait.
+ * A rate of 0 (the default) leaves the inspector as a single comparison per statement.
+ */
+@Component
+@Profile("!memory")
+public class SampledSqlLogger implements StatementInspector, HibernatePropertiesCustomizer, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger("sql");
+
+    private final double sampleRate;
+    private final BlockingQueue<String> pending;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    public SampledSqlLogger(@Value("${app.sql-log.sample-rate:0}") double sampleRate,
+                            @Value("${app.sql-log.queue-capacity:1024}") int queueCapacity) {
+        this.sampleRate = sampleRate;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writer = Thread.ofPlatform().name("sql-log").daemon(true).unstarted(this::drain);
+        if (sampleRate > 0) writer.start();
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            if (!pending.offer(sql)) dropped.increment();
+        }
+        return sql;
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                log.info(pending.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sql.log.dropped", dropped, LongAdder::sum)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.interrupt();
+    }
+}
@@ -2,8 +2,13 @@ package com.eagle.banking.config;
 
 import com.eagle.banking.security.JwtAuthFilter;
 import com.eagle.banking.security.JwtUtil;
+import com.eagle.banking.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -24,15 +29,22 @@ public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final MeterRegistry meterRegistry;
+    // actual port of the separate actuator server, known once it has started
+    private volatile int managementPort = -1;
 
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService, VerifiedTokenCache tokenCache,
+                          MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public SecurityFilterChain customSecurityFilterChain(HttpSecurity http) throws Exception {
-        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtUtil);
+        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtUtil, tokenCache, meterRegistry);
 
         http
                 .csrf(csrf -> {
@@ -47,6 +59,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/v1/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/v1/users").permitAll()
                         .requestMatchers("/h2-console/**").permitAll() // Allow H2 console
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll() // probes carry no token
+                        // scrapes carry no token either; metrics are only answered on the management port
+                        .requestMatchers(this::onManagementPort).permitAll()
                         .anyRequest().authenticated()
                 );
 
@@ -54,6 +69,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
+    private boolean onManagementPort(HttpServletRequest request) {
+        return request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public AuthenticationManager authManager(HttpSecurity http) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
@@ -1,18 +1,26 @@
 package com.eagle.banking.controller;
 
 import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.AccountSummaryDto;
+import com.eagle.banking.dto.BalanceDto;
 import com.eagle.banking.exception.ForbiddenException;
 import com.eagle.banking.model.Account;
 import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.AccountSummaryService;
 import com.eagle.banking.service.TransactionService;
 import com.eagle.banking.service.UserService;
+import com.eagle.banking.service.readmodel.ReadModel;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static com.eagle.banking.dto.AccountDto.fromEntity;
 import static com.eagle.banking.helper.AuthHelper.requireAuth;
@@ -22,11 +30,18 @@ import static com.eagle.banking.helper.AuthHelper.requireAuth;
 public class AccountController {
 
     private final AccountService accountService;
+    private final TransactionService txService;
     private final UserService userService;
+    private final AccountSummaryService summaryService;
+    private final ReadModel readModel;
 
-    public AccountController(AccountService accountService, TransactionService txService, UserService userService) {
+    public AccountController(AccountService accountService, TransactionService txService, UserService userService,
+                             AccountSummaryService summaryService, ReadModel readModel) {
         this.accountService = accountService;
+        this.txService = txService;
         this.userService = userService;
+        this.summaryService = summaryService;
+        this.readModel = readModel;
     }
 
     @PostMapping
@@ -37,23 +52,54 @@ public class AccountController {
         account.setUser(userService.getById(callerId));
         Account created = accountService.create(account);
         AccountDto dto = fromEntity(created);
-        return ResponseEntity.status(HttpStatus.CREATED).body(dto);
+        return consistent(ResponseEntity.status(HttpStatus.CREATED)).body(dto);
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountDto>> list(Authentication auth) {
+    public ResponseEntity<List<AccountDto>> list(@RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
+                                                 Authentication auth) {
         requireAuth(auth);
         String callerId = auth.getName();
-        List<AccountDto> dtos = accountService.getByUserId(callerId).stream().map(a -> fromEntity(a)).toList();
+        List<AccountDto> dtos = readModel.canServe(token)
+                ? readModel.accounts(callerId)
+                : accountService.getDtosByUserId(callerId);
         return ResponseEntity.ok(dtos);
     }
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<AccountDto> get(@PathVariable String accountId, Authentication auth) {
+    public ResponseEntity<AccountDto> get(@PathVariable String accountId,
+                                          @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
+                                          Authentication auth) {
         requireAuth(auth);
-        var account = accountService.getById(accountId);
-        if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
-        return ResponseEntity.ok(fromEntity(account));
+        Optional<AccountDto> view = readModel.canServe(token) ? readModel.account(accountId) : Optional.empty();
+        AccountDto dto = view.orElseGet(() -> fromEntity(accountService.getById(accountId)));
+        if (!auth.getName().equals(dto.userId())) throw new ForbiddenException("forbidden");
+        return ResponseEntity.ok(dto);
+    }
+
+    // balance as of an instant, read from the balanceAfter of the last transaction at or before it
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<BalanceDto> balance(@PathVariable String accountId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+                                              Authentication auth) {
+        requireAuth(auth);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+        if (at == null) {
+            return ResponseEntity.ok(new BalanceDto(accountId, accountService.getById(accountId).getBalance(), Instant.now()));
+        }
+        return ResponseEntity.ok(new BalanceDto(accountId, txService.balanceAt(accountId, at), at));
+    }
+
+    // inflow/outflow per UTC day or month, read from the daily rollups only
+    @GetMapping("/{accountId}/summary")
+    public ResponseEntity<List<AccountSummaryDto>> summary(@PathVariable String accountId,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                           @RequestParam(defaultValue = "day") String granularity,
+                                                           Authentication auth) {
+        requireAuth(auth);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+        return ResponseEntity.ok(summaryService.summarize(accountId, from, to, AccountSummaryService.Granularity.from(granularity)));
     }
 
     @PatchMapping("/{accountId}")
@@ -61,17 +107,21 @@ public class AccountController {
         requireAuth(auth);
         var account = accountService.getById(accountId);
         if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
-        if (update.getAccountType() != null) account.setAccountType(update.getAccountType());
-        accountService.update(account);
-        return ResponseEntity.ok(fromEntity(account));
+        if (update.getAccountType() != null) accountService.changeType(account, update.getAccountType());
+        return consistent(ResponseEntity.ok()).body(fromEntity(account));
     }
 
     @DeleteMapping("/{accountId}")
     public ResponseEntity<Void> delete(@PathVariable String accountId, Authentication auth) {
         requireAuth(auth);
-        var account = accountService.getById(accountId);
-        if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
         accountService.delete(accountId);
-        return ResponseEntity.noContent().build();
+        return consistent(ResponseEntity.status(HttpStatus.NO_CONTENT)).build();
+    }
+
+    // read after the write has returned, so the token covers it
+    private ResponseEntity.BodyBuilder consistent(ResponseEntity.BodyBuilder response) {
+        if (readModel.isEnabled()) response.header(ReadModel.TOKEN_HEADER, readModel.token());
+        return response;
     }
 }
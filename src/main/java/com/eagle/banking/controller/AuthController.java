@@ -4,11 +4,10 @@ import com.eagle.banking.dto.AuthRequest;
 import com.eagle.banking.dto.AuthResponse;
 import com.eagle.banking.model.User;
 import com.eagle.banking.security.JwtUtil;
+import com.eagle.banking.security.PasswordHashingExecutor;
 import com.eagle.banking.service.UserService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,30 +20,31 @@ public class AuthController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
 
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor passwordHasher;
 
-    public AuthController(UserService userService, JwtUtil jwtUtil, AuthenticationManager authenticationManager) {
+    public AuthController(UserService userService, JwtUtil jwtUtil, PasswordHashingExecutor passwordHasher) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
-        this.authenticationManager = authenticationManager;
+        this.passwordHasher = passwordHasher;
     }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest req) {
-        var oUser = userService.findByUsername(req.getUsername());
+        if (req.username() == null || req.password() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // single user lookup; the hash is checked here rather than via AuthenticationManager,
+        // which would load the same user again through the UserDetailsService
+        var oUser = userService.findByUsername(req.username());
+        if (oUser.isEmpty()) {
+            passwordHasher.matchUnknownUser(req.password());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         User user = oUser.get();
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            user.getUsername(),
-                            req.getPassword()
-                    )
-            );
-            String token = jwtUtil.generateToken(user.getId());
-            return ResponseEntity.ok(new AuthResponse(token));
-        } catch (BadCredentialsException e) {
-            return ResponseEntity.status(401).build();
+        if (!passwordHasher.matches(req.password(), user.getPassword())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-
+        String token = jwtUtil.generateToken(user.getId());
+        return ResponseEntity.ok(new AuthResponse(token));
     }
 }
@@ -1,22 +1,42 @@
 package com.eagle.banking.controller;
 
+import com.eagle.banking.dto.BatchItemResult;
 import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.exception.ForbiddenException;
 import com.eagle.banking.exception.InsufficientFundsException;
 import com.eagle.banking.exception.InvalidRequestException;
-import com.eagle.banking.model.Account;
+import com.eagle.banking.helper.TransactionExportWriter;
 import com.eagle.banking.model.Transaction;
 import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.TransactionCursor;
+import com.eagle.banking.repo.TransactionQuery;
 import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
 import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.idempotency.IdempotencyGuard;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import com.eagle.banking.service.readmodel.ReadModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static com.eagle.banking.dto.TransactionDto.fromEntity;
 import static com.eagle.banking.helper.AuthHelper.requireAuth;
@@ -25,68 +45,179 @@ import static com.eagle.banking.helper.AuthHelper.requireAuth;
 @RequestMapping("/v1/accounts/{accountId}/transactions")
 public class TransactionController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final String[] OUTCOMES = {"posted", "insufficient_funds", "error"};
+    private static final int OUTCOME_POSTED = 0;
+    private static final int OUTCOME_INSUFFICIENT_FUNDS = 1;
+    private static final int OUTCOME_ERROR = 2;
+
     private final TransactionService txService;
     private final AccountService accountService;
+    private final LedgerService ledgerService;
+    private final IdempotencyGuard idempotencyGuard;
+    // ledger.post by [type ordinal, or TYPES.length for a missing type][outcome], registered up front
+    private final Timer[][] postTimers;
+    private final ReadModel readModel;
 
-    public TransactionController(TransactionService txService, AccountService accountService) {
+    public TransactionController(TransactionService txService, AccountService accountService, LedgerService ledgerService,
+                                 IdempotencyGuard idempotencyGuard, MeterRegistry meterRegistry, ReadModel readModel) {
         this.txService = txService;
         this.accountService = accountService;
+        this.ledgerService = ledgerService;
+        this.idempotencyGuard = idempotencyGuard;
+        this.postTimers = new Timer[TYPES.length + 1][OUTCOMES.length];
+        for (int t = 0; t <= TYPES.length; t++) {
+            String type = t == TYPES.length ? "null" : TYPES[t].name();
+            for (int o = 0; o < OUTCOMES.length; o++) {
+                postTimers[t][o] = Timer.builder("ledger.post").tag("type", type).tag("outcome", OUTCOMES[o])
+                        .register(meterRegistry);
+            }
+        }
+        this.readModel = readModel;
     }
 
     @PostMapping
     public ResponseEntity<TransactionDto> create(@PathVariable String accountId,
                                                  @Valid @RequestBody Transaction req,
+                                                 @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                                  Authentication auth) {
         requireAuth(auth);
-        // validate account exists and owner
-        Account account = accountService.getById(accountId);
-        if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
         if (req.getAmount() == null || req.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidRequestException("amount must be greater than 0");
         }
 
-        TransactionType type = req.getType();
-        if (TransactionType.WITHDRAW.equals(type)) {
-            if (account.getBalance().compareTo(req.getAmount()) < 0) {
-                throw new InsufficientFundsException("insufficient funds");
-            }
-            account.setBalance(account.getBalance().subtract(req.getAmount()));
-        } else if (TransactionType.DEPOSIT.equals(type)) {
-            account.setBalance(account.getBalance().add(req.getAmount()));
-        } else {
-            throw new InvalidRequestException("type must be deposit or withdrawal");
+        // balance check and update happen on the account's ledger lane
+        if (idempotencyKey == null) {
+            Transaction recorded = timedPost(req.getType(), () -> ledgerService.post(accountId, req.getType(), req.getAmount()));
+            return consistent(ResponseEntity.status(HttpStatus.CREATED)).body(fromEntity(recorded));
         }
 
-        // store updated account (in-memory)
-        // accountService already stores the object by reference
+        // a retry with the same key gets the original transaction back instead of posting again
+        IdempotencyKey key = IdempotencyKey.of(idempotencyKey, req.getType(), req.getAmount());
+        IdempotencyGuard.Result result = timedPost(req.getType(),
+                () -> idempotencyGuard.post(accountId, key, req.getType(), req.getAmount()));
+        ResponseEntity.BodyBuilder response = consistent(ResponseEntity.status(HttpStatus.CREATED));
+        if (result.replayed()) response.header(REPLAYED_HEADER, "true");
+        return response.body(fromEntity(result.transaction()));
+    }
 
-        req.setAccount(account);
-        Transaction recorded = txService.record(req);
+    // ledger.post{type,outcome}; the insufficient_funds count against the total is the rejection rate
+    private <T> T timedPost(TransactionType type, Supplier<T> post) {
+        long started = System.nanoTime();
+        int outcome = OUTCOME_ERROR;
+        try {
+            T result = post.get();
+            outcome = OUTCOME_POSTED;
+            return result;
+        } catch (InsufficientFundsException e) {
+            outcome = OUTCOME_INSUFFICIENT_FUNDS;
+            throw e;
+        } finally {
+            postTimers[type == null ? TYPES.length : type.ordinal()][outcome]
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // post many lines in one round trip; each line gets its own status so one bad line doesn't fail the rest
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createBatch(@PathVariable String accountId,
+                                                             @RequestBody List<Transaction> items,
+                                                             Authentication auth) {
+        requireAuth(auth);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+
+        List<PostingOutcome> outcomes = ledgerService.postBatch(accountId, items);
+        List<BatchItemResult> results = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            PostingOutcome outcome = outcomes.get(i);
+            if (outcome.isPosted()) {
+                results.add(new BatchItemResult(i, HttpStatus.CREATED.value(), fromEntity(outcome.transaction()), null));
+            } else {
+                HttpStatus status = outcome.error() instanceof InsufficientFundsException
+                        ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.BAD_REQUEST;
+                results.add(new BatchItemResult(i, status.value(), null, outcome.error().getMessage()));
+            }
+        }
+        return consistent(ResponseEntity.ok()).body(results);
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(fromEntity(recorded));
+    // read after the write has returned, so the token covers it
+    private ResponseEntity.BodyBuilder consistent(ResponseEntity.BodyBuilder response) {
+        if (readModel.isEnabled()) response.header(ReadModel.TOKEN_HEADER, readModel.token());
+        return response;
     }
 
     @GetMapping
-    public ResponseEntity<List<TransactionDto>> list(@PathVariable String accountId, Authentication auth) {
+    public ResponseEntity<List<TransactionDto>> list(@PathVariable String accountId,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) TransactionType type,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                     @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
+                                                     Authentication auth) {
         requireAuth(auth);
-        var account = accountService.getById(accountId);
-        if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
-        List<TransactionDto> transactions = txService.listForAccount(accountId).stream()
-                .map(t -> fromEntity(t))
-                .toList();
-        return ResponseEntity.ok(transactions);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TransactionCursor after = cursor == null ? null : TransactionCursor.decode(cursor);
+
+        // fetch one extra row to learn whether another page follows
+        TransactionQuery query = new TransactionQuery(accountId, type, from, to, after, pageSize + 1);
+        Optional<List<TransactionDto>> served = readModel.canServe(token) ? readModel.page(query) : Optional.empty();
+        List<TransactionDto> transactions = served.orElseGet(() -> txService.listDtoPage(query));
+        boolean hasMore = transactions.size() > pageSize;
+        if (hasMore) transactions = transactions.subList(0, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            TransactionDto last = transactions.get(transactions.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new TransactionCursor(last.createdAt(), last.id()).encode());
+        }
+        return response.body(transactions);
+    }
+
+    // full history for auditors, streamed row by row instead of being built up in memory
+    @GetMapping("/export")
+    public void export(@PathVariable String accountId,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       Authentication auth,
+                       HttpServletResponse response) throws IOException {
+        requireAuth(auth);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+        TransactionExportWriter.Format exportFormat = TransactionExportWriter.Format.from(format);
+        String accountType = accountService.getById(accountId).getAccountType();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions-" + accountId + "." + exportFormat.extension() + "\"");
+        try (TransactionExportWriter writer = new TransactionExportWriter(response.getOutputStream(), exportFormat, accountType)) {
+            txService.exportForAccount(accountId, writer);
+        }
     }
 
     @GetMapping("/{transactionId}")
     public ResponseEntity<TransactionDto> get(@PathVariable String accountId,
                                               @PathVariable String transactionId,
+                                              @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
                                               Authentication auth) {
         requireAuth(auth);
-        var account = accountService.getById(accountId);
-        if (!auth.getName().equals(account.getUser().getId())) throw new ForbiddenException("forbidden");
-        var txOpt = txService.find(accountId, transactionId);
+        if (!auth.getName().equals(accountService.getOwnerId(accountId))) throw new ForbiddenException("forbidden");
+        // a transaction the read model has not seen yet may still be on the write side
+        Optional<TransactionDto> txOpt = readModel.canServe(token) ? readModel.transaction(accountId, transactionId) : Optional.empty();
+        if (txOpt.isEmpty()) txOpt = txService.findDto(accountId, transactionId);
         if (txOpt.isEmpty()) throw new InvalidRequestException("transaction not found");
-        return ResponseEntity.ok(fromEntity(txOpt.get()));
+        return ResponseEntity.ok(txOpt.get());
     }
 
 }
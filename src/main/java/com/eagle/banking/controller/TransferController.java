@@ -0,0 +1,54 @@
+package com.eagle.banking.controller;
+
+import com.eagle.banking.dto.TransferDto;
+import com.eagle.banking.dto.TransferRequest;
+import com.eagle.banking.exception.ForbiddenException;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.readmodel.ReadModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+import static com.eagle.banking.dto.TransferDto.fromTransfer;
+import static com.eagle.banking.helper.AuthHelper.requireAuth;
+
+@RestController
+@RequestMapping("/v1/transfers")
+public class TransferController {
+
+    private final AccountService accountService;
+    private final LedgerService ledgerService;
+    private final ReadModel readModel;
+
+    public TransferController(AccountService accountService, LedgerService ledgerService, ReadModel readModel) {
+        this.accountService = accountService;
+        this.ledgerService = ledgerService;
+        this.readModel = readModel;
+    }
+
+    // the caller must own the source account; any existing account can receive
+    @PostMapping
+    public ResponseEntity<TransferDto> create(@RequestBody TransferRequest req, Authentication auth) {
+        requireAuth(auth);
+        if (req.fromAccountId() == null || req.toAccountId() == null) {
+            throw new InvalidRequestException("fromAccountId and toAccountId are required");
+        }
+        if (req.amount() == null || req.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidRequestException("amount must be greater than 0");
+        }
+        if (!auth.getName().equals(accountService.getOwnerId(req.fromAccountId()))) {
+            throw new ForbiddenException("forbidden");
+        }
+        accountService.getOwnerId(req.toAccountId()); // 404 for an unknown recipient
+
+        var transfer = ledgerService.transfer(req.fromAccountId(), req.toAccountId(), req.amount());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (readModel.isEnabled()) response.header(ReadModel.TOKEN_HEADER, readModel.token());
+        return response.body(fromTransfer(transfer));
+    }
+}
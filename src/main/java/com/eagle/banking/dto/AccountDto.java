@@ -1,26 +1,10 @@
 package com.eagle.banking.dto;
 
 import com.eagle.banking.model.Account;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.util.UUID;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class AccountDto {
-    private String id = UUID.randomUUID().toString();
-
-    private String userId;
-
-    private String accountNumber;
-
-    private String accountType;
-
-    private BigDecimal balance = BigDecimal.ZERO;
+public record AccountDto(String id, String userId, String accountNumber, String accountType, BigDecimal balance) {
 
     public static AccountDto fromEntity(Account account) {
         return new AccountDto(
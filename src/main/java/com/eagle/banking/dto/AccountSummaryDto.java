@@ -0,0 +1,9 @@
+package com.eagle.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record AccountSummaryDto(LocalDate periodStart, BigDecimal depositTotal, BigDecimal withdrawTotal,
+                                long transactionCount, BigDecimal minAmount, BigDecimal maxAmount,
+                                BigDecimal closingBalance) {
+}
@@ -1,9 +1,4 @@
 package com.eagle.banking.dto;
 
-import lombok.Data;
-
-@Data
-public class AuthRequest {
-    private String username;
-    private String password;
-}
\ No newline at end of file
+public record AuthRequest(String username, String password) {
+}
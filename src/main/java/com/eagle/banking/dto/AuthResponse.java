@@ -1,12 +1,4 @@
 package com.eagle.banking.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class AuthResponse {
-    private String token;
-}
\ No newline at end of file
+public record AuthResponse(String token) {
+}
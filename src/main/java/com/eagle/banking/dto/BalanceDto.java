@@ -0,0 +1,7 @@
+package com.eagle.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record BalanceDto(String accountId, BigDecimal balance, Instant at) {
+}
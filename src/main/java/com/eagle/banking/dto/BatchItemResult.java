@@ -0,0 +1,4 @@
+package com.eagle.banking.dto;
+
+public record BatchItemResult(int index, int status, TransactionDto transaction, String error) {
+}
@@ -0,0 +1,20 @@
+package com.eagle.banking.dto;
+
+import com.eagle.banking.service.ledger.Transfer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// transaction is the sender's debit leg only; the credit leg would show the recipient's balance
+public record TransferDto(String id, String fromAccountId, String toAccountId, BigDecimal amount, Instant createdAt,
+                          TransactionDto transaction) {
+
+    public static TransferDto fromTransfer(Transfer transfer) {
+        return new TransferDto(transfer.id(),
+                transfer.debit().getAccount().getId(),
+                transfer.credit().getAccount().getId(),
+                transfer.debit().getAmount(),
+                transfer.debit().getCreatedAt(),
+                TransactionDto.fromEntity(transfer.debit()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.eagle.banking.dto;
+
+import java.math.BigDecimal;
+
+public record TransferRequest(String fromAccountId, String toAccountId, BigDecimal amount) {
+}
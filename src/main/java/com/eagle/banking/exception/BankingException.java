@@ -0,0 +1,22 @@
+package com.eagle.banking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the exceptions that map straight to an error response. They are expected outcomes rather than
+ * bugs, and the handler never looks at where they came from, so no stack trace is captured; under a flood
+ * of 403/404/422s that capture was most of the cost of failing a request.
+ */
+public abstract class BankingException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected BankingException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
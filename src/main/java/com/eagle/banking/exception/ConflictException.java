@@ -1,7 +1,9 @@
 package com.eagle.banking.exception;
 
-public class ConflictException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends BankingException {
     public ConflictException(String message) {
-        super(message);
+        super(HttpStatus.CONFLICT, message);
     }
 }
\ No newline at end of file
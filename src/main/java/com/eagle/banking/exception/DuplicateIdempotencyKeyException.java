@@ -0,0 +1,8 @@
+package com.eagle.banking.exception;
+
+// another request already recorded this Idempotency-Key; the posting that hit it has been rolled back
+public class DuplicateIdempotencyKeyException extends ConflictException {
+    public DuplicateIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package com.eagle.banking.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Encodes error bodies straight to UTF-8 bytes in the same shape Jackson produced from the handler's map:
+ * {@code {"timestamp":"...","status":404,"error":"Not Found","message":"..."}}. The status and reason part is
+ * built once per status, and the timestamp text is reused by every error within the same millisecond, so an
+ * error costs one exactly-sized byte array instead of a map, a LocalDateTime and a generic serializer pass.
+ */
+public class ErrorResponseWriter {
+
+    private static final byte[] OPEN = "{\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private record Stamp(long millis, byte[] text) {
+    }
+
+    private final Map<HttpStatus, byte[]> fragments = new EnumMap<>(HttpStatus.class);
+    private final ZoneId zone;
+    private volatile Stamp stamp = new Stamp(Long.MIN_VALUE, new byte[0]);
+
+    public ErrorResponseWriter() {
+        this(ZoneId.systemDefault());
+    }
+
+    public ErrorResponseWriter(ZoneId zone) {
+        this.zone = zone;
+        for (HttpStatus status : HttpStatus.values()) {
+            fragments.put(status, ("\",\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase()
+                    + "\",\"message\":").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public byte[] write(HttpStatus status, String message) {
+        return write(status, message, System.currentTimeMillis());
+    }
+
+    byte[] write(HttpStatus status, String message, long nowMillis) {
+        byte[] time = timestamp(nowMillis);
+        byte[] fragment = fragments.get(status);
+        int messageLength = message == null ? NULL.length : quotedLength(message);
+        byte[] out = new byte[OPEN.length + time.length + fragment.length + messageLength + 1];
+        int pos = put(out, 0, OPEN);
+        pos = put(out, pos, time);
+        pos = put(out, pos, fragment);
+        pos = message == null ? put(out, pos, NULL) : putQuoted(out, pos, message);
+        out[pos] = '}';
+        return out;
+    }
+
+    private byte[] timestamp(long millis) {
+        Stamp current = stamp;
+        if (current.millis() == millis) return current.text();
+        byte[] text = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone))
+                .getBytes(StandardCharsets.US_ASCII);
+        stamp = new Stamp(millis, text);
+        return text;
+    }
+
+    private static int put(byte[] out, int pos, byte[] bytes) {
+        System.arraycopy(bytes, 0, out, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    // encoded size of the message as a JSON string, quotes included
+    private static int quotedLength(String s) {
+        int n = 2;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') n += 2;
+            else if (c < 0x20) n += 6;
+            else if (c < 0x80) n += 1;
+            else if (c < 0x800) n += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) n += 1;
+            else n += 3;
+        }
+        return n;
+    }
+
+    private static int putQuoted(byte[] out, int pos, String s) {
+        out[pos++] = '"';
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[pos++] = '\\';
+                out[pos++] = (byte) c;
+            } else if (c < 0x20) {
+                out[pos++] = '\\';
+                out[pos++] = 'u';
+                out[pos++] = '0';
+                out[pos++] = '0';
+                out[pos++] = HEX[c >> 4];
+                out[pos++] = HEX[c & 0xf];
+            } else if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xc0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[pos++] = (byte) (0xf0 | (cp >> 18));
+                out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                out[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // a lone surrogate has no UTF-8 form
+                out[pos++] = '?';
+            } else {
+                out[pos++] = (byte) (0xe0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        out[pos++] = '"';
+        return pos;
+    }
+}
@@ -1,7 +1,9 @@
 package com.eagle.banking.exception;
 
-public class InsufficientFundsException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class InsufficientFundsException extends BankingException {
     public InsufficientFundsException(String message) {
-        super(message);
+        super(HttpStatus.UNPROCESSABLE_ENTITY, message);
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.eagle.banking.exception;
 
-public class InvalidRequestException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends BankingException {
     public InvalidRequestException(String message) {
-        super(message);
+        super(HttpStatus.BAD_REQUEST, message);
     }
 }
\ No newline at end of file
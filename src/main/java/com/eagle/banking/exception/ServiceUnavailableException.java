@@ -0,0 +1,16 @@
+package com.eagle.banking.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BankingException {
+    private final int retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, int retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
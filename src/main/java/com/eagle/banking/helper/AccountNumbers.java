@@ -0,0 +1,50 @@
+package com.eagle.banking.helper;
+
+/**
+ * Formats sequence values as account numbers: "ACCT-", the value zero-padded to ten digits, and a Luhn check
+ * digit so a mistyped number is rejected before it reaches a lookup.
+ */
+public final class AccountNumbers {
+
+    public static final String PREFIX = "ACCT-";
+
+    private AccountNumbers() {
+    }
+
+    public static String format(long value) {
+        String digits = String.format("%010d", value);
+        return PREFIX + digits + checkDigit(digits);
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || !accountNumber.startsWith(PREFIX) || accountNumber.length() < PREFIX.length() + 2) {
+            return false;
+        }
+        String digits = accountNumber.substring(PREFIX.length());
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) return false;
+        }
+        return checkDigit(digits.substring(0, digits.length() - 1)) == digits.charAt(digits.length() - 1);
+    }
+
+    // the sequence value an account number was formatted from
+    public static long sequenceValue(String accountNumber) {
+        if (!isValid(accountNumber)) throw new IllegalArgumentException("not an account number: " + accountNumber);
+        return Long.parseLong(accountNumber.substring(PREFIX.length(), accountNumber.length() - 1));
+    }
+
+    static char checkDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
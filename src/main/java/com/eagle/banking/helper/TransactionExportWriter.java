@@ -0,0 +1,132 @@
+package com.eagle.banking.helper;
+
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.Transaction;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Writes transactions one row at a time straight to an output stream, in the same field layout as
+ * {@link com.eagle.banking.dto.TransactionDto}. Nothing is collected, so memory use does not depend on
+ * how many rows are exported.
+ */
+public class TransactionExportWriter implements Consumer<Transaction>, Closeable {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("format must be ndjson or csv");
+            }
+        }
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Format format;
+    private final String accountType;
+    private final Writer out;
+    private final JsonGenerator json;
+
+    public TransactionExportWriter(OutputStream stream, Format format, String accountType) throws IOException {
+        this.format = format;
+        this.accountType = accountType;
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 16 * 1024);
+        if (format == Format.NDJSON) {
+            this.json = JSON.createGenerator(out);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null); // lines are terminated by hand below
+        } else {
+            this.json = null;
+            out.write("id,accountType,amount,type,createdAt,balanceAfter,transferId\n");
+        }
+    }
+
+    @Override
+    public void accept(Transaction tx) {
+        try {
+            if (format == Format.NDJSON) writeJson(tx);
+            else writeCsv(tx);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJson(Transaction tx) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", tx.getId());
+        json.writeStringField("accountType", accountType);
+        json.writeFieldName("amount");
+        json.writeNumber(tx.getAmount());
+        json.writeStringField("type", tx.getType().name());
+        json.writeStringField("createdAt", tx.getCreatedAt().toString());
+        json.writeFieldName("balanceAfter");
+        json.writeNumber(tx.getBalanceAfter());
+        json.writeStringField("transferId", tx.getTransferId());
+        json.writeEndObject();
+        json.flush();
+        out.write('\n');
+    }
+
+    private void writeCsv(Transaction tx) throws IOException {
+        out.write(csv(tx.getId()));
+        out.write(',');
+        out.write(csv(accountType));
+        out.write(',');
+        out.write(tx.getAmount().toPlainString());
+        out.write(',');
+        out.write(tx.getType().name());
+        out.write(',');
+        out.write(tx.getCreatedAt().toString());
+        out.write(',');
+        if (tx.getBalanceAfter() != null) out.write(tx.getBalanceAfter().toPlainString());
+        out.write(',');
+        out.write(csv(tx.getTransferId()));
+        out.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) json.close();
+        out.flush();
+    }
+}
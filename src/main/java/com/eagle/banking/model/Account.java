@@ -1,5 +1,6 @@
 package com.eagle.banking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.util.UUID;
+import java.time.Instant;
 
 @Data
 @AllArgsConstructor
@@ -16,14 +17,15 @@ import java.util.UUID;
 @Table(name = "accounts")
 public class Account {
     @Id
+    @TimeOrderedId
     @Column
-    private String id = UUID.randomUUID().toString();
+    private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String accountNumber;
 
     @NotBlank(message = "accountType is required")
@@ -32,4 +34,14 @@ public class Account {
 
     @Column(nullable = false)
     private BigDecimal balance = BigDecimal.ZERO;
+
+    // what the account was opened with and when, so a balance asked for before its first posting is known;
+    // null on rows written before these were recorded
+    @JsonIgnore
+    @Column(updatable = false)
+    private BigDecimal openingBalance;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private Instant openedAt;
 }
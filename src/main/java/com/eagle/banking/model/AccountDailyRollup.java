@@ -0,0 +1,92 @@
+package com.eagle.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-account totals for one UTC day, kept up to date by the ledger in the same database transaction that
+ * records each posting.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@IdClass(AccountDailyRollup.Key.class)
+@Table(name = "account_daily_rollups")
+public class AccountDailyRollup implements Persistable<AccountDailyRollup.Key> {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String accountId;
+        private LocalDate day;
+    }
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Id
+    @Column(name = "rollup_day") // DAY is a reserved word in H2
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private BigDecimal depositTotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private BigDecimal withdrawTotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private BigDecimal minAmount;
+
+    @Column(nullable = false)
+    private BigDecimal maxAmount;
+
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+
+    // lets save() persist a new day directly instead of merging (and selecting) by the assigned key
+    @Transient
+    private boolean fresh = true;
+
+    public AccountDailyRollup(String accountId, LocalDate day) {
+        this.accountId = accountId;
+        this.day = day;
+    }
+
+    public void add(Transaction tx) {
+        BigDecimal amount = tx.getAmount();
+        if (tx.getType().isCredit()) depositTotal = depositTotal.add(amount);
+        else withdrawTotal = withdrawTotal.add(amount);
+        transactionCount++;
+        minAmount = minAmount == null || amount.compareTo(minAmount) < 0 ? amount : minAmount;
+        maxAmount = maxAmount == null || amount.compareTo(maxAmount) > 0 ? amount : maxAmount;
+        closingBalance = tx.getBalanceAfter();
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(accountId, day);
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        fresh = false;
+    }
+}
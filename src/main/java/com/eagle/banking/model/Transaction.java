@@ -8,16 +8,19 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // serves keyset pagination of an account's history ordered by (createdAt, id)
+        @Index(name = "idx_transactions_account_created_id", columnList = "account_id, created_at, id")
+})
 public class Transaction {
     @Id
-    private String id = UUID.randomUUID().toString();
+    @TimeOrderedId
+    private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
@@ -32,7 +35,20 @@ public class Transaction {
     @Enumerated(EnumType.STRING) // Store enum name in DB instead of ordinal number
     private TransactionType type;
 
+    // no initializer: Hibernate instantiates every loaded row through the no-args constructor
     @Column(nullable = false)
-    private Instant createdAt = Instant.now();
+    private Instant createdAt;
 
+    // account balance once this transaction was applied; every row doubles as a balance checkpoint
+    @Column(nullable = false)
+    private BigDecimal balanceAfter;
+
+    // shared by the debit and credit legs of a transfer; null for deposits and withdrawals
+    @Column
+    private String transferId;
+
+    @PrePersist
+    void stampCreatedAt() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
 }
@@ -2,5 +2,16 @@ package com.eagle.banking.model;
 
 public enum TransactionType {
     DEPOSIT,
-    WITHDRAW
+    WITHDRAW,
+    // the two legs of a transfer, always recorded together under one transferId
+    TRANSFER_OUT,
+    TRANSFER_IN;
+
+    public boolean isCredit() {
+        return this == DEPOSIT || this == TRANSFER_IN;
+    }
+
+    public boolean isTransfer() {
+        return this == TRANSFER_OUT || this == TRANSFER_IN;
+    }
 }
@@ -1,30 +1,45 @@
 package com.eagle.banking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
+import java.util.Locale;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        // lower-cased username, so uniqueness is case-insensitive; the name is how a clash is told apart
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username_normalized")
+})
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_users_username_normalized";
+
     @Id
+    @TimeOrderedId
     @Column
-    private String id = UUID.randomUUID().toString();
+    private String id;
 
     @Column(nullable = false)
     @NotBlank(message = "username is required")
     private String username;
 
+    // lower-cased copy of username, under USERNAME_CONSTRAINT
+    @JsonIgnore
+    @Column(name = "username_normalized", nullable = false)
+    private String usernameNormalized;
+
     @Column(nullable = false)
     @NotBlank(message = "fullName is required")
     private String fullName;
@@ -32,4 +47,14 @@ public class User {
     @Column(nullable = false)
     @NotBlank(message = "password is required")
     private String password; // plain text for demo only — DON'T do this in prod
+
+    @PrePersist
+    @PreUpdate
+    void normalizeUsername() {
+        usernameNormalized = normalize(username);
+    }
+
+    public static String normalize(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,13 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.model.AccountDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailyRollupRepository extends JpaRepository<AccountDailyRollup, AccountDailyRollup.Key> {
+    List<AccountDailyRollup> findByAccountIdAndDayBetweenOrderByDayAsc(String accountId, LocalDate from, LocalDate to);
+}
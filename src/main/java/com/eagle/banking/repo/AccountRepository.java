@@ -1,12 +1,46 @@
 package com.eagle.banking.repo;
 
+import com.eagle.banking.dto.AccountDto;
 import com.eagle.banking.model.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
     List<Account> findByUserId(String userId);
+
+    // the response shape in one select, so listing never touches the lazy user association
+    @Query("select new com.eagle.banking.dto.AccountDto(a.id, a.user.id, a.accountNumber, a.accountType, a.balance) "
+            + "from Account a where a.user.id = :userId")
+    List<AccountDto> findDtosByUserId(String userId);
+
+    // every account in the response shape, for building the read model at startup
+    @Query("select new com.eagle.banking.dto.AccountDto(a.id, a.user.id, a.accountNumber, a.accountType, a.balance) "
+            + "from Account a")
+    List<AccountDto> findAllDtos();
+
+    boolean existsByUserId(String userId);
+
+    // reads the user_id column only; neither the account nor its user is loaded
+    @Query("select a.user.id from Account a where a.id = :id")
+    Optional<String> findOwnerIdById(String id);
+
+    // empty before the account was opened, and for rows that never recorded an opening balance
+    @Query("select a.openingBalance from Account a "
+            + "where a.id = :id and a.openingBalance is not null and (a.openedAt is null or a.openedAt <= :at)")
+    Optional<BigDecimal> findOpeningBalance(String id, Instant at);
+
+    // writes the type column only, so a retype can never carry a balance read before it
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.accountType = :accountType where a.id = :id")
+    int updateAccountType(String id, String accountType);
 }
@@ -0,0 +1,65 @@
+package com.eagle.banking.repo;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Account balances as longs in minor units, one slot per dense account ordinal. Slots live in fixed-size
+ * chunks (stripes) created on first use, so the table grows without copying and readers never block.
+ * Each slot has a single writer, the ledger lane owning the account. A released slot is handed out again
+ * before the table grows.
+ */
+public class BalanceTable {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Queue<Integer> released = new ConcurrentLinkedQueue<>();
+
+    public int allocate() {
+        Integer reused = released.poll();
+        int ordinal = reused != null ? reused : nextOrdinal.getAndIncrement();
+        if (ordinal >= MAX_CHUNKS * CHUNK_SIZE) throw new IllegalStateException("balance table is full");
+        chunk(ordinal).set(ordinal & (CHUNK_SIZE - 1), 0L);
+        return ordinal;
+    }
+
+    // the caller must make sure nothing reads the slot for its old account once this returns
+    public void release(int ordinal) {
+        chunk(ordinal).set(ordinal & (CHUNK_SIZE - 1), 0L);
+        released.add(ordinal);
+    }
+
+    public long get(int ordinal) {
+        return chunk(ordinal).get(ordinal & (CHUNK_SIZE - 1));
+    }
+
+    public void set(int ordinal, long minorUnits) {
+        chunk(ordinal).set(ordinal & (CHUNK_SIZE - 1), minorUnits);
+    }
+
+    // one past the highest ordinal ever allocated, released ones included
+    public int size() {
+        return nextOrdinal.get();
+    }
+
+    public int inUse() {
+        return nextOrdinal.get() - released.size();
+    }
+
+    private AtomicLongArray chunk(int ordinal) {
+        int index = ordinal >>> CHUNK_BITS;
+        AtomicLongArray chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicLongArray(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+}
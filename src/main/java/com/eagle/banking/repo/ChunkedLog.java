@@ -0,0 +1,55 @@
+package com.eagle.banking.repo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An append-only sequence stored in fixed-size chunks that are never moved once written. There is a single
+ * writer; readers take no locks and see every entry up to the size they read, because an entry is written
+ * before the volatile size that publishes it.
+ */
+public class ChunkedLog<T> {
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private volatile Object[][] chunks = new Object[4][];
+    private volatile int size;
+
+    public void append(T entry) {
+        int index = size;
+        int chunk = index >>> CHUNK_BITS;
+        Object[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            chunks = current;
+        }
+        if (current[chunk] == null) current[chunk] = new Object[CHUNK_SIZE];
+        current[chunk][index & (CHUNK_SIZE - 1)] = entry;
+        size = index + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // only valid for index < a size() read earlier by the same thread
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) chunks[index >>> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+    }
+
+    public void forEach(Consumer<T> action) {
+        int n = size;
+        for (int i = 0; i < n; i++) action.accept(get(i));
+    }
+
+    public List<T> snapshot() {
+        int n = size;
+        List<T> copy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) copy.add(get(i));
+        return copy;
+    }
+}
@@ -0,0 +1,28 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    Optional<IdempotencyRecord> findByAccountIdAndIdempotencyKey(String accountId, String idempotencyKey);
+
+    boolean existsByAccountIdAndIdempotencyKey(String accountId, String idempotencyKey);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.accountId = :accountId and r.idempotencyKey = :key and r.createdAt < :before")
+    int deleteExpired(String accountId, String key, Instant before);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(Instant before);
+}
@@ -1,17 +1,180 @@
 package com.eagle.banking.repo;
 
 import com.eagle.banking.model.Account;
+import com.eagle.banking.model.AccountDailyRollup;
+import com.eagle.banking.model.IdempotencyRecord;
 import com.eagle.banking.model.Transaction;
 import com.eagle.banking.model.User;
-import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-@Repository
+// a plain component: @Repository would put it behind an exception-translation proxy, hiding the public fields
+@Component
 public class InMemoryStore {
     public final Map<String, User> users = new ConcurrentHashMap<>();
+    // normalized username -> user id; putIfAbsent here is what makes usernames unique
+    public final Map<String, String> userIdsByUsername = new ConcurrentHashMap<>();
     public final Map<String, Account> accounts = new ConcurrentHashMap<>();
-    public final Map<String, List<Transaction>> transactions = new ConcurrentHashMap<>();
-}
\ No newline at end of file
+    public final Map<String, Set<String>> accountIdsByUser = new ConcurrentHashMap<>();
+    public final Map<String, Integer> accountOrdinals = new ConcurrentHashMap<>();
+    public final BalanceTable balances = new BalanceTable();
+    public final Map<String, TransactionLog> transactions = new ConcurrentHashMap<>();
+    public final Map<String, Transaction> transactionsById = new ConcurrentHashMap<>();
+    public final Map<AccountDailyRollup.Key, AccountDailyRollup> dailyRollups = new ConcurrentHashMap<>();
+    // keyed by idempotencyKey(accountId, key)
+    public final Map<String, IdempotencyRecord> idempotencyKeys = new ConcurrentHashMap<>();
+
+    // history left in the snapshot the store was restored from, read per account the first time it is touched
+    public interface HistoryArchive {
+        List<Transaction> load(Account account, int ordinal);
+    }
+
+    private volatile HistoryArchive archive;
+    // postings journal replay found for accounts it left unloaded, appended after the archive rows on first touch
+    private final Map<String, List<Transaction>> replayed = new ConcurrentHashMap<>();
+
+    // the mutations below are shared by the services and by journal replay
+
+    public void putUser(User user) {
+        users.put(user.getId(), user);
+        if (user.getUsernameNormalized() != null) userIdsByUsername.put(user.getUsernameNormalized(), user.getId());
+    }
+
+    public User removeUser(String id) {
+        User removed = users.remove(id);
+        if (removed != null && removed.getUsernameNormalized() != null) {
+            userIdsByUsername.remove(removed.getUsernameNormalized(), id);
+        }
+        return removed;
+    }
+
+    public int openAccount(Account account, long balance) {
+        int ordinal = balances.allocate();
+        balances.set(ordinal, balance);
+        accountOrdinals.put(account.getId(), ordinal);
+        accounts.put(account.getId(), account);
+        // added and removed under the map's lock, so a close emptying the set cannot drop an id added beside it
+        accountIdsByUser.compute(account.getUser().getId(), (user, ids) -> {
+            Set<String> owned = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            owned.add(account.getId());
+            return owned;
+        });
+        return ordinal;
+    }
+
+    /**
+     * Drops the account and everything held for it. Its balance slot goes back to the table last, after the
+     * ordinal is unmapped, so a reader that still finds the ordinal mapped after reading the slot read this
+     * account's balance.
+     */
+    public Account closeAccount(String id) {
+        Account removed = accounts.remove(id);
+        if (removed == null) return null;
+        accountIdsByUser.computeIfPresent(removed.getUser().getId(), (user, owned) -> {
+            owned.remove(id);
+            return owned.isEmpty() ? null : owned;
+        });
+        replayed.remove(id);
+        // rollups are only built for loaded histories, so the history's days are all the rollups there are
+        TransactionLog history = transactions.remove(id);
+        if (history != null) {
+            history.forEach(tx -> {
+                transactionsById.remove(tx.getId());
+                dailyRollups.remove(new AccountDailyRollup.Key(id, day(tx)));
+            });
+        }
+        // keys are not indexed by account; closing is rare, and the expiry sweep walks them all anyway
+        idempotencyKeys.values().removeIf(r -> id.equals(r.getAccountId()));
+        Integer ordinal = accountOrdinals.remove(id);
+        if (ordinal != null) balances.release(ordinal);
+        return removed;
+    }
+
+    public void appendTransaction(Transaction tx) {
+        TransactionLog log = history(tx.getAccount().getId());
+        if (log == null) log = transactions.computeIfAbsent(tx.getAccount().getId(), k -> new TransactionLog());
+        log.append(tx);
+        transactionsById.put(tx.getId(), tx);
+    }
+
+    public void rememberKey(IdempotencyRecord record) {
+        idempotencyKeys.put(idempotencyKey(record.getAccountId(), record.getIdempotencyKey()), record);
+    }
+
+    public static String idempotencyKey(String accountId, String key) {
+        return accountId + '\u0000' + key;
+    }
+
+    public void addToRollup(Transaction tx) {
+        String accountId = tx.getAccount().getId();
+        LocalDate day = day(tx);
+        dailyRollups.computeIfAbsent(new AccountDailyRollup.Key(accountId, day),
+                k -> new AccountDailyRollup(accountId, day)).add(tx);
+    }
+
+    private static LocalDate day(Transaction tx) {
+        return LocalDate.ofInstant(tx.getCreatedAt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * The account's history log, first loading whatever the archive holds for it along with its rollups and
+     * id index. Null for an account the store does not know.
+     */
+    public TransactionLog history(String accountId) {
+        TransactionLog log = transactions.get(accountId);
+        if (log != null) return log;
+        Account account = accounts.get(accountId);
+        if (account == null) return null;
+        return transactions.computeIfAbsent(accountId, id -> materialize(account));
+    }
+
+    public boolean isMaterialized(String accountId) {
+        return transactions.containsKey(accountId);
+    }
+
+    // journal replay is single-threaded and ordered, so the tail needs no locking of its own
+    public void deferReplayed(Transaction tx) {
+        replayed.computeIfAbsent(tx.getAccount().getId(), k -> new ArrayList<>()).add(tx);
+    }
+
+    public boolean hasReplayed(String accountId) {
+        return replayed.containsKey(accountId);
+    }
+
+    public HistoryArchive archive() {
+        return archive;
+    }
+
+    public void setArchive(HistoryArchive archive) {
+        this.archive = archive;
+    }
+
+    private TransactionLog materialize(Account account) {
+        TransactionLog log = new TransactionLog();
+        HistoryArchive source = archive;
+        Integer ordinal = accountOrdinals.get(account.getId());
+        if (source != null && ordinal != null) {
+            for (Transaction tx : source.load(account, ordinal)) {
+                log.append(tx);
+                transactionsById.put(tx.getId(), tx);
+                addToRollup(tx);
+            }
+        }
+        List<Transaction> tail = replayed.remove(account.getId());
+        if (tail != null) {
+            for (Transaction tx : tail) {
+                if (transactionsById.putIfAbsent(tx.getId(), tx) != null) continue; // already in the snapshot
+                log.append(tx);
+                addToRollup(tx);
+            }
+        }
+        return log;
+    }
+}
@@ -0,0 +1,30 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a history page. Encoded as an opaque url-safe token so clients
+ * cannot depend on its layout.
+ */
+public record TransactionCursor(Instant createdAt, String id) {
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TransactionCursor(createdAt, parts[2]);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.model.Transaction;
+
+/**
+ * One account's history in posting order. The account's ledger lane is the only writer; see {@link ChunkedLog}
+ * for how readers see a consistent prefix without locking.
+ */
+public class TransactionLog extends ChunkedLog<Transaction> {
+}
@@ -0,0 +1,14 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.model.TransactionType;
+
+import java.time.Instant;
+
+// one page of an account's history in (createdAt, id) order; null filters are ignored
+public record TransactionQuery(String accountId,
+                               TransactionType type,
+                               Instant from,
+                               Instant to,
+                               TransactionCursor after,
+                               int limit) {
+}
@@ -1,14 +1,25 @@
 package com.eagle.banking.repo;
 
+import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, TransactionRepositoryCustom {
     List<Transaction> findByAccountId(String accountId);
 
+    // the account comes with it, so the row can be rendered after its session has closed (idempotent replays)
+    @Query("select t from Transaction t join fetch t.account a where a.id = :accountId and t.id = :transactionId")
     Optional<Transaction> findByAccountIdAndId(String accountId, String transactionId);
 
+    @Query("select new com.eagle.banking.dto.TransactionDto(t.id, a.accountType, t.amount, t.type, t.createdAt, t.balanceAfter, t.transferId) "
+            + "from Transaction t join t.account a where a.id = :accountId and t.id = :transactionId")
+    Optional<TransactionDto> findDtoByAccountIdAndId(String accountId, String transactionId);
+
+    Optional<Transaction> findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(String accountId, Instant at);
+
 }
@@ -0,0 +1,19 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Transaction;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TransactionRepositoryCustom {
+    void persistAll(List<Transaction> transactions);
+
+    List<Transaction> findPage(TransactionQuery query);
+
+    List<TransactionDto> findDtoPage(TransactionQuery query);
+
+    List<TransactionDto> findLatestDtos(String accountId, int limit);
+
+    void forEachInAccount(String accountId, Consumer<Transaction> consumer);
+}
@@ -0,0 +1,110 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(List<Transaction> transactions) {
+        // persist rather than save(): ids are pre-assigned, so save() would merge and SELECT each row first.
+        // The inserts are flushed together at commit and grouped by hibernate.jdbc.batch_size.
+        for (Transaction tx : transactions) {
+            entityManager.persist(tx);
+        }
+    }
+
+    @Override
+    public List<Transaction> findPage(TransactionQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> cq = cb.createQuery(Transaction.class);
+        Root<Transaction> t = cq.from(Transaction.class);
+        cq.where(pageFilter(cb, t, query)).orderBy(cb.asc(t.get("createdAt")), cb.asc(t.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(query.limit()).getResultList();
+    }
+
+    @Override
+    public List<TransactionDto> findDtoPage(TransactionQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> cq = cb.createQuery(TransactionDto.class);
+        Root<Transaction> t = cq.from(Transaction.class);
+        // accountType comes from the joined row in the same select rather than a lazy load per transaction
+        Join<Transaction, Account> account = t.join("account");
+        cq.select(cb.construct(TransactionDto.class, t.get("id"), account.get("accountType"), t.get("amount"),
+                        t.get("type"), t.get("createdAt"), t.get("balanceAfter"), t.get("transferId")))
+                .where(pageFilter(cb, t, query))
+                .orderBy(cb.asc(t.get("createdAt")), cb.asc(t.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(query.limit()).getResultList();
+    }
+
+    // newest first, so the limit keeps the tail of the history
+    @Override
+    public List<TransactionDto> findLatestDtos(String accountId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> cq = cb.createQuery(TransactionDto.class);
+        Root<Transaction> t = cq.from(Transaction.class);
+        Join<Transaction, Account> account = t.join("account");
+        cq.select(cb.construct(TransactionDto.class, t.get("id"), account.get("accountType"), t.get("amount"),
+                        t.get("type"), t.get("createdAt"), t.get("balanceAfter"), t.get("transferId")))
+                .where(cb.equal(account.get("id"), accountId))
+                .orderBy(cb.desc(t.get("createdAt")), cb.desc(t.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    private static Predicate[] pageFilter(CriteriaBuilder cb, Root<Transaction> t, TransactionQuery query) {
+        Path<Instant> createdAt = t.get("createdAt");
+        Path<String> id = t.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(t.get("account").get("id"), query.accountId()));
+        if (query.type() != null) where.add(cb.equal(t.get("type"), query.type()));
+        if (query.from() != null) where.add(cb.greaterThanOrEqualTo(createdAt, query.from()));
+        if (query.to() != null) where.add(cb.lessThan(createdAt, query.to()));
+        if (query.after() != null) {
+            // seek past the previous page instead of OFFSET, so deep pages cost the same as the first
+            TransactionCursor after = query.after();
+            where.add(cb.or(
+                    cb.greaterThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.greaterThan(id, after.id()))));
+        }
+        return where.toArray(new Predicate[0]);
+    }
+
+    @Override
+    public void forEachInAccount(String accountId, Consumer<Transaction> consumer) {
+        try (Stream<Transaction> rows = entityManager.createQuery(
+                        "select t from Transaction t where t.account.id = :accountId order by t.createdAt, t.id",
+                        Transaction.class)
+                .setParameter("accountId", accountId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            rows.forEach(tx -> {
+                consumer.accept(tx);
+                // keep the persistence context from growing with the history
+                entityManager.detach(tx);
+            });
+        }
+    }
+}
@@ -2,11 +2,18 @@ package com.eagle.banking.repo;
 
 import com.eagle.banking.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
+
+    boolean existsByUsernameNormalized(String usernameNormalized);
+
+    @Query("select u.usernameNormalized from User u")
+    List<String> findAllUsernamesNormalized();
 }
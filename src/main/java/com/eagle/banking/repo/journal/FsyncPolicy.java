@@ -0,0 +1,16 @@
+package com.eagle.banking.repo.journal;
+
+import java.util.Locale;
+
+public enum FsyncPolicy {
+    // force the mapped pages before every append returns
+    EVERY_WRITE,
+    // callers waiting at the same time share one force
+    GROUP_COMMIT,
+    // a background thread forces every interval; a crash can lose up to one interval
+    INTERVAL;
+
+    public static FsyncPolicy from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
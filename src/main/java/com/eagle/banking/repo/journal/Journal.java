@@ -0,0 +1,543 @@
+package com.eagle.banking.repo.journal;
+
+import com.eagle.banking.repo.journal.JournalRecord.AccountDeleted;
+import com.eagle.banking.repo.journal.JournalRecord.AccountSaved;
+import com.eagle.banking.repo.journal.JournalRecord.KeyRemembered;
+import com.eagle.banking.repo.journal.JournalRecord.Posted;
+import com.eagle.banking.repo.journal.JournalRecord.Transferred;
+import com.eagle.banking.repo.journal.JournalRecord.UserDeleted;
+import com.eagle.banking.repo.journal.JournalRecord.UserSaved;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal in fixed-size memory-mapped segment files. Each record is framed as
+ * [length][crc32c][payload]; a zero length marks the end of written data, and a bad checksum in the newest
+ * segment is a torn write that is cut off on open. Once {@code compactAfterSegments} segments have been
+ * sealed they are rewritten in the background into one {@code .compacted} file without deleted users and
+ * accounts' saves and postings, or superseded user and account versions.
+ * <p>
+ * Changes go through {@link #commit}, which journals the record and then applies it to memory while holding
+ * the shared side of a gate; {@link #checkpoint} takes the exclusive side for an instant, so every record before
+ * the position it returns has also been applied. Snapshots use that position as their replay start.
+ */
+public class Journal implements Closeable {
+
+    private static final int HEADER = 8;
+    private static final int MAX_RECORD = 64 * 1024;
+    private static final int READ_BUFFER = 1024 * 1024;
+    private static final String SEGMENT = ".seg";
+    private static final String COMPACTED = ".compacted";
+    private static final String TMP = ".tmp";
+
+    private static final class Segment {
+        final long number;
+        final MappedByteBuffer buffer;
+        int position;
+        volatile int flushed;
+
+        Segment(long number, MappedByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+    }
+
+    private record ReadResult(long end, boolean clean) {
+    }
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final FsyncPolicy policy;
+    private final int compactAfterSegments;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantReadWriteLock applyGate = new ReentrantReadWriteLock();
+    private final AtomicLong durable = new AtomicLong();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ScheduledExecutorService background;
+    private final CRC32C writeCrc = new CRC32C();
+    private Segment active;
+    private int sealedSinceCompaction;
+
+    public Journal(Path dir, int segmentSize, FsyncPolicy policy, long intervalMillis, int compactAfterSegments) {
+        if (segmentSize < MAX_RECORD + HEADER) {
+            throw new IllegalArgumentException("journal segment size must be at least " + (MAX_RECORD + HEADER));
+        }
+        this.enabled = true;
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.policy = policy;
+        this.compactAfterSegments = compactAfterSegments;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "journal-background");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.background = executor;
+        try {
+            Files.createDirectories(dir);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open journal in " + dir, e);
+        }
+        if (policy == FsyncPolicy.INTERVAL) {
+            long interval = Math.max(1, intervalMillis);
+            background.scheduleWithFixedDelay(() -> flush(Long.MAX_VALUE), interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Journal() {
+        this.enabled = false;
+        this.dir = null;
+        this.segmentSize = 0;
+        this.policy = FsyncPolicy.INTERVAL;
+        this.compactAfterSegments = 0;
+        this.background = null;
+    }
+
+    // a journal that accepts and forgets everything, for when app.journal.enabled is off
+    public static Journal disabled() {
+        return new Journal();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes {@code record} and returns its end position for {@link #sync}. Under {@link FsyncPolicy#EVERY_WRITE}
+     * the record is already forced to disk when this returns.
+     */
+    public long append(JournalRecord record) {
+        if (!enabled) return 0;
+        int size = HEADER + JournalCodec.maxSize(record);
+        if (size > MAX_RECORD) throw new IllegalArgumentException("journal record too large");
+        writeLock.lock();
+        try {
+            if (active.position + size > segmentSize) roll();
+            Segment segment = active;
+            int start = segment.position;
+            ByteBuffer payload = segment.buffer.slice(start + HEADER, segmentSize - start - HEADER);
+            JournalCodec.encode(record, payload);
+            int length = payload.position();
+            writeCrc.reset();
+            writeCrc.update(payload.flip());
+            segment.buffer.putInt(start + 4, (int) writeCrc.getValue());
+            segment.buffer.putInt(start, length);
+            segment.position = start + HEADER + length;
+            long end = position(segment.number, segment.position);
+            if (policy == FsyncPolicy.EVERY_WRITE) {
+                force(segment, segment.position);
+                durable.accumulateAndGet(end, Math::max);
+            }
+            return end;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns once everything up to {@code position} is on disk. Under {@link FsyncPolicy#GROUP_COMMIT} the
+     * first caller forces all records written so far while the others wait on the lock and find their
+     * position already covered. {@link FsyncPolicy#INTERVAL} returns immediately.
+     */
+    public void sync(long position) {
+        if (!enabled || policy == FsyncPolicy.INTERVAL || durable.get() >= position) return;
+        flush(position);
+    }
+
+    /**
+     * Journals {@code record}, waits for it per the fsync policy, then runs {@code apply}. A failure to write
+     * leaves memory untouched.
+     */
+    public void commit(JournalRecord record, Runnable apply) {
+        commitAll(List.of(record), apply);
+    }
+
+    public void commitAll(List<? extends JournalRecord> records, Runnable apply) {
+        applyGate.readLock().lock();
+        try {
+            long end = 0;
+            for (JournalRecord record : records) end = append(record);
+            sync(end);
+            apply.run();
+        } finally {
+            applyGate.readLock().unlock();
+        }
+    }
+
+    // a position such that everything journaled before it has been applied, and nothing after it has started
+    public long checkpoint() {
+        applyGate.writeLock().lock();
+        try {
+            if (!enabled) return 0;
+            writeLock.lock();
+            try {
+                return position(active.number, active.position);
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            applyGate.writeLock().unlock();
+        }
+    }
+
+    private void flush(long target) {
+        flushLock.lock();
+        try {
+            if (durable.get() >= target) return;
+            Segment segment;
+            int end;
+            writeLock.lock();
+            try {
+                segment = active;
+                end = segment.position;
+            } finally {
+                writeLock.unlock();
+            }
+            force(segment, end);
+            durable.accumulateAndGet(position(segment.number, end), Math::max);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static void force(Segment segment, int end) {
+        int from = segment.flushed;
+        if (end <= from) return;
+        segment.buffer.force(from, end - from);
+        segment.flushed = end;
+    }
+
+    // called with writeLock held
+    private void roll() {
+        Segment sealed = active;
+        force(sealed, sealed.position);
+        durable.accumulateAndGet(position(sealed.number, sealed.position), Math::max);
+        try {
+            active = map(sealed.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create journal segment", e);
+        }
+        if (compactAfterSegments > 0 && ++sealedSinceCompaction >= compactAfterSegments) {
+            sealedSinceCompaction = 0;
+            background.execute(this::compactQuietly);
+        }
+    }
+
+    /**
+     * Feeds every record to {@code consumer} in write order. Meant for startup, before anything is appended.
+     */
+    public void replay(Consumer<JournalRecord> consumer) {
+        replay(0, consumer);
+    }
+
+    /**
+     * Feeds the records from {@code from} (a {@link #checkpoint}) onwards. A compacted file that overlaps the
+     * position is replayed whole, so consumers must tolerate seeing records from just before it again.
+     */
+    public void replay(long from, Consumer<JournalRecord> consumer) {
+        if (!enabled) return;
+        long fromSegment = from >>> 32;
+        try {
+            List<Path> files = files().stream().filter(p -> number(p) >= fromSegment).toList();
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                long start = !isCompacted(file) && number(file) == fromSegment ? (int) from : 0;
+                ReadResult result = read(file, start, consumer);
+                if (!result.clean() && i < files.size() - 1) {
+                    throw new IllegalStateException("journal file " + file + " is corrupt at offset " + result.end());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot replay journal", e);
+        }
+    }
+
+    /**
+     * Rewrites all sealed segments into one compacted file. Postings keep their order; the first save of each
+     * user and account carries its latest state so the account still precedes its postings on replay.
+     */
+    public void compact() {
+        if (!enabled || !compacting.compareAndSet(false, true)) return;
+        try {
+            long lastSealed;
+            writeLock.lock();
+            try {
+                lastSealed = active.number - 1;
+            } finally {
+                writeLock.unlock();
+            }
+            List<Path> inputs = files().stream().filter(p -> number(p) <= lastSealed).toList();
+            if (inputs.isEmpty()) return;
+
+            Map<String, UserSaved> users = new HashMap<>();
+            Map<String, AccountSaved> accounts = new HashMap<>();
+            Set<String> deletedUsers = new HashSet<>();
+            Set<String> deletedAccounts = new HashSet<>();
+            for (Path input : inputs) {
+                read(input, 0, record -> {
+                    switch (record) {
+                        case UserSaved u -> users.put(u.id(), u);
+                        case UserDeleted u -> deletedUsers.add(u.id());
+                        case AccountSaved a -> accounts.merge(a.id(), a, (first, later) -> new AccountSaved(
+                                later.id(), later.userId(), later.accountNumber(), later.accountType(),
+                                first.openingBalance(), first.openedAt()));
+                        case AccountDeleted a -> deletedAccounts.add(a.id());
+                        case Posted p -> {
+                        }
+                        case Transferred t -> {
+                        }
+                        case KeyRemembered k -> {
+                        }
+                    }
+                });
+            }
+
+            Path tmp = dir.resolve(name(lastSealed, COMPACTED) + TMP);
+            Set<String> written = new HashSet<>();
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+                CRC32C crc = new CRC32C();
+                Consumer<JournalRecord> writer = record -> {
+                    try {
+                        if (buffer.remaining() < MAX_RECORD) drain(out, buffer);
+                        int start = buffer.position();
+                        ByteBuffer payload = buffer.slice(start + HEADER, buffer.capacity() - start - HEADER);
+                        JournalCodec.encode(record, payload);
+                        int length = payload.position();
+                        crc.reset();
+                        crc.update(payload.flip());
+                        buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+                        buffer.position(start + HEADER + length);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                for (Path input : inputs) {
+                    read(input, 0, record -> {
+                        switch (record) {
+                            case UserSaved u -> {
+                                if (!deletedUsers.contains(u.id()) && written.add(u.id())) writer.accept(users.get(u.id()));
+                            }
+                            case AccountSaved a -> {
+                                if (!deletedAccounts.contains(a.id()) && written.add(a.id())) {
+                                    writer.accept(accounts.get(a.id()));
+                                }
+                            }
+                            case Posted p -> {
+                                if (!deletedAccounts.contains(p.accountId())) writer.accept(p);
+                            }
+                            // replay skips a leg whose account is gone, so the transfer stays while either side does
+                            case Transferred t -> {
+                                if (!deletedAccounts.contains(t.debit().accountId())
+                                        || !deletedAccounts.contains(t.credit().accountId())) writer.accept(t);
+                            }
+                            case KeyRemembered k -> {
+                                if (!deletedAccounts.contains(k.accountId())) writer.accept(k);
+                            }
+                            // kept as tombstones: a snapshot taken before the delete still holds the entity
+                            case UserDeleted u -> writer.accept(u);
+                            case AccountDeleted a -> writer.accept(a);
+                        }
+                    });
+                }
+                drain(out, buffer);
+                out.force(true);
+            }
+            Path target = dir.resolve(name(lastSealed, COMPACTED));
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (Path input : inputs) {
+                if (!input.equals(target)) Files.deleteIfExists(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal compaction failed", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    // drops whole files that end before position; called once a snapshot covering them is safely on disk
+    public void truncateBefore(long position) {
+        if (!enabled || !compacting.compareAndSet(false, true)) return;
+        try {
+            long segment = position >>> 32;
+            for (Path file : files()) {
+                if (number(file) < segment) Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot truncate journal", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            // the sealed segments are untouched, so the next roll simply tries again
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!enabled) return;
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(Long.MAX_VALUE);
+    }
+
+    // removes leftovers of an interrupted compaction and maps the newest segment for appending
+    private void open() throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            for (Path tmp : stream.filter(p -> p.getFileName().toString().endsWith(TMP)).toList()) {
+                Files.delete(tmp);
+            }
+        }
+        List<Path> files = files();
+        long compactedUpTo = files.stream().filter(Journal::isCompacted).mapToLong(Journal::number).max().orElse(0);
+        for (Path file : files) {
+            long number = number(file);
+            if (number < compactedUpTo || (number == compactedUpTo && !isCompacted(file))) Files.delete(file);
+        }
+        Path newest = files().stream().filter(p -> !isCompacted(p)).reduce((a, b) -> b).orElse(null);
+        if (newest == null) {
+            active = map(compactedUpTo + 1);
+            return;
+        }
+        active = map(number(newest));
+        ReadResult result = read(newest, 0, null);
+        int end = (int) result.end();
+        if (!result.clean()) {
+            for (int i = end; i < segmentSize; i++) active.buffer.put(i, (byte) 0);
+            active.buffer.force();
+        }
+        active.position = end;
+        active.flushed = end;
+        durable.set(position(active.number, end));
+    }
+
+    private Segment map(long number) throws IOException {
+        Path path = dir.resolve(name(number, SEGMENT));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new Segment(number, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    // compacted file first, then segments, in number order
+    private List<Path> files() throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return new ArrayList<>(stream
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT) || isCompacted(p))
+                    .sorted(Comparator.comparingLong(Journal::number).thenComparing(p -> !isCompacted(p)))
+                    .toList());
+        }
+    }
+
+    // reads records until the end of written data; a null consumer only finds where that is
+    private static ReadResult read(Path file, long start, Consumer<JournalRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(start);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER).flip();
+            CRC32C crc = new CRC32C();
+            long offset = start;
+            while (true) {
+                if (buffer.remaining() < HEADER && !fill(channel, buffer, HEADER)) {
+                    return new ReadResult(offset, buffer.remaining() == 0 || allZero(buffer));
+                }
+                int at = buffer.position();
+                int length = buffer.getInt(at);
+                if (length == 0) return new ReadResult(offset, true);
+                if (length < 0 || length > MAX_RECORD) return new ReadResult(offset, false);
+                if (buffer.remaining() < HEADER + length) {
+                    if (!fill(channel, buffer, HEADER + length)) return new ReadResult(offset, false);
+                    at = buffer.position();
+                }
+                ByteBuffer payload = buffer.slice(at + HEADER, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != buffer.getInt(at + 4)) return new ReadResult(offset, false);
+                if (consumer != null) consumer.accept(JournalCodec.decode(payload));
+                buffer.position(at + HEADER + length);
+                offset += HEADER + length;
+            }
+        }
+    }
+
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < needed) {
+                if (channel.read(buffer) < 0) return false;
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private static boolean allZero(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) return false;
+        }
+        return true;
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+    }
+
+    private static long position(long segment, int offset) {
+        return (segment << 32) | offset;
+    }
+
+    private static String name(long number, String suffix) {
+        return String.format("%020d%s", number, suffix);
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private static boolean isCompacted(Path file) {
+        return file.getFileName().toString().endsWith(COMPACTED);
+    }
+}
@@ -0,0 +1,197 @@
+package com.eagle.banking.repo.journal;
+
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.journal.JournalRecord.AccountDeleted;
+import com.eagle.banking.repo.journal.JournalRecord.AccountSaved;
+import com.eagle.banking.repo.journal.JournalRecord.KeyRemembered;
+import com.eagle.banking.repo.journal.JournalRecord.Posted;
+import com.eagle.banking.repo.journal.JournalRecord.Transferred;
+import com.eagle.banking.repo.journal.JournalRecord.UserDeleted;
+import com.eagle.banking.repo.journal.JournalRecord.UserSaved;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+// payload layout: one type byte, then the fields; ids that are canonical UUIDs take 16 bytes instead of 36
+final class JournalCodec {
+
+    private static final byte USER_SAVED = 1;
+    private static final byte USER_DELETED = 2;
+    private static final byte ACCOUNT_SAVED_UNDATED = 3; // written before accounts recorded when they opened
+    private static final byte ACCOUNT_DELETED = 4;
+    private static final byte POSTED = 5;
+    private static final byte KEY_REMEMBERED = 6;
+    private static final byte TRANSFERRED = 7;
+    private static final byte ACCOUNT_SAVED = 8;
+
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+
+    private static final byte ID_UUID = 0;
+    private static final byte ID_STRING = 1;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private JournalCodec() {
+    }
+
+    static void encode(JournalRecord record, ByteBuffer out) {
+        switch (record) {
+            case UserSaved u -> {
+                out.put(USER_SAVED);
+                putId(out, u.id());
+                putString(out, u.username());
+                putString(out, u.fullName());
+                putString(out, u.passwordHash());
+            }
+            case UserDeleted u -> {
+                out.put(USER_DELETED);
+                putId(out, u.id());
+            }
+            case AccountSaved a -> {
+                out.put(ACCOUNT_SAVED);
+                putId(out, a.id());
+                putId(out, a.userId());
+                putString(out, a.accountNumber());
+                putString(out, a.accountType());
+                out.putLong(a.openingBalance());
+                out.putLong(a.openedAt() == null ? NO_INSTANT : ChronoUnit.MICROS.between(Instant.EPOCH, a.openedAt()));
+            }
+            case AccountDeleted a -> {
+                out.put(ACCOUNT_DELETED);
+                putId(out, a.id());
+            }
+            case Posted p -> {
+                out.put(POSTED);
+                putPosted(out, p);
+            }
+            case Transferred t -> {
+                out.put(TRANSFERRED);
+                putId(out, t.transferId());
+                putPosted(out, t.debit());
+                putPosted(out, t.credit());
+            }
+            case KeyRemembered k -> {
+                out.put(KEY_REMEMBERED);
+                putId(out, k.accountId());
+                putString(out, k.key());
+                putString(out, k.fingerprint());
+                putId(out, k.transactionId());
+                out.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, k.createdAt()));
+            }
+        }
+    }
+
+    static JournalRecord decode(ByteBuffer in) {
+        byte type = in.get();
+        return switch (type) {
+            case USER_SAVED -> new UserSaved(getId(in), getString(in), getString(in), getString(in));
+            case USER_DELETED -> new UserDeleted(getId(in));
+            case ACCOUNT_SAVED -> new AccountSaved(getId(in), getId(in), getString(in), getString(in), in.getLong(),
+                    getInstant(in));
+            case ACCOUNT_SAVED_UNDATED -> new AccountSaved(getId(in), getId(in), getString(in), getString(in),
+                    in.getLong(), null);
+            case ACCOUNT_DELETED -> new AccountDeleted(getId(in));
+            case POSTED -> getPosted(in);
+            case TRANSFERRED -> new Transferred(getId(in), getPosted(in), getPosted(in));
+            case KEY_REMEMBERED -> new KeyRemembered(getId(in), getString(in), getString(in), getId(in),
+                    Instant.EPOCH.plus(in.getLong(), ChronoUnit.MICROS));
+            default -> throw new IllegalStateException("unknown journal record type " + type);
+        };
+    }
+
+    // upper bound of the encoded size, used to check the record fits before writing it
+    static int maxSize(JournalRecord record) {
+        return switch (record) {
+            case UserSaved u -> 1 + idSize(u.id()) + stringSize(u.username()) + stringSize(u.fullName())
+                    + stringSize(u.passwordHash());
+            case UserDeleted u -> 1 + idSize(u.id());
+            case AccountSaved a -> 1 + idSize(a.id()) + idSize(a.userId()) + stringSize(a.accountNumber())
+                    + stringSize(a.accountType()) + 16;
+            case AccountDeleted a -> 1 + idSize(a.id());
+            case Posted p -> 1 + postedSize(p);
+            case Transferred t -> 1 + idSize(t.transferId()) + postedSize(t.debit()) + postedSize(t.credit());
+            case KeyRemembered k -> 1 + idSize(k.accountId()) + stringSize(k.key()) + stringSize(k.fingerprint())
+                    + idSize(k.transactionId()) + 8;
+        };
+    }
+
+    private static void putPosted(ByteBuffer out, Posted p) {
+        putId(out, p.transactionId());
+        putId(out, p.accountId());
+        out.put((byte) p.type().ordinal());
+        out.putLong(p.amount());
+        out.putLong(p.balanceAfter());
+        out.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, p.createdAt()));
+    }
+
+    private static Posted getPosted(ByteBuffer in) {
+        return new Posted(getId(in), getId(in), TYPES[in.get()], in.getLong(), in.getLong(),
+                Instant.EPOCH.plus(in.getLong(), ChronoUnit.MICROS));
+    }
+
+    private static int postedSize(Posted p) {
+        return idSize(p.transactionId()) + idSize(p.accountId()) + 1 + 24;
+    }
+
+    private static Instant getInstant(ByteBuffer in) {
+        long micros = in.getLong();
+        return micros == NO_INSTANT ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static void putId(ByteBuffer out, String id) {
+        UUID uuid = asUuid(id);
+        if (uuid != null) {
+            out.put(ID_UUID);
+            out.putLong(uuid.getMostSignificantBits());
+            out.putLong(uuid.getLeastSignificantBits());
+        } else {
+            out.put(ID_STRING);
+            putString(out, id);
+        }
+    }
+
+    private static String getId(ByteBuffer in) {
+        if (in.get() == ID_UUID) return new UUID(in.getLong(), in.getLong()).toString();
+        return getString(in);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) throw new IllegalArgumentException("journal string too long");
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int idSize(String id) {
+        return asUuid(id) != null ? 17 : 1 + stringSize(id);
+    }
+
+    private static int stringSize(String value) {
+        return 2 + (value == null ? 0 : value.length() * 3);
+    }
+
+    private static UUID asUuid(String id) {
+        if (id == null || id.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.eagle.banking.repo.journal;
+
+import com.eagle.banking.model.TransactionType;
+
+import java.time.Instant;
+
+/**
+ * Everything the in-memory services change, as replayable events. Users and accounts are journaled with the
+ * postings so a restart can rebuild the accounts that postings refer to. Amounts are minor units.
+ */
+public sealed interface JournalRecord {
+
+    record UserSaved(String id, String username, String fullName, String passwordHash) implements JournalRecord {
+    }
+
+    record UserDeleted(String id) implements JournalRecord {
+    }
+
+    // openedAt is null for accounts journaled before it was recorded
+    record AccountSaved(String id, String userId, String accountNumber, String accountType, long openingBalance,
+                        Instant openedAt) implements JournalRecord {
+    }
+
+    record AccountDeleted(String id) implements JournalRecord {
+    }
+
+    record Posted(String transactionId, String accountId, TransactionType type, long amount, long balanceAfter,
+                  Instant createdAt) implements JournalRecord {
+    }
+
+    // both legs of a transfer in one record, so they are replayed together or not at all
+    record Transferred(String transferId, Posted debit, Posted credit) implements JournalRecord {
+    }
+
+    // committed together with the Posted record of transactionId
+    record KeyRemembered(String accountId, String key, String fingerprint, String transactionId, Instant createdAt)
+            implements JournalRecord {
+    }
+}
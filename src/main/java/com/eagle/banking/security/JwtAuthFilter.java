@@ -1,6 +1,8 @@
 package com.eagle.banking.security;
 
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,13 +15,21 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    // signature check and claims parse on a cache miss; cache hits are not timed
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
+        this.verifiedTimer = Timer.builder("jwt.verify").tag("outcome", "valid").register(meterRegistry);
+        this.rejectedTimer = Timer.builder("jwt.verify").tag("outcome", "invalid").register(meterRegistry);
     }
 
     @Override
@@ -29,13 +39,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
             String token = header.substring(7);
+            long started = 0;
             try {
-                var claims = jwtUtil.parseToken(token);
-                String userId = claims.getPayload().getSubject();
+                // clients reuse a token for its whole lifetime, so skip signature checks we've already done
+                String digest = tokenCache.digest(token);
+                String userId = tokenCache.get(digest);
+                if (userId == null) {
+                    started = System.nanoTime();
+                    var claims = jwtUtil.parseToken(token).getPayload();
+                    verifiedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    userId = claims.getSubject();
+                    tokenCache.put(digest, userId, claims.getExpiration());
+                }
                 var auth = new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (JwtException ex) {
+                if (started != 0) rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
                 // invalid token - just clear context, security will deny access to protected endpoints
                 SecurityContextHolder.clearContext();
             }
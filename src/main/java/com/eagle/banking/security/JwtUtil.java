@@ -2,13 +2,14 @@ package com.eagle.banking.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Component
@@ -23,11 +24,15 @@ public class JwtUtil {
     @Value("${app.jwt.expiration-seconds}")
     private long expirationSeconds;
 
-    private Key key;
+    private SecretKey key;
+
+    // built once: the parser is immutable and thread-safe
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         key = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(String userId) {
@@ -43,9 +48,6 @@ public class JwtUtil {
     }
 
     public Jws<Claims> parseToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        return parser.parseSignedClaims(token);
     }
 }
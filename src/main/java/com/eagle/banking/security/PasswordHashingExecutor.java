@@ -0,0 +1,94 @@
+package com.eagle.banking.security;
+
+import com.eagle.banking.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt checks on a small CPU-sized pool instead of servlet threads, so a burst of logins can only
+ * occupy that many cores. When the queue is full the caller gets a 503 with Retry-After straight away
+ * rather than waiting behind hundreds of hashes.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+    // time spent hashing on the pool, excluding the wait in its queue
+    private final Timer hashTimer;
+    // compared against when the user doesn't exist, so unknown usernames take as long as wrong passwords
+    private final String unknownUserHash;
+
+    public PasswordHashingExecutor(BCryptPasswordEncoder encoder,
+                                   @Value("${app.auth.hashing.threads:0}") int threads,
+                                   @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMillis,
+                                   @Value("${app.auth.hashing.retry-after-seconds:1}") int retryAfterSeconds,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.encoder = encoder;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder("auth.bcrypt").register(meterRegistry);
+        this.unknownUserHash = encoder.encode("unknown-user-placeholder");
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> hashTimer.recordCallable(() -> encoder.matches(rawPassword, encodedPassword)));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("too many concurrent logins, retry later", retryAfterSeconds);
+        }
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new ServiceUnavailableException("too many concurrent logins, retry later", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("password check failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("interrupted during password check", e);
+        }
+    }
+
+    public void matchUnknownUser(CharSequence rawPassword) {
+        matches(rawPassword, unknownUserHash);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.eagle.banking.service;
 
+import com.eagle.banking.dto.AccountDto;
 import com.eagle.banking.model.Account;
 
 import java.util.List;
@@ -9,11 +10,22 @@ public interface AccountService {
 
     Account getById(String id);
 
+    // id of the owning user, for authorization; throws ResourceNotFoundException like getById
+    String getOwnerId(String id);
+
     List<Account> getByUserId(String userId);
 
+    // the list endpoint's response rows; implementations backed by a database can read them in one query
+    default List<AccountDto> getDtosByUserId(String userId) {
+        return getByUserId(userId).stream().map(AccountDto::fromEntity).toList();
+    }
+
     void delete(String id);
 
     boolean userHasAccounts(String userId);
 
     void update(Account account);
+
+    // the one field clients may change on an existing account
+    void changeType(Account account, String accountType);
 }
@@ -0,0 +1,62 @@
+package com.eagle.banking.service;
+
+import com.eagle.banking.dto.AccountSummaryDto;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.AccountDailyRollup;
+import com.eagle.banking.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public interface AccountSummaryService {
+
+    enum Granularity {
+        DAY, MONTH;
+
+        public static Granularity from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("granularity must be day or month");
+            }
+        }
+    }
+
+    void recordPosted(String accountId, List<Transaction> posted);
+
+    List<AccountSummaryDto> summarize(String accountId, LocalDate from, LocalDate to, Granularity granularity);
+
+    static void checkRange(LocalDate from, LocalDate to, int maxRangeDays) {
+        if (from.isAfter(to)) throw new InvalidRequestException("from must not be after to");
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidRequestException("range must not exceed " + maxRangeDays + " days");
+        }
+    }
+
+    // days must be in ascending order
+    static List<AccountSummaryDto> fold(List<AccountDailyRollup> days, Granularity granularity) {
+        List<AccountSummaryDto> buckets = new ArrayList<>();
+        AccountSummaryDto current = null;
+        for (AccountDailyRollup day : days) {
+            LocalDate start = granularity == Granularity.MONTH ? day.getDay().withDayOfMonth(1) : day.getDay();
+            if (current == null || !current.periodStart().equals(start)) {
+                current = new AccountSummaryDto(start, day.getDepositTotal(), day.getWithdrawTotal(),
+                        day.getTransactionCount(), day.getMinAmount(), day.getMaxAmount(), day.getClosingBalance());
+                buckets.add(current);
+                continue;
+            }
+            current = new AccountSummaryDto(start,
+                    current.depositTotal().add(day.getDepositTotal()),
+                    current.withdrawTotal().add(day.getWithdrawTotal()),
+                    current.transactionCount() + day.getTransactionCount(),
+                    current.minAmount().min(day.getMinAmount()),
+                    current.maxAmount().max(day.getMaxAmount()),
+                    day.getClosingBalance());
+            buckets.set(buckets.size() - 1, current);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,7 @@
+package com.eagle.banking.service;
+
+public interface IdService {
+    String newId();
+
+    String nextAccountNumber();
+}
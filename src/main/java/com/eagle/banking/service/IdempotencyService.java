@@ -0,0 +1,32 @@
+package com.eagle.banking.service;
+
+import com.eagle.banking.model.Transaction;
+
+import java.util.Optional;
+
+/**
+ * Durable record of which transaction each Idempotency-Key produced. Keys older than
+ * {@code app.idempotency.ttl-hours} are treated as unknown.
+ */
+public interface IdempotencyService {
+
+    record Remembered(String fingerprint, Transaction transaction) {
+    }
+
+    Optional<Remembered> find(String accountId, String key);
+
+    /**
+     * Called by the ledger in the same unit of work as the posting, so the key and the transaction commit or
+     * roll back together. Throws DuplicateIdempotencyKeyException if the key is already taken.
+     */
+    void remember(String accountId, String key, String fingerprint, Transaction tx);
+
+    /**
+     * Whether remember() would reject the key now. This can be true for a key that find() no longer answers,
+     * when an expired key has not been dropped yet.
+     */
+    boolean isHeld(String accountId, String key);
+
+    // drops the key if it has expired, so a new posting can take it; true if there was one to drop
+    boolean forgetExpired(String accountId, String key);
+}
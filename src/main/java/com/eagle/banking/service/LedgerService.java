@@ -0,0 +1,24 @@
+package com.eagle.banking.service;
+
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import com.eagle.banking.service.ledger.Transfer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface LedgerService {
+    default Transaction post(String accountId, TransactionType type, BigDecimal amount) {
+        return post(accountId, type, amount, null);
+    }
+
+    // a non-null key is recorded with the posting, atomically with it
+    Transaction post(String accountId, TransactionType type, BigDecimal amount, IdempotencyKey key);
+
+    List<PostingOutcome> postBatch(String accountId, List<Transaction> items);
+
+    // debits one account and credits the other as a pair of transactions that commit together
+    Transfer transfer(String fromAccountId, String toAccountId, BigDecimal amount);
+}
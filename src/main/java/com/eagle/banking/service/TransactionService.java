@@ -1,14 +1,42 @@
 package com.eagle.banking.service;
 
+import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.TransactionQuery;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionService {
     Transaction record(Transaction tx);
 
+    List<Transaction> recordAll(List<Transaction> txs);
+
     List<Transaction> listForAccount(String accountId);
 
+    List<Transaction> listPage(TransactionQuery query);
+
+    // listPage and find in response shape; implementations backed by a database can skip loading the account
+    default List<TransactionDto> listDtoPage(TransactionQuery query) {
+        return listPage(query).stream().map(TransactionDto::fromEntity).toList();
+    }
+
+    default Optional<TransactionDto> findDto(String accountId, String txId) {
+        return find(accountId, txId).map(TransactionDto::fromEntity);
+    }
+
+    // the newest limit rows in posting order, oldest first
+    default List<TransactionDto> listLatestDtos(String accountId, int limit) {
+        List<Transaction> all = listForAccount(accountId);
+        return all.subList(Math.max(0, all.size() - limit), all.size()).stream().map(TransactionDto::fromEntity).toList();
+    }
+
+    void exportForAccount(String accountId, Consumer<Transaction> sink);
+
     Optional<Transaction> find(String accountId, String txId);
+
+    BigDecimal balanceAt(String accountId, Instant at);
 }
@@ -0,0 +1,93 @@
+package com.eagle.banking.service.idempotency;
+
+import com.eagle.banking.exception.ConflictException;
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.LedgerService;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Posts at most once per (account, Idempotency-Key). The first request for a key registers a pending result in
+ * the {@link IdempotencyTable}; concurrent duplicates wait on it instead of posting, and later duplicates get the
+ * recorded transaction back from the table or, once it has been evicted, from the {@link IdempotencyService}.
+ * A failed posting releases its key, so the client can retry.
+ */
+@Component
+public class IdempotencyGuard {
+
+    public record Result(Transaction transaction, boolean replayed) {
+    }
+
+    private final IdempotencyTable table;
+    private final IdempotencyService idempotencyService;
+    private final LedgerService ledgerService;
+
+    public IdempotencyGuard(IdempotencyTable table, IdempotencyService idempotencyService,
+                            LedgerService ledgerService) {
+        this.table = table;
+        this.idempotencyService = idempotencyService;
+        this.ledgerService = ledgerService;
+    }
+
+    public Result post(String accountId, IdempotencyKey key, TransactionType type, BigDecimal amount) {
+        String tableKey = accountId + '\u0000' + key.value();
+        CompletableFuture<Transaction> pending = new CompletableFuture<>();
+        IdempotencyTable.Entry existing = table.putIfAbsent(tableKey, key.fingerprint(), pending);
+        if (existing != null) {
+            requireSameRequest(existing.fingerprint(), key);
+            return new Result(await(existing.result()), true);
+        }
+        try {
+            Result result = remembered(accountId, key)
+                    .orElseGet(() -> postOrReplay(accountId, key, type, amount));
+            pending.complete(result.transaction());
+            return result;
+        } catch (RuntimeException e) {
+            table.remove(tableKey, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Result postOrReplay(String accountId, IdempotencyKey key, TransactionType type, BigDecimal amount) {
+        try {
+            return new Result(ledgerService.post(accountId, type, amount, key), false);
+        } catch (DuplicateIdempotencyKeyException e) {
+            // another node recorded the key between our lookup and our posting, which was rolled back, or the
+            // key expired and has not been swept yet; then it is dropped and the posting tried again
+            Optional<Result> remembered = remembered(accountId, key);
+            if (remembered.isPresent()) return remembered.get();
+            if (idempotencyService.forgetExpired(accountId, key.value())) return postOrReplay(accountId, key, type, amount);
+            throw e;
+        }
+    }
+
+    private Optional<Result> remembered(String accountId, IdempotencyKey key) {
+        return idempotencyService.find(accountId, key.value()).map(r -> {
+            requireSameRequest(r.fingerprint(), key);
+            return new Result(r.transaction(), true);
+        });
+    }
+
+    private static void requireSameRequest(String fingerprint, IdempotencyKey key) {
+        if (!fingerprint.equals(key.fingerprint())) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
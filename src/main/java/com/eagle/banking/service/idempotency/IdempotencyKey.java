@@ -0,0 +1,27 @@
+package com.eagle.banking.service.idempotency;
+
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * A client's Idempotency-Key together with a fingerprint of the request it was sent with, so a key reused for a
+ * different request is refused instead of answered with the wrong transaction.
+ */
+public record IdempotencyKey(String value, String fingerprint) {
+
+    public static final int MAX_LENGTH = 255;
+
+    public static IdempotencyKey of(String value, TransactionType type, BigDecimal amount) {
+        if (value == null || value.isBlank() || value.length() > MAX_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + MAX_LENGTH + " characters");
+        }
+        return new IdempotencyKey(value, fingerprint(type, amount));
+    }
+
+    // 10 and 10.00 are the same request
+    public static String fingerprint(TransactionType type, BigDecimal amount) {
+        return type + ":" + (amount == null ? "" : amount.stripTrailingZeros().toPlainString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.eagle.banking.service.idempotency;
+
+import com.eagle.banking.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recent Idempotency-Keys and the result each one produced or is still producing. The table is split into
+ * lock stripes by key hash. Each stripe is an insertion-ordered map, so its oldest entries are at the head and
+ * expiry or the size bound only ever removes from there. Losing an entry is safe: the durable
+ * {@link com.eagle.banking.service.IdempotencyService} is consulted on a miss.
+ */
+@Component
+public class IdempotencyTable {
+
+    public record Entry(String fingerprint, CompletableFuture<Transaction> result, long createdAtMillis) {
+    }
+
+    private final ReentrantLock[] locks;
+    private final LinkedHashMap<String, Entry>[] stripes;
+    private final int maxPerStripe;
+    private final long ttlMillis;
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyTable(@Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${app.idempotency.stripes:64}") int stripeCount,
+                            @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.locks = new ReentrantLock[count];
+        this.stripes = new LinkedHashMap[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+            stripes[i] = new LinkedHashMap<>();
+        }
+        this.maxPerStripe = Math.max(1, maxEntries / count);
+        this.ttlMillis = ttlHours * 3_600_000L;
+    }
+
+    /**
+     * Registers {@code pending} for {@code key} unless a live entry exists, in which case that entry is returned
+     * and nothing changes. A null return means the caller now owns the key and must complete {@code pending}.
+     */
+    public Entry putIfAbsent(String key, String fingerprint, CompletableFuture<Transaction> pending) {
+        int stripe = stripe(key);
+        long now = System.currentTimeMillis();
+        locks[stripe].lock();
+        try {
+            LinkedHashMap<String, Entry> map = stripes[stripe];
+            evict(map, now);
+            Entry existing = map.get(key);
+            if (existing != null) return existing;
+            map.put(key, new Entry(fingerprint, pending, now));
+            return null;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // drops the entry only if it still holds result, so a failed attempt frees its key for a retry
+    public void remove(String key, CompletableFuture<Transaction> result) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Entry entry = stripes[stripe].get(key);
+            if (entry != null && entry.result() == result) stripes[stripe].remove(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+
+    private void evict(LinkedHashMap<String, Entry> map, long now) {
+        Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            boolean expired = now - eldest.createdAtMillis() >= ttlMillis;
+            // an in-flight entry is never pushed out by size, or its waiters would see a second posting start
+            boolean overflowing = map.size() >= maxPerStripe && eldest.result().isDone();
+            if (!expired && !overflowing) break;
+            it.remove();
+        }
+    }
+
+    private int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
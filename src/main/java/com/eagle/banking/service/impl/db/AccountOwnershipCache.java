@@ -0,0 +1,290 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.repo.AccountRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * accountId to owning user id, so an ownership check needs neither an Account load nor its User proxy. A miss
+ * runs a single-column projection; an account's owner never changes, so the only invalidation is on delete.
+ * Bounded by {@code app.accounts.ownership-cache.max-size} (0 disables caching).
+ * <p>
+ * Both ids are UUIDs and are held as pairs of longs in flat arrays, about 40 bytes an entry where a map of
+ * strings takes some 200. The cache is split into segments, each a fixed set of slots behind an open-addressed
+ * index, and a full segment evicts with CLOCK: a hit marks its entry, and the segment's hand clears marks as it
+ * passes until it reaches an entry nobody has used since its last pass. Ids not in canonical lower-case UUID
+ * form are never cached and are looked up every time.
+ * <p>
+ * A miss caches what it read only if its segment saw no removal while the lookup ran, so a delete that lands
+ * between the query and the insert cannot leave the deleted account cached.
+ */
+@Component
+@Profile("!memory")
+public class AccountOwnershipCache implements MeterBinder {
+
+    private static final int MAX_SEGMENTS = 64;
+    // fewest slots a segment is given before the cache is split further
+    private static final int MIN_SEGMENT_SLOTS = 8;
+
+    private final AccountRepository accountRepository;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AccountOwnershipCache(AccountRepository accountRepository,
+                                 @Value("${app.accounts.ownership-cache.max-size:100000}") int maxSize) {
+        this.accountRepository = accountRepository;
+        int count = 1;
+        while (count < MAX_SEGMENTS && maxSize / (count * 2) >= MIN_SEGMENT_SLOTS) count *= 2;
+        this.segments = new Segment[maxSize > 0 ? count : 0];
+        for (int i = 0; i < segments.length; i++) segments[i] = new Segment(maxSize / count);
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    public String ownerOf(String accountId) {
+        boolean cacheable = segments.length > 0 && isUuid(accountId);
+        long hi = cacheable ? uuidHigh(accountId) : 0;
+        long lo = cacheable ? uuidLow(accountId) : 0;
+        int hash = hash(hi, lo);
+        long removals = 0;
+        if (cacheable) {
+            Segment segment = segmentFor(hash);
+            String owner = segment.get(hi, lo, hash);
+            if (owner != null) {
+                hits.increment();
+                return owner;
+            }
+            removals = segment.removals;
+        }
+        misses.increment();
+        String owner = accountRepository.findOwnerIdById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + accountId));
+        if (cacheable && isUuid(owner)) {
+            segmentFor(hash).putUnlessRemoved(hi, lo, hash, uuidHigh(owner), uuidLow(owner), removals);
+        }
+        return owner;
+    }
+
+    public void put(String accountId, String ownerId) {
+        if (segments.length == 0 || !isUuid(accountId) || !isUuid(ownerId)) return;
+        long hi = uuidHigh(accountId);
+        long lo = uuidLow(accountId);
+        int hash = hash(hi, lo);
+        segmentFor(hash).put(hi, lo, hash, uuidHigh(ownerId), uuidLow(ownerId));
+    }
+
+    public void invalidate(String accountId) {
+        if (segments.length == 0 || !isUuid(accountId)) return;
+        long hi = uuidHigh(accountId);
+        long lo = uuidLow(accountId);
+        int hash = hash(hi, lo);
+        segmentFor(hash).remove(hi, lo, hash);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) size += segment.size;
+        return size;
+    }
+
+    // the top bits pick the segment, the bottom bits the index position within it
+    private Segment segmentFor(int hash) {
+        return segments[segmentShift == 32 ? 0 : hash >>> segmentShift];
+    }
+
+    private static int hash(long hi, long lo) {
+        return Long.hashCode(hi * 0x9E3779B97F4A7C15L ^ lo) * 0x9E3779B9;
+    }
+
+    /**
+     * One lock's worth of the cache. Entry {@code s} is {@code keys[2s], keys[2s + 1]} to
+     * {@code owners[2s], owners[2s + 1]}; {@code index} holds slot + 1 at each probed position, 0 when empty.
+     */
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] keys;
+        private final long[] owners;
+        private final boolean[] used;
+        private final boolean[] referenced;
+        private final int[] index;
+        private final int mask;
+        private int hand;
+        volatile int size;
+        // bumped under the lock by every remove, whether or not the key was cached
+        volatile long removals;
+
+        Segment(int slots) {
+            keys = new long[slots * 2];
+            owners = new long[slots * 2];
+            used = new boolean[slots];
+            referenced = new boolean[slots];
+            index = new int[Integer.highestOneBit(Math.max(1, slots) * 4 - 1)];
+            mask = index.length - 1;
+        }
+
+        String get(long hi, long lo, int hash) {
+            long ownerHi;
+            long ownerLo;
+            lock.lock();
+            try {
+                int pos = find(hi, lo, hash);
+                if (pos < 0) return null;
+                int slot = index[pos] - 1;
+                referenced[slot] = true;
+                ownerHi = owners[slot * 2];
+                ownerLo = owners[slot * 2 + 1];
+            } finally {
+                lock.unlock();
+            }
+            return new UUID(ownerHi, ownerLo).toString();
+        }
+
+        void put(long hi, long lo, int hash, long ownerHi, long ownerLo) {
+            putUnlessRemoved(hi, lo, hash, ownerHi, ownerLo, -1);
+        }
+
+        // as put, but does nothing if a remove has run since removals read seen; -1 puts regardless
+        void putUnlessRemoved(long hi, long lo, int hash, long ownerHi, long ownerLo, long seen) {
+            if (used.length == 0) return;
+            lock.lock();
+            try {
+                if (seen >= 0 && removals != seen) return;
+                int pos = find(hi, lo, hash);
+                int slot;
+                if (pos >= 0) {
+                    slot = index[pos] - 1;
+                } else {
+                    slot = claimSlot();
+                    keys[slot * 2] = hi;
+                    keys[slot * 2 + 1] = lo;
+                    used[slot] = true;
+                    referenced[slot] = false;
+                    int i = hash & mask;
+                    while (index[i] != 0) i = (i + 1) & mask;
+                    index[i] = slot + 1;
+                    size++;
+                }
+                owners[slot * 2] = ownerHi;
+                owners[slot * 2 + 1] = ownerLo;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(long hi, long lo, int hash) {
+            lock.lock();
+            try {
+                removals++;
+                int pos = find(hi, lo, hash);
+                if (pos < 0) return;
+                used[index[pos] - 1] = false;
+                unindex(pos);
+                size--;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // index position of the key, or -1
+        private int find(long hi, long lo, int hash) {
+            for (int i = hash & mask; index[i] != 0; i = (i + 1) & mask) {
+                int slot = index[i] - 1;
+                if (keys[slot * 2] == hi && keys[slot * 2 + 1] == lo) return i;
+            }
+            return -1;
+        }
+
+        // a free slot while there is one, otherwise the first the hand finds unused since its last pass, evicted
+        private int claimSlot() {
+            boolean full = size == used.length;
+            while (true) {
+                int slot = hand;
+                hand = (hand + 1) % used.length;
+                if (!used[slot]) return slot;
+                if (!full) continue;
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                    continue;
+                }
+                unindex(find(keys[slot * 2], keys[slot * 2 + 1], hash(keys[slot * 2], keys[slot * 2 + 1])));
+                used[slot] = false;
+                size--;
+                return slot;
+            }
+        }
+
+        // backward-shift delete, so no probe sequence is cut short by the hole
+        private void unindex(int pos) {
+            int gap = pos;
+            for (int i = (pos + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+                int slot = index[i] - 1;
+                int home = hash(keys[slot * 2], keys[slot * 2 + 1]) & mask;
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    index[gap] = index[i];
+                    gap = i;
+                }
+            }
+            index[gap] = 0;
+        }
+    }
+
+    // 8-4-4-4-12 lower-case hex, the only form ids are generated in, so a cached owner reads back unchanged
+    static boolean isUuid(String id) {
+        if (id == null || id.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long uuidHigh(String id) {
+        return hex(id, 0, 8) << 32 | hex(id, 9, 13) << 16 | hex(id, 14, 18);
+    }
+
+    private static long uuidLow(String id) {
+        return hex(id, 19, 23) << 48 | hex(id, 24, 36);
+    }
+
+    private static long hex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) value = value << 4 | Character.digit(s.charAt(i), 16);
+        return value;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.ownership.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("accounts.ownership.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("accounts.ownership.cache.size", this, AccountOwnershipCache::size)
+                .register(registry);
+    }
+}
@@ -1,27 +1,51 @@
 package com.eagle.banking.service.impl.db;
 
+import com.eagle.banking.dto.AccountDto;
 import com.eagle.banking.exception.ResourceNotFoundException;
 import com.eagle.banking.model.Account;
 import com.eagle.banking.repo.AccountRepository;
 import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.readmodel.ChangeEvent;
+import com.eagle.banking.service.readmodel.ChangeFeed;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Profile("!memory")
 public class DatabaseAccountService implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final IdService idService;
+    private final AccountOwnershipCache ownershipCache;
+    private final ChangeFeed changeFeed;
+    private final LedgerSequencer sequencer;
 
-    public DatabaseAccountService(AccountRepository accountRepository) {
+    public DatabaseAccountService(AccountRepository accountRepository, IdService idService,
+                                  AccountOwnershipCache ownershipCache, ChangeFeed changeFeed,
+                                  LedgerSequencer sequencer) {
         this.accountRepository = accountRepository;
+        this.idService = idService;
+        this.ownershipCache = ownershipCache;
+        this.changeFeed = changeFeed;
+        this.sequencer = sequencer;
     }
 
     @Override
     public Account create(Account account) {
-        account.setAccountNumber("ACCT-" + System.currentTimeMillis());
-        return accountRepository.save(account);
+        account.setAccountNumber(idService.nextAccountNumber());
+        account.setOpeningBalance(account.getBalance());
+        account.setOpenedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        Account saved = accountRepository.save(account);
+        ownershipCache.put(saved.getId(), saved.getUser().getId());
+        if (changeFeed.isEnabled()) changeFeed.publish(new ChangeEvent.AccountOpened(AccountDto.fromEntity(saved)));
+        return saved;
     }
 
     @Override
@@ -31,28 +55,56 @@ public class DatabaseAccountService implements AccountService {
         return account.get();
     }
 
+    @Override
+    public String getOwnerId(String id) {
+        return ownershipCache.ownerOf(id);
+    }
+
     @Override
     public List<Account> getByUserId(String userId) {
         return accountRepository.findByUserId(userId);
     }
 
+    @Override
+    public List<AccountDto> getDtosByUserId(String userId) {
+        return accountRepository.findDtosByUserId(userId);
+    }
+
     @Override
     public void delete(String id) {
-        Optional<Account> existingAccount = accountRepository.findById(id);
-        if (existingAccount.isPresent()) {
+        // on the account's lane, so a posting that has already read the row finishes before the row goes,
+        // and one queued behind the delete finds it gone and answers 404
+        sequencer.submit(id, () -> {
+            Optional<Account> existingAccount = accountRepository.findById(id);
+            if (existingAccount.isEmpty()) throw new ResourceNotFoundException("Account not found: " + id);
             accountRepository.deleteById(id);
-        } else {
-            throw new ResourceNotFoundException("Account not found: " + id);
-        }
+            ownershipCache.invalidate(id);
+            changeFeed.publish(new ChangeEvent.AccountClosed(id));
+            return null;
+        });
     }
 
     @Override
     public boolean userHasAccounts(String userId) {
-        return !getByUserId(userId).isEmpty();
+        return accountRepository.existsByUserId(userId);
     }
 
     @Override
     public void update(Account account) {
         accountRepository.save(account);
     }
+
+    @Override
+    public void changeType(Account account, String accountType) {
+        // on the account's lane, so it cannot land between a posting's read of the row and its write of it
+        String id = account.getId();
+        sequencer.submit(id, () -> {
+            if (accountRepository.updateAccountType(id, accountType) == 0) {
+                throw new ResourceNotFoundException("Account not found: " + id);
+            }
+            changeFeed.publish(new ChangeEvent.AccountRetyped(id, accountType));
+            return null;
+        });
+        account.setAccountType(accountType);
+    }
 }
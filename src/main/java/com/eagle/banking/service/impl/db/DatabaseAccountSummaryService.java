@@ -0,0 +1,50 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.dto.AccountSummaryDto;
+import com.eagle.banking.model.AccountDailyRollup;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.AccountDailyRollupRepository;
+import com.eagle.banking.service.AccountSummaryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Profile("!memory")
+public class DatabaseAccountSummaryService implements AccountSummaryService {
+
+    private final AccountDailyRollupRepository rollupRepository;
+    private final int maxRangeDays;
+
+    public DatabaseAccountSummaryService(AccountDailyRollupRepository rollupRepository,
+                                         @Value("${app.summary.max-range-days:1830}") int maxRangeDays) {
+        this.rollupRepository = rollupRepository;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // called on the account's ledger lane inside the posting transaction, so the read-modify-write is safe
+    @Override
+    public void recordPosted(String accountId, List<Transaction> posted) {
+        Map<LocalDate, AccountDailyRollup> touched = new LinkedHashMap<>();
+        for (Transaction tx : posted) {
+            LocalDate day = LocalDate.ofInstant(tx.getCreatedAt(), ZoneOffset.UTC);
+            touched.computeIfAbsent(day, d -> rollupRepository.findById(new AccountDailyRollup.Key(accountId, d))
+                            .orElseGet(() -> new AccountDailyRollup(accountId, d)))
+                    .add(tx);
+        }
+        rollupRepository.saveAll(touched.values());
+    }
+
+    @Override
+    public List<AccountSummaryDto> summarize(String accountId, LocalDate from, LocalDate to, Granularity granularity) {
+        AccountSummaryService.checkRange(from, to, maxRangeDays);
+        List<AccountDailyRollup> days = rollupRepository.findByAccountIdAndDayBetweenOrderByDayAsc(accountId, from, to);
+        return AccountSummaryService.fold(days, granularity);
+    }
+}
@@ -0,0 +1,80 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.helper.AccountNumbers;
+import com.eagle.banking.helper.UuidV7;
+import com.eagle.banking.service.IdService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers from ranges reserved in the database: the sequence steps by
+ * {@code app.ids.account-number-block-size}, and each value it returns is the first number of a block that is
+ * then given out from memory. Numbers left in a block at shutdown are skipped, never reused. A changed block
+ * size is applied to the sequence at startup, continuing from the first number it has not handed out.
+ * <p>
+ * H2 only: the sequence is created and resized through H2's DDL and its {@code information_schema.sequences}
+ * columns, and startup fails on any other database. Moving to another one means provisioning
+ * {@code account_number_seq} with its schema, stepping by the block size, and dropping {@link #createSequence}.
+ */
+@Service
+@Profile("!memory")
+public class DatabaseIdService implements IdService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    // not synchronized: a block refill waits on JDBC and would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long blockEnd;
+
+    public DatabaseIdService(JdbcTemplate jdbcTemplate,
+                             @Value("${app.ids.account-number-block-size:100}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    @PostConstruct
+    void createSequence() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            throw new IllegalStateException("account_number_seq is only managed on H2, not on " + database);
+        }
+        jdbcTemplate.execute("create sequence if not exists account_number_seq start with 1 increment by " + blockSize);
+        Map<String, Object> sequence = jdbcTemplate.queryForMap("select base_value, increment "
+                + "from information_schema.sequences where sequence_name = 'ACCOUNT_NUMBER_SEQ'");
+        // left alone unless the block size has changed since the last startup
+        if (((Number) sequence.get("INCREMENT")).longValue() != blockSize) {
+            // base_value is the next block start, so nothing below it is issued again with the new step
+            long nextStart = ((Number) sequence.get("BASE_VALUE")).longValue();
+            jdbcTemplate.execute("alter sequence account_number_seq restart with " + nextStart
+                    + " increment by " + blockSize);
+        }
+    }
+
+    @Override
+    public String newId() {
+        return UuidV7.nextString();
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        lock.lock();
+        try {
+            if (next == blockEnd) {
+                next = jdbcTemplate.queryForObject("select next value for account_number_seq", Long.class);
+                blockEnd = next + blockSize;
+            }
+            return AccountNumbers.format(next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.IdempotencyRecordRepository;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keys are rows written in the posting's transaction. A background sweep deletes expired rows, so the table
+ * stays bounded by the posting rate over the TTL; a key that expired since the last sweep is dropped when a new
+ * posting trips over it (see {@link com.eagle.banking.service.idempotency.IdempotencyGuard}).
+ */
+@Service
+@Profile("!memory")
+public class DatabaseIdempotencyService implements IdempotencyService {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionService transactionService;
+    private final Duration ttl;
+    private final long sweepSeconds;
+    private ScheduledExecutorService sweeper;
+
+    public DatabaseIdempotencyService(IdempotencyRecordRepository repository,
+                                      TransactionService transactionService,
+                                      @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                      @Value("${app.idempotency.sweep-seconds:60}") long sweepSeconds) {
+        this.repository = repository;
+        this.transactionService = transactionService;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.sweepSeconds = sweepSeconds;
+    }
+
+    @Override
+    public Optional<Remembered> find(String accountId, String key) {
+        Instant cutoff = Instant.now().minus(ttl);
+        return repository.findByAccountIdAndIdempotencyKey(accountId, key)
+                .filter(r -> !r.getCreatedAt().isBefore(cutoff))
+                .flatMap(r -> transactionService.find(accountId, r.getTransactionId())
+                        .map(tx -> new Remembered(r.getFingerprint(), tx)));
+    }
+
+    // runs inside the ledger's transaction; a unique-index violation rolls the posting back with it
+    @Override
+    public void remember(String accountId, String key, String fingerprint, Transaction tx) {
+        try {
+            repository.saveAndFlush(new IdempotencyRecord(null, accountId, key, fingerprint, tx.getId(),
+                    tx.getCreatedAt()));
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateIdempotencyKeyException("Idempotency-Key already used: " + key);
+        }
+    }
+
+    @Override
+    public boolean isHeld(String accountId, String key) {
+        return repository.existsByAccountIdAndIdempotencyKey(accountId, key);
+    }
+
+    @Override
+    public boolean forgetExpired(String accountId, String key) {
+        return repository.deleteExpired(accountId, key, Instant.now().minus(ttl)) > 0;
+    }
+
+    @PostConstruct
+    void start() {
+        if (sweepSeconds <= 0) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    void sweep() {
+        repository.deleteCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) sweeper.shutdown();
+    }
+}
@@ -0,0 +1,241 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.AccountSummaryService;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.GroupCommitter;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import com.eagle.banking.service.ledger.Transfer;
+import com.eagle.banking.service.readmodel.ChangeEvent;
+import com.eagle.banking.service.readmodel.ChangeFeed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Profile("!memory")
+public class DatabaseLedgerService implements LedgerService, MeterBinder {
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final AccountSummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final LedgerSequencer sequencer;
+    private final IdService idService;
+    private final TransactionTemplate txTemplate;
+    private final int maxBatchSize;
+    // null unless app.ledger.group-commit.enabled
+    private final GroupCommitter groupCommitter;
+    private final ChangeFeed changeFeed;
+
+    public DatabaseLedgerService(AccountService accountService,
+                                 TransactionService transactionService,
+                                 AccountSummaryService summaryService,
+                                 IdempotencyService idempotencyService,
+                                 LedgerSequencer sequencer,
+                                 IdService idService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.ledger.batch-max-size:1000}") int maxBatchSize,
+                                 @Value("${app.ledger.group-commit.enabled:false}") boolean groupCommit,
+                                 @Value("${app.ledger.group-commit.max-size:64}") int groupMaxSize,
+                                 @Value("${app.ledger.group-commit.max-delay-micros:1000}") long groupMaxDelayMicros,
+                                 ChangeFeed changeFeed) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.sequencer = sequencer;
+        this.idService = idService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.groupCommitter = groupCommit
+                ? new GroupCommitter(sequencer, txTemplate, groupMaxSize, groupMaxDelayMicros)
+                : null;
+        this.changeFeed = changeFeed;
+    }
+
+    @Override
+    public Transaction post(String accountId, TransactionType type, BigDecimal amount, IdempotencyKey key) {
+        // the lane is the only writer for this account, so the read-check-write below cannot interleave
+        if (groupCommitter != null) return groupCommitter.submit(accountId, () -> apply(accountId, type, amount, key));
+        return sequencer.submit(accountId, () -> txTemplate.execute(status -> apply(accountId, type, amount, key)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (groupCommitter == null) return;
+        FunctionCounter.builder("ledger.group.commits", groupCommitter, GroupCommitter::commitCount)
+                .register(registry);
+        FunctionCounter.builder("ledger.group.postings", groupCommitter, GroupCommitter::committedPostings)
+                .register(registry);
+    }
+
+    @Override
+    public List<PostingOutcome> postBatch(String accountId, List<Transaction> items) {
+        if (items == null || items.isEmpty()) throw new InvalidRequestException("batch must contain at least one transaction");
+        if (items.size() > maxBatchSize) throw new InvalidRequestException("batch must not exceed " + maxBatchSize + " transactions");
+        return sequencer.submit(accountId, () -> txTemplate.execute(status -> applyBatch(accountId, items)));
+    }
+
+    @Override
+    public Transfer transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        if (fromAccountId.equals(toAccountId)) throw new InvalidRequestException("cannot transfer to the same account");
+        // holding both lanes makes this the only writer of either account
+        return sequencer.submit(fromAccountId, toAccountId,
+                () -> txTemplate.execute(status -> applyTransfer(fromAccountId, toAccountId, amount)));
+    }
+
+    private Transfer applyTransfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        // loaded, and so flushed, in id order: other nodes' transfers lock the two rows in the same order
+        boolean fromFirst = fromAccountId.compareTo(toAccountId) < 0;
+        Account first = accountService.getById(fromFirst ? fromAccountId : toAccountId);
+        Account second = accountService.getById(fromFirst ? toAccountId : fromAccountId);
+        Account from = fromFirst ? first : second;
+        Account to = fromFirst ? second : first;
+        if (from.getBalance().compareTo(amount) < 0) throw new InsufficientFundsException("insufficient funds");
+        from.setBalance(from.getBalance().subtract(amount));
+        to.setBalance(to.getBalance().add(amount));
+        accountService.update(first);
+        accountService.update(second);
+
+        String transferId = idService.newId();
+        Instant now = now();
+        Transaction debit = transferLeg(from, amount, TransactionType.TRANSFER_OUT, now, transferId);
+        Transaction credit = transferLeg(to, amount, TransactionType.TRANSFER_IN, now, transferId);
+        List<Transaction> recorded = transactionService.recordAll(List.of(debit, credit));
+        summaryService.recordPosted(fromAccountId, List.of(recorded.get(0)));
+        summaryService.recordPosted(toAccountId, List.of(recorded.get(1)));
+        publishPosted(fromAccountId, from.getBalance(), List.of(recorded.get(0)));
+        publishPosted(toAccountId, to.getBalance(), List.of(recorded.get(1)));
+        return new Transfer(transferId, recorded.get(0), recorded.get(1));
+    }
+
+    private static Transaction transferLeg(Account account, BigDecimal amount, TransactionType type, Instant createdAt,
+                                           String transferId) {
+        Transaction tx = new Transaction();
+        tx.setAccount(account);
+        tx.setAmount(amount);
+        tx.setType(type);
+        tx.setCreatedAt(createdAt);
+        tx.setBalanceAfter(account.getBalance());
+        tx.setTransferId(transferId);
+        return tx;
+    }
+
+    private List<PostingOutcome> applyBatch(String accountId, List<Transaction> items) {
+        Account account = accountService.getById(accountId);
+        BigDecimal balance = account.getBalance();
+        Instant now = now();
+        List<PostingOutcome> outcomes = new ArrayList<>(items.size());
+        List<Transaction> accepted = new ArrayList<>(items.size());
+
+        // one pass in request order: a rejected line leaves the running balance untouched
+        for (Transaction item : items) {
+            BigDecimal amount = item == null ? null : item.getAmount();
+            TransactionType type = item == null ? null : item.getType();
+            if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+                outcomes.add(PostingOutcome.rejected(new InvalidRequestException("amount must be greater than 0")));
+                continue;
+            }
+            if (TransactionType.WITHDRAW.equals(type)) {
+                if (balance.compareTo(amount) < 0) {
+                    outcomes.add(PostingOutcome.rejected(new InsufficientFundsException("insufficient funds")));
+                    continue;
+                }
+                balance = balance.subtract(amount);
+            } else if (TransactionType.DEPOSIT.equals(type)) {
+                balance = balance.add(amount);
+            } else {
+                outcomes.add(PostingOutcome.rejected(new InvalidRequestException("type must be deposit or withdrawal")));
+                continue;
+            }
+
+            Transaction tx = new Transaction();
+            tx.setAccount(account);
+            tx.setAmount(amount);
+            tx.setType(type);
+            tx.setCreatedAt(now);
+            tx.setBalanceAfter(balance);
+            accepted.add(tx);
+            outcomes.add(PostingOutcome.posted(tx));
+        }
+
+        if (!accepted.isEmpty()) {
+            account.setBalance(balance);
+            accountService.update(account);
+            transactionService.recordAll(accepted);
+            summaryService.recordPosted(accountId, accepted);
+            publishPosted(accountId, balance, accepted);
+        }
+        return outcomes;
+    }
+
+    private Transaction apply(String accountId, TransactionType type, BigDecimal amount, IdempotencyKey key) {
+        // in a group, checked before anything is written so that only this posting fails; on the lane no other
+        // posting to the account can take the key between this check and remember() below. A posting in its own
+        // transaction leaves it to the unique index and is rolled back alone.
+        if (key != null && groupCommitter != null && idempotencyService.isHeld(accountId, key.value())) {
+            throw new DuplicateIdempotencyKeyException("Idempotency-Key already used: " + key.value());
+        }
+        Account account = accountService.getById(accountId);
+        BigDecimal balance = account.getBalance();
+        if (TransactionType.WITHDRAW.equals(type)) {
+            if (balance.compareTo(amount) < 0) throw new InsufficientFundsException("insufficient funds");
+            account.setBalance(balance.subtract(amount));
+        } else if (TransactionType.DEPOSIT.equals(type)) {
+            account.setBalance(balance.add(amount));
+        } else {
+            throw new InvalidRequestException("type must be deposit or withdrawal");
+        }
+        accountService.update(account);
+
+        Transaction tx = new Transaction();
+        tx.setAccount(account);
+        tx.setAmount(amount);
+        tx.setType(type);
+        // stamped on the lane so createdAt order matches posting order for the account
+        tx.setCreatedAt(now());
+        tx.setBalanceAfter(account.getBalance());
+        Transaction recorded = transactionService.record(tx);
+        summaryService.recordPosted(accountId, List.of(recorded));
+        publishPosted(accountId, account.getBalance(), List.of(recorded));
+        if (key != null) idempotencyService.remember(accountId, key.value(), key.fingerprint(), recorded);
+        return recorded;
+    }
+
+    // reaches the read model once the surrounding transaction, or the group it joined, has committed
+    private void publishPosted(String accountId, BigDecimal balance, List<Transaction> recorded) {
+        if (!changeFeed.isEnabled()) return;
+        List<TransactionDto> rows = new ArrayList<>(recorded.size());
+        for (Transaction tx : recorded) rows.add(TransactionDto.fromEntity(tx));
+        changeFeed.publish(new ChangeEvent.Posted(accountId, balance, rows));
+    }
+
+    // the column keeps microseconds; truncating here means the returned entity matches what was stored
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -1,20 +1,34 @@
 package com.eagle.banking.service.impl.db;
 
+import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.repo.TransactionQuery;
 import com.eagle.banking.repo.TransactionRepository;
 import com.eagle.banking.service.TransactionService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
+@Profile("!memory")
 public class DatabaseTransactionService implements TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
 
-    public DatabaseTransactionService(TransactionRepository transactionRepository) {
+    public DatabaseTransactionService(TransactionRepository transactionRepository,
+                                      AccountRepository accountRepository) {
         this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
     }
 
     @Override
@@ -22,13 +36,57 @@ public class DatabaseTransactionService implements TransactionService {
         return transactionRepository.save(tx);
     }
 
+    @Override
+    public List<Transaction> recordAll(List<Transaction> txs) {
+        transactionRepository.persistAll(txs);
+        return txs;
+    }
+
     @Override
     public List<Transaction> listForAccount(String accountId) {
         return transactionRepository.findByAccountId(accountId);
     }
 
+    @Override
+    public List<Transaction> listPage(TransactionQuery query) {
+        return transactionRepository.findPage(query);
+    }
+
+    @Override
+    public List<TransactionDto> listDtoPage(TransactionQuery query) {
+        return transactionRepository.findDtoPage(query);
+    }
+
+    @Override
+    public List<TransactionDto> listLatestDtos(String accountId, int limit) {
+        List<TransactionDto> latest = new ArrayList<>(transactionRepository.findLatestDtos(accountId, limit));
+        Collections.reverse(latest);
+        return latest;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportForAccount(String accountId, Consumer<Transaction> sink) {
+        transactionRepository.forEachInAccount(accountId, sink);
+    }
+
     @Override
     public Optional<Transaction> find(String accountId, String txId) {
         return transactionRepository.findByAccountIdAndId(accountId, txId);
     }
+
+    @Override
+    public Optional<TransactionDto> findDto(String accountId, String txId) {
+        return transactionRepository.findDtoByAccountIdAndId(accountId, txId);
+    }
+
+    // one index seek to the last transaction at or before the instant; before the first one, what the account
+    // was opened with, and zero before it was opened
+    @Override
+    public BigDecimal balanceAt(String accountId, Instant at) {
+        return transactionRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(accountId, at)
+                .map(Transaction::getBalanceAfter)
+                .or(() -> accountRepository.findOpeningBalance(accountId, at))
+                .orElse(BigDecimal.ZERO);
+    }
 }
@@ -2,12 +2,14 @@ package com.eagle.banking.service.impl.db;
 
 import com.eagle.banking.model.User;
 import com.eagle.banking.repo.UserRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
+@Profile("!memory")
 public class DatabaseUserDetailService implements UserDetailsService {
 
     private final UserRepository userRepository;
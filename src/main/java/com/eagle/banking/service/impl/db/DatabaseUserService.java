@@ -5,30 +5,57 @@ import com.eagle.banking.exception.ResourceNotFoundException;
 import com.eagle.banking.model.User;
 import com.eagle.banking.repo.UserRepository;
 import com.eagle.banking.service.UserService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
+@Profile("!memory")
 public class DatabaseUserService implements UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder encoder;
+    private final UsernameBloomFilter takenUsernames;
 
-    public DatabaseUserService(UserRepository userRepository, BCryptPasswordEncoder encoder) {
+    public DatabaseUserService(UserRepository userRepository, BCryptPasswordEncoder encoder,
+                               UsernameBloomFilter takenUsernames) {
         this.userRepository = userRepository;
         this.encoder = encoder;
+        this.takenUsernames = takenUsernames;
     }
 
     @Override
     public User create(User user) {
-        boolean exists = userRepository.findAll().stream()
-                .anyMatch(u -> u.getUsername().equalsIgnoreCase(user.getUsername()));
-        if (exists) throw new ConflictException("username already exists");
+        String normalized = User.normalize(user.getUsername());
+        if (takenUsernames.mightContain(normalized) && userRepository.existsByUsernameNormalized(normalized)) {
+            throw new ConflictException("username already exists");
+        }
 
         user.setPassword(encoder.encode(user.getPassword()));
-        return maskPassword(userRepository.save(user));
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent sign-up took the name between the check and the insert; any other violation is a bug
+            if (!violates(e, User.USERNAME_CONSTRAINT)) throw e;
+            throw new ConflictException("username already exists");
+        }
+        takenUsernames.add(normalized);
+        return maskPassword(saved);
+    }
+
+    // matched on the constraint name Hibernate extracted, or failing that on the driver's message
+    static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+            String name = t instanceof ConstraintViolationException cve ? cve.getConstraintName() : t.getMessage();
+            if (name != null && name.toLowerCase(Locale.ROOT).contains(constraint)) return true;
+        }
+        return false;
     }
 
     @Override
@@ -0,0 +1,92 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over normalized usernames that have been taken. A negative answer is definite, so sign-ups
+ * for a free name skip the existence query entirely; a positive answer still goes to the database. When
+ * disabled by {@code app.users.bloom.enabled}, every name "might" be taken and the database always decides.
+ * Names of deleted users stay in the filter, which only costs an extra query for them.
+ */
+@Component
+@Profile("!memory")
+public class UsernameBloomFilter {
+
+    private final boolean enabled;
+    private final UserRepository userRepository;
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    public UsernameBloomFilter(@Value("${app.users.bloom.enabled:true}") boolean enabled,
+                               @Value("${app.users.bloom.expected-insertions:1000000}") int expectedInsertions,
+                               @Value("${app.users.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                               UserRepository userRepository) {
+        this.enabled = enabled;
+        this.userRepository = userRepository;
+        int n = Math.max(1, expectedInsertions);
+        long m = enabled ? (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))) : 64;
+        this.bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    @PostConstruct
+    void warm() {
+        if (!enabled || userRepository == null) return;
+        userRepository.findAllUsernamesNormalized().forEach(this::add);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean mightContain(String normalized) {
+        if (!enabled || normalized == null) return true;
+        long hash = hash(normalized);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public void add(String normalized) {
+        if (!enabled || normalized == null) return;
+        long hash = hash(normalized);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // another sign-up set a bit in the same word; retry
+            }
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with a murmur3 mix so both halves are usable
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
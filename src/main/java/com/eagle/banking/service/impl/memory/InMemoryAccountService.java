@@ -0,0 +1,124 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Accounts live in the store's map; their balances live in its BalanceTable and are copied onto the
+ * Account returned by each read. The balance is owned by the ledger, so {@link #update} leaves it alone.
+ * Updates and deletes run on the account's ledger lane, so they cannot interleave with a posting to it.
+ */
+@Service
+@Profile("memory")
+public class InMemoryAccountService implements AccountService {
+
+    private final InMemoryStore store;
+    private final IdService idService;
+    private final Journal journal;
+    private final LedgerSequencer sequencer;
+
+    public InMemoryAccountService(InMemoryStore store, IdService idService, Journal journal, LedgerSequencer sequencer) {
+        this.store = store;
+        this.idService = idService;
+        this.journal = journal;
+        this.sequencer = sequencer;
+    }
+
+    @Override
+    public Account create(Account account) {
+        if (account.getId() == null) account.setId(idService.newId());
+        account.setAccountNumber(idService.nextAccountNumber());
+        account.setOpeningBalance(account.getBalance());
+        account.setOpenedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        long balance = MinorUnits.of(account.getBalance());
+        journal.commit(saved(account, account.getAccountType(), balance), () -> store.openAccount(account, balance));
+        return withBalance(account)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + account.getId()));
+    }
+
+    @Override
+    public Account getById(String id) {
+        Account account = store.accounts.get(id);
+        if (account == null) throw new ResourceNotFoundException("Account not found: " + id);
+        return withBalance(account).orElseThrow(() -> new ResourceNotFoundException("Account not found: " + id));
+    }
+
+    @Override
+    public String getOwnerId(String id) {
+        Account account = store.accounts.get(id);
+        if (account == null) throw new ResourceNotFoundException("Account not found: " + id);
+        return account.getUser().getId();
+    }
+
+    @Override
+    public List<Account> getByUserId(String userId) {
+        Set<String> ids = store.accountIdsByUser.getOrDefault(userId, Set.of());
+        return ids.stream()
+                .map(store.accounts::get)
+                .filter(a -> a != null)
+                .flatMap(a -> withBalance(a).stream())
+                .toList();
+    }
+
+    @Override
+    public void delete(String id) {
+        sequencer.submit(id, () -> {
+            if (!store.accounts.containsKey(id)) throw new ResourceNotFoundException("Account not found: " + id);
+            journal.commit(new JournalRecord.AccountDeleted(id), () -> store.closeAccount(id));
+            return null;
+        });
+    }
+
+    @Override
+    public boolean userHasAccounts(String userId) {
+        return !store.accountIdsByUser.getOrDefault(userId, Set.of()).isEmpty();
+    }
+
+    @Override
+    public void update(Account account) {
+        sequencer.submit(account.getId(), () -> {
+            Account stored = store.accounts.get(account.getId());
+            if (stored == null) throw new ResourceNotFoundException("Account not found: " + account.getId());
+            journal.commit(saved(stored, account.getAccountType(), 0), () -> stored.setAccountType(account.getAccountType()));
+            return null;
+        });
+    }
+
+    @Override
+    public void changeType(Account account, String accountType) {
+        account.setAccountType(accountType);
+        update(account);
+    }
+
+    // the opening balance only matters the first time an account is saved; replay ignores it on updates
+    private static JournalRecord.AccountSaved saved(Account account, String accountType, long openingBalance) {
+        return new JournalRecord.AccountSaved(account.getId(), account.getUser().getId(), account.getAccountNumber(),
+                accountType, openingBalance, account.getOpenedAt());
+    }
+
+    // empty once the account is closed; its slot is released only after the ordinal is unmapped, so a slot
+    // read while the ordinal is still mapped afterwards was not yet another account's
+    private Optional<Account> withBalance(Account account) {
+        Integer ordinal = store.accountOrdinals.get(account.getId());
+        if (ordinal == null) return Optional.empty();
+        long balance = store.balances.get(ordinal);
+        if (!ordinal.equals(store.accountOrdinals.get(account.getId()))) return Optional.empty();
+        return Optional.of(new Account(account.getId(), account.getUser(), account.getAccountNumber(),
+                account.getAccountType(), MinorUnits.toDecimal(balance), account.getOpeningBalance(),
+                account.getOpenedAt()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.dto.AccountSummaryDto;
+import com.eagle.banking.model.AccountDailyRollup;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.service.AccountSummaryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Profile("memory")
+public class InMemoryAccountSummaryService implements AccountSummaryService {
+
+    private final InMemoryStore store;
+    private final int maxRangeDays;
+
+    public InMemoryAccountSummaryService(InMemoryStore store,
+                                         @Value("${app.summary.max-range-days:1830}") int maxRangeDays) {
+        this.store = store;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // runs on the account's ledger lane, the only writer of its rollups
+    @Override
+    public void recordPosted(String accountId, List<Transaction> posted) {
+        posted.forEach(store::addToRollup);
+    }
+
+    @Override
+    public List<AccountSummaryDto> summarize(String accountId, LocalDate from, LocalDate to, Granularity granularity) {
+        AccountSummaryService.checkRange(from, to, maxRangeDays);
+        store.history(accountId); // rollups of archived history are built when it is loaded
+        List<AccountDailyRollup> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            AccountDailyRollup rollup = store.dailyRollups.get(new AccountDailyRollup.Key(accountId, day));
+            if (rollup != null) days.add(rollup);
+        }
+        return AccountSummaryService.fold(days, granularity);
+    }
+}
@@ -0,0 +1,32 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.helper.AccountNumbers;
+import com.eagle.banking.helper.UuidV7;
+import com.eagle.banking.service.IdService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Profile("memory")
+public class InMemoryIdService implements IdService {
+
+    private final AtomicLong accountNumbers = new AtomicLong();
+
+    @Override
+    public String newId() {
+        return UuidV7.nextString();
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        return AccountNumbers.format(accountNumbers.incrementAndGet());
+    }
+
+    // journal replay: never hand out a number an existing account already has
+    void skipPast(String accountNumber) {
+        long value = AccountNumbers.sequenceValue(accountNumber);
+        accountNumbers.accumulateAndGet(value, Math::max);
+    }
+}
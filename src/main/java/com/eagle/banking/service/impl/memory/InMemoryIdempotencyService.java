@@ -0,0 +1,100 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.service.IdempotencyService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keys live in the store next to the transactions they point at and are journaled with the posting (see
+ * {@link InMemoryLedgerService}). A background sweep drops expired keys so the map stays bounded by the
+ * posting rate over the TTL.
+ */
+@Service
+@Profile("memory")
+public class InMemoryIdempotencyService implements IdempotencyService {
+
+    private final InMemoryStore store;
+    private final Duration ttl;
+    private final long sweepSeconds;
+    private ScheduledExecutorService sweeper;
+
+    public InMemoryIdempotencyService(InMemoryStore store,
+                                      @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                      @Value("${app.idempotency.sweep-seconds:60}") long sweepSeconds) {
+        this.store = store;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.sweepSeconds = sweepSeconds;
+    }
+
+    @Override
+    public Optional<Remembered> find(String accountId, String key) {
+        IdempotencyRecord record = store.idempotencyKeys.get(InMemoryStore.idempotencyKey(accountId, key));
+        if (record == null || expired(record, Instant.now())) return Optional.empty();
+        if (store.history(accountId) == null) return Optional.empty();
+        Transaction tx = store.transactionsById.get(record.getTransactionId());
+        return tx == null ? Optional.empty() : Optional.of(new Remembered(record.getFingerprint(), tx));
+    }
+
+    // the ledger checks find() on the account's lane before journaling, so this only throws on misuse
+    @Override
+    public void remember(String accountId, String key, String fingerprint, Transaction tx) {
+        IdempotencyRecord existing = store.idempotencyKeys.get(InMemoryStore.idempotencyKey(accountId, key));
+        if (existing != null && !expired(existing, Instant.now())) {
+            throw new DuplicateIdempotencyKeyException("Idempotency-Key already used: " + key);
+        }
+        store.rememberKey(new IdempotencyRecord(null, accountId, key, fingerprint, tx.getId(), tx.getCreatedAt()));
+    }
+
+    @Override
+    public boolean isHeld(String accountId, String key) {
+        IdempotencyRecord record = store.idempotencyKeys.get(InMemoryStore.idempotencyKey(accountId, key));
+        return record != null && !expired(record, Instant.now());
+    }
+
+    // remember() already writes over an expired key, so this only saves the sweep some work
+    @Override
+    public boolean forgetExpired(String accountId, String key) {
+        IdempotencyRecord record = store.idempotencyKeys.get(InMemoryStore.idempotencyKey(accountId, key));
+        return record != null && expired(record, Instant.now())
+                && store.idempotencyKeys.remove(InMemoryStore.idempotencyKey(accountId, key), record);
+    }
+
+    @PostConstruct
+    void start() {
+        if (sweepSeconds <= 0) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    void sweep() {
+        Instant now = Instant.now();
+        store.idempotencyKeys.values().removeIf(r -> expired(r, now));
+    }
+
+    private boolean expired(IdempotencyRecord record, Instant now) {
+        return record.getCreatedAt().plus(ttl).isBefore(now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) sweeper.shutdown();
+    }
+}
@@ -0,0 +1,238 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.AccountSummaryService;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import com.eagle.banking.service.ledger.Transfer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Posts against the store's balance table. Everything for one account runs on its ledger lane, so the
+ * balance slot, history log and rollups each see a single writer and need no locks. Postings are written
+ * to the journal, and synced per its fsync policy, before they become visible.
+ */
+@Service
+@Profile("memory")
+public class InMemoryLedgerService implements LedgerService {
+
+    private final InMemoryStore store;
+    private final TransactionService transactionService;
+    private final AccountSummaryService summaryService;
+    private final IdempotencyService idempotencyService;
+    private final LedgerSequencer sequencer;
+    private final IdService idService;
+    private final Journal journal;
+    private final int maxBatchSize;
+
+    public InMemoryLedgerService(InMemoryStore store,
+                                 TransactionService transactionService,
+                                 AccountSummaryService summaryService,
+                                 IdempotencyService idempotencyService,
+                                 LedgerSequencer sequencer,
+                                 IdService idService,
+                                 Journal journal,
+                                 @Value("${app.ledger.batch-max-size:1000}") int maxBatchSize) {
+        this.store = store;
+        this.transactionService = transactionService;
+        this.summaryService = summaryService;
+        this.idempotencyService = idempotencyService;
+        this.sequencer = sequencer;
+        this.idService = idService;
+        this.journal = journal;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public Transaction post(String accountId, TransactionType type, BigDecimal amount, IdempotencyKey key) {
+        return sequencer.submit(accountId, () -> apply(accountId, type, amount, key));
+    }
+
+    @Override
+    public List<PostingOutcome> postBatch(String accountId, List<Transaction> items) {
+        if (items == null || items.isEmpty()) throw new InvalidRequestException("batch must contain at least one transaction");
+        if (items.size() > maxBatchSize) throw new InvalidRequestException("batch must not exceed " + maxBatchSize + " transactions");
+        return sequencer.submit(accountId, () -> applyBatch(accountId, items));
+    }
+
+    private Transaction apply(String accountId, TransactionType type, BigDecimal amount, IdempotencyKey key) {
+        Account account = account(accountId);
+        // keys for an account are only written on its lane, so nothing can take this one before the commit below
+        if (key != null && idempotencyService.find(accountId, key.value()).isPresent()) {
+            throw new DuplicateIdempotencyKeyException("Idempotency-Key already used: " + key.value());
+        }
+        int ordinal = store.accountOrdinals.get(accountId);
+        long minor = MinorUnits.of(amount);
+        long balance = store.balances.get(ordinal);
+        if (TransactionType.WITHDRAW.equals(type)) {
+            if (balance < minor) throw new InsufficientFundsException("insufficient funds");
+            balance -= minor;
+        } else if (TransactionType.DEPOSIT.equals(type)) {
+            balance = MinorUnits.credit(balance, minor);
+        } else {
+            throw new InvalidRequestException("type must be deposit or withdrawal");
+        }
+
+        Transaction tx = transaction(account, amount, type, now(), balance);
+        long balanceAfter = balance;
+        Runnable applyPosting = () -> {
+            transactionService.record(tx);
+            store.balances.set(ordinal, balanceAfter);
+            summaryService.recordPosted(accountId, List.of(tx));
+        };
+        if (key == null) {
+            journal.commit(posted(tx, minor, balance), applyPosting);
+        } else {
+            JournalRecord remembered = new JournalRecord.KeyRemembered(accountId, key.value(), key.fingerprint(),
+                    tx.getId(), tx.getCreatedAt());
+            journal.commitAll(List.of(posted(tx, minor, balance), remembered), () -> {
+                applyPosting.run();
+                idempotencyService.remember(accountId, key.value(), key.fingerprint(), tx);
+            });
+        }
+        return tx;
+    }
+
+    @Override
+    public Transfer transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        if (fromAccountId.equals(toAccountId)) throw new InvalidRequestException("cannot transfer to the same account");
+        return sequencer.submit(fromAccountId, toAccountId, () -> applyTransfer(fromAccountId, toAccountId, amount));
+    }
+
+    private Transfer applyTransfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        Account from = account(fromAccountId);
+        Account to = account(toAccountId);
+        int fromOrdinal = store.accountOrdinals.get(fromAccountId);
+        int toOrdinal = store.accountOrdinals.get(toAccountId);
+        long minor = MinorUnits.of(amount);
+        long fromBalance = store.balances.get(fromOrdinal);
+        if (fromBalance < minor) throw new InsufficientFundsException("insufficient funds");
+        long fromAfter = fromBalance - minor;
+        long toAfter = MinorUnits.credit(store.balances.get(toOrdinal), minor);
+
+        String transferId = idService.newId();
+        Instant now = now();
+        Transaction debit = transaction(from, amount, TransactionType.TRANSFER_OUT, now, fromAfter);
+        Transaction credit = transaction(to, amount, TransactionType.TRANSFER_IN, now, toAfter);
+        debit.setTransferId(transferId);
+        credit.setTransferId(transferId);
+        // one record, so a crash can never keep one leg without the other
+        journal.commit(new JournalRecord.Transferred(transferId, posted(debit, minor, fromAfter),
+                posted(credit, minor, toAfter)), () -> {
+            transactionService.recordAll(List.of(debit, credit));
+            store.balances.set(fromOrdinal, fromAfter);
+            store.balances.set(toOrdinal, toAfter);
+            summaryService.recordPosted(fromAccountId, List.of(debit));
+            summaryService.recordPosted(toAccountId, List.of(credit));
+        });
+        return new Transfer(transferId, debit, credit);
+    }
+
+    private List<PostingOutcome> applyBatch(String accountId, List<Transaction> items) {
+        Account account = account(accountId);
+        int ordinal = store.accountOrdinals.get(accountId);
+        long balance = store.balances.get(ordinal);
+        Instant now = now();
+        List<PostingOutcome> outcomes = new ArrayList<>(items.size());
+        List<Transaction> accepted = new ArrayList<>(items.size());
+        List<JournalRecord> journaled = new ArrayList<>(items.size());
+
+        // one pass in request order: a rejected line leaves the running balance untouched
+        for (Transaction item : items) {
+            BigDecimal amount = item == null ? null : item.getAmount();
+            TransactionType type = item == null ? null : item.getType();
+            if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+                outcomes.add(PostingOutcome.rejected(new InvalidRequestException("amount must be greater than 0")));
+                continue;
+            }
+            long minor;
+            try {
+                minor = MinorUnits.of(amount);
+            } catch (InvalidRequestException e) {
+                outcomes.add(PostingOutcome.rejected(e));
+                continue;
+            }
+            if (TransactionType.WITHDRAW.equals(type)) {
+                if (balance < minor) {
+                    outcomes.add(PostingOutcome.rejected(new InsufficientFundsException("insufficient funds")));
+                    continue;
+                }
+                balance -= minor;
+            } else if (TransactionType.DEPOSIT.equals(type)) {
+                try {
+                    balance = MinorUnits.credit(balance, minor);
+                } catch (InvalidRequestException e) {
+                    outcomes.add(PostingOutcome.rejected(e));
+                    continue;
+                }
+            } else {
+                outcomes.add(PostingOutcome.rejected(new InvalidRequestException("type must be deposit or withdrawal")));
+                continue;
+            }
+            Transaction tx = transaction(account, amount, type, now, balance);
+            journaled.add(posted(tx, minor, balance));
+            accepted.add(tx);
+            outcomes.add(PostingOutcome.posted(tx));
+        }
+
+        if (!accepted.isEmpty()) {
+            long balanceAfter = balance;
+            journal.commitAll(journaled, () -> {
+                transactionService.recordAll(accepted);
+                store.balances.set(ordinal, balanceAfter);
+                summaryService.recordPosted(accountId, accepted);
+            });
+        }
+        return outcomes;
+    }
+
+    private Account account(String accountId) {
+        Account account = store.accounts.get(accountId);
+        if (account == null) throw new ResourceNotFoundException("Account not found: " + accountId);
+        return account;
+    }
+
+    private Transaction transaction(Account account, BigDecimal amount, TransactionType type, Instant createdAt,
+                                    long balanceAfter) {
+        Transaction tx = new Transaction();
+        tx.setId(idService.newId());
+        tx.setAccount(account);
+        tx.setAmount(amount);
+        tx.setType(type);
+        tx.setCreatedAt(createdAt);
+        tx.setBalanceAfter(MinorUnits.toDecimal(balanceAfter));
+        return tx;
+    }
+
+    private static JournalRecord.Posted posted(Transaction tx, long amount, long balanceAfter) {
+        return new JournalRecord.Posted(tx.getId(), tx.getAccount().getId(), tx.getType(), amount, balanceAfter,
+                tx.getCreatedAt());
+    }
+
+    // same precision as the database implementation, so cursors and ?at= behave identically
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
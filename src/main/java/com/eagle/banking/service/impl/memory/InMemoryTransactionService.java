@@ -0,0 +1,130 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.TransactionCursor;
+import com.eagle.banking.repo.TransactionLog;
+import com.eagle.banking.repo.TransactionQuery;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.TransactionService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Each account's history is a {@link TransactionLog} appended in posting order, which is (createdAt, id)
+ * order, so pages and point-in-time lookups start from a binary search instead of a scan. Appends come
+ * only from the account's ledger lane.
+ */
+@Service
+@Profile("memory")
+public class InMemoryTransactionService implements TransactionService {
+
+    private static final TransactionLog EMPTY = new TransactionLog();
+
+    private final InMemoryStore store;
+    private final IdService idService;
+
+    public InMemoryTransactionService(InMemoryStore store, IdService idService) {
+        this.store = store;
+        this.idService = idService;
+    }
+
+    @Override
+    public Transaction record(Transaction tx) {
+        if (tx.getId() == null) tx.setId(idService.newId());
+        store.appendTransaction(tx);
+        return tx;
+    }
+
+    @Override
+    public List<Transaction> recordAll(List<Transaction> txs) {
+        txs.forEach(this::record);
+        return txs;
+    }
+
+    @Override
+    public List<Transaction> listForAccount(String accountId) {
+        return history(accountId).snapshot();
+    }
+
+    @Override
+    public List<Transaction> listPage(TransactionQuery query) {
+        TransactionLog log = history(query.accountId());
+        int size = log.size();
+        int start = 0;
+        TransactionCursor after = query.after();
+        if (after != null) start = firstAfter(log, size, after.createdAt(), after.id());
+        if (query.from() != null) start = Math.max(start, firstAtOrAfter(log, size, query.from()));
+
+        List<Transaction> page = new ArrayList<>(Math.min(query.limit(), size - start));
+        for (int i = start; i < size && page.size() < query.limit(); i++) {
+            Transaction tx = log.get(i);
+            if (query.to() != null && !tx.getCreatedAt().isBefore(query.to())) break;
+            if (query.type() == null || query.type() == tx.getType()) page.add(tx);
+        }
+        return page;
+    }
+
+    @Override
+    public void exportForAccount(String accountId, Consumer<Transaction> sink) {
+        history(accountId).forEach(sink);
+    }
+
+    @Override
+    public Optional<Transaction> find(String accountId, String txId) {
+        history(accountId);
+        Transaction tx = store.transactionsById.get(txId);
+        return tx != null && tx.getAccount().getId().equals(accountId) ? Optional.of(tx) : Optional.empty();
+    }
+
+    // before the first posting, what the account was opened with, and zero before it was opened
+    @Override
+    public BigDecimal balanceAt(String accountId, Instant at) {
+        TransactionLog log = history(accountId);
+        int size = log.size();
+        int next = firstAfter(log, size, at, null);
+        if (next > 0) return log.get(next - 1).getBalanceAfter();
+        Account account = store.accounts.get(accountId);
+        if (account == null || account.getOpeningBalance() == null) return BigDecimal.ZERO;
+        if (account.getOpenedAt() != null && account.getOpenedAt().isAfter(at)) return BigDecimal.ZERO;
+        return account.getOpeningBalance();
+    }
+
+    private TransactionLog history(String accountId) {
+        TransactionLog log = store.history(accountId);
+        return log != null ? log : store.transactions.getOrDefault(accountId, EMPTY);
+    }
+
+    // index of the first entry ordered after (createdAt, id), or after everything at createdAt when id is null
+    private static int firstAfter(TransactionLog log, int size, Instant createdAt, String id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Transaction tx = log.get(mid);
+            int cmp = tx.getCreatedAt().compareTo(createdAt);
+            if (cmp < 0 || (cmp == 0 && (id == null || tx.getId().compareTo(id) <= 0))) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int firstAtOrAfter(TransactionLog log, int size, Instant createdAt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (log.get(mid).getCreatedAt().isBefore(createdAt)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,36 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@Profile("memory")
+public class InMemoryUserDetailService implements UserDetailsService {
+
+    private final InMemoryStore store;
+
+    public InMemoryUserDetailService(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        String id = store.userIdsByUsername.get(User.normalize(username));
+        User user = Optional.ofNullable(id == null ? null : store.users.get(id))
+                .filter(u -> u.getUsername().equals(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .disabled(false)
+                .credentialsExpired(false)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.ConflictException;
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.UserService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@Profile("memory")
+public class InMemoryUserService implements UserService {
+
+    private final InMemoryStore store;
+    private final BCryptPasswordEncoder encoder;
+    private final IdService idService;
+    private final Journal journal;
+
+    public InMemoryUserService(InMemoryStore store, BCryptPasswordEncoder encoder, IdService idService,
+                               Journal journal) {
+        this.store = store;
+        this.encoder = encoder;
+        this.idService = idService;
+        this.journal = journal;
+    }
+
+    @Override
+    public User create(User user) {
+        if (user.getId() == null) user.setId(idService.newId());
+        String normalized = User.normalize(user.getUsername());
+        if (normalized != null && store.userIdsByUsername.putIfAbsent(normalized, user.getId()) != null) {
+            throw new ConflictException("username already exists");
+        }
+        user.setUsernameNormalized(normalized);
+        user.setPassword(encoder.encode(user.getPassword()));
+        try {
+            journal.commit(saved(user), () -> store.putUser(user));
+        } catch (RuntimeException e) {
+            if (normalized != null) store.userIdsByUsername.remove(normalized, user.getId());
+            throw e;
+        }
+        return maskPassword(user);
+    }
+
+    @Override
+    public User getById(String id) {
+        User user = store.users.get(id);
+        if (user == null) throw new ResourceNotFoundException("User not found: " + id);
+        return maskPassword(user);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        String id = store.userIdsByUsername.get(User.normalize(username));
+        User user = id == null ? null : store.users.get(id);
+        return user != null && user.getUsername().equals(username) ? Optional.of(user) : Optional.empty();
+    }
+
+    @Override
+    public User update(String id, User update) {
+        User existingUser = store.users.get(id);
+        if (existingUser == null) throw new ResourceNotFoundException("User not found: " + id);
+        String fullName = update.getFullName() != null ? update.getFullName() : existingUser.getFullName();
+        String password = update.getPassword() != null ? update.getPassword() : existingUser.getPassword();
+        journal.commit(new JournalRecord.UserSaved(id, existingUser.getUsername(), fullName, password), () -> {
+            existingUser.setFullName(fullName);
+            existingUser.setPassword(password);
+        });
+        return maskPassword(existingUser);
+    }
+
+    @Override
+    public void delete(String id) {
+        if (!store.users.containsKey(id)) throw new ResourceNotFoundException("User not found: " + id);
+        journal.commit(new JournalRecord.UserDeleted(id), () -> store.removeUser(id));
+    }
+
+    private static JournalRecord.UserSaved saved(User user) {
+        return new JournalRecord.UserSaved(user.getId(), user.getUsername(), user.getFullName(), user.getPassword());
+    }
+}
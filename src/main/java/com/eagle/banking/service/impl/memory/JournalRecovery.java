@@ -0,0 +1,113 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.AccountSummaryService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Rebuilds the store once all beans exist and before the web server starts taking requests: the latest
+ * snapshot first, then the journal from the snapshot's checkpoint. Replay is single-threaded, so it writes
+ * balances, history logs and rollups directly rather than going through the ledger lanes. A posting to an
+ * account whose history is still in the snapshot only sets the balance; the row waits in the store until the
+ * account is first touched, so startup never loads histories nobody asked for. Every record is safe to apply
+ * twice, which a snapshot taken while posting continued relies on.
+ */
+@Component
+@Profile("memory")
+public class JournalRecovery implements SmartInitializingSingleton {
+
+    private final Journal journal;
+    private final InMemoryStore store;
+    private final AccountSummaryService summaryService;
+    private final InMemoryIdService idService;
+    private final StoreSnapshots snapshots;
+
+    public JournalRecovery(Journal journal, InMemoryStore store, AccountSummaryService summaryService,
+                           InMemoryIdService idService, StoreSnapshots snapshots) {
+        this.journal = journal;
+        this.store = store;
+        this.summaryService = summaryService;
+        this.idService = idService;
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long checkpoint = snapshots.load();
+        journal.replay(checkpoint, this::apply);
+        snapshots.start();
+    }
+
+    void apply(JournalRecord record) {
+        switch (record) {
+            case JournalRecord.UserSaved u -> {
+                User existing = store.users.get(u.id());
+                if (existing != null) {
+                    existing.setFullName(u.fullName());
+                    existing.setPassword(u.passwordHash());
+                } else {
+                    store.putUser(new User(u.id(), u.username(), User.normalize(u.username()), u.fullName(),
+                            u.passwordHash()));
+                }
+            }
+            case JournalRecord.UserDeleted u -> store.removeUser(u.id());
+            case JournalRecord.AccountSaved a -> {
+                Account existing = store.accounts.get(a.id());
+                if (existing != null) {
+                    existing.setAccountType(a.accountType());
+                } else {
+                    User owner = store.users.get(a.userId());
+                    if (owner == null) {
+                        owner = new User();
+                        owner.setId(a.userId());
+                    }
+                    BigDecimal opening = MinorUnits.toDecimal(a.openingBalance());
+                    store.openAccount(new Account(a.id(), owner, a.accountNumber(), a.accountType(), opening, opening,
+                            a.openedAt()), a.openingBalance());
+                    idService.skipPast(a.accountNumber());
+                }
+            }
+            case JournalRecord.AccountDeleted a -> store.closeAccount(a.id());
+            case JournalRecord.Posted p -> applyPosted(p, null);
+            case JournalRecord.Transferred t -> {
+                applyPosted(t.debit(), t.transferId());
+                applyPosted(t.credit(), t.transferId());
+            }
+            case JournalRecord.KeyRemembered k -> store.rememberKey(new IdempotencyRecord(null, k.accountId(),
+                    k.key(), k.fingerprint(), k.transactionId(), k.createdAt()));
+        }
+    }
+
+    private void applyPosted(JournalRecord.Posted p, String transferId) {
+        Account account = store.accounts.get(p.accountId());
+        if (account == null) return;
+        Transaction tx = new Transaction();
+        tx.setId(p.transactionId());
+        tx.setAccount(account);
+        tx.setType(p.type());
+        tx.setAmount(MinorUnits.toDecimal(p.amount()));
+        tx.setBalanceAfter(MinorUnits.toDecimal(p.balanceAfter()));
+        tx.setCreatedAt(p.createdAt());
+        tx.setTransferId(transferId);
+        if (!store.isMaterialized(p.accountId())) {
+            store.balances.set(store.accountOrdinals.get(p.accountId()), p.balanceAfter());
+            store.deferReplayed(tx);
+            return;
+        }
+        if (store.transactionsById.containsKey(p.transactionId())) return; // already in the snapshot
+        store.balances.set(store.accountOrdinals.get(p.accountId()), p.balanceAfter());
+        store.appendTransaction(tx);
+        summaryService.recordPosted(p.accountId(), List.of(tx));
+    }
+}
@@ -0,0 +1,38 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.InvalidRequestException;
+
+import java.math.BigDecimal;
+
+// amounts are held as whole cents; anything finer than that is rejected rather than rounded
+final class MinorUnits {
+
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    static long of(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            if (amount.stripTrailingZeros().scale() > SCALE) {
+                throw new InvalidRequestException("amount must have at most " + SCALE + " decimal places");
+            }
+            throw new InvalidRequestException("amount is too large");
+        }
+    }
+
+    // a credit past the largest balance a long can hold is refused as a bad request, not left to fail with a 500
+    static long credit(long balance, long minorUnits) {
+        try {
+            return Math.addExact(balance, minorUnits);
+        } catch (ArithmeticException e) {
+            throw new InvalidRequestException("balance would exceed the maximum supported amount");
+        }
+    }
+
+    static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
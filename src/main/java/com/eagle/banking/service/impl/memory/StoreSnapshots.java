@@ -0,0 +1,389 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.TransactionLog;
+import com.eagle.banking.repo.journal.Journal;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodic binary snapshot of users, accounts, balances, history and idempotency keys, so a restart loads one
+ * file and replays only the journal written after it. Users, accounts, balances and keys are read eagerly; each
+ * account's history stays in the file until the account is first touched (see {@link InMemoryStore#history}).
+ * <p>
+ * Writing does not stop posting. It starts from a journal checkpoint and captures each account from its own
+ * append-only log, taking the balance from the last captured entry, so every account is consistent with
+ * itself. Changes that land after the checkpoint may or may not be captured; replay from the checkpoint skips
+ * postings already present. Accounts whose history was never loaded copy their bytes from the previous file.
+ * Once the new file is in place, the journal before the checkpoint is deleted.
+ */
+@Component
+@Profile("memory")
+public class StoreSnapshots {
+
+    private static final long MAGIC = 0x45474c534e415031L; // "EGLSNAP1"
+    private static final int VERSION = 4; // 2 added idempotency keys, 3 transfer entries, 4 when accounts opened
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+    private static final String FILE = "snapshot.bin";
+    private static final String TMP = FILE + ".tmp";
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    // per-ordinal location of each account's history in one snapshot file; the id is checked because a closed
+    // account's ordinal is handed to the next account opened
+    private record Archive(FileChannel channel, String[] ids, long[] offsets, int[] sizes, int[] counts,
+                           long[] balances) implements InMemoryStore.HistoryArchive {
+
+        boolean holds(int ordinal, String accountId) {
+            return ordinal < counts.length && counts[ordinal] >= 0 && accountId.equals(ids[ordinal]);
+        }
+
+        @Override
+        public List<Transaction> load(Account account, int ordinal) {
+            if (!holds(ordinal, account.getId()) || counts[ordinal] == 0) return List.of();
+            ByteBuffer bytes = ByteBuffer.allocate(sizes[ordinal]);
+            try {
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, offsets[ordinal] + bytes.position()) < 0) {
+                        throw new IllegalStateException("snapshot history truncated for account " + account.getId());
+                    }
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.array()));
+                List<Transaction> history = new ArrayList<>(counts[ordinal]);
+                for (int i = 0; i < counts[ordinal]; i++) history.add(readEntry(in, account));
+                return history;
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot read snapshot history", e);
+            }
+        }
+    }
+
+    private static final class CountingOutput extends FilterOutputStream {
+        long count;
+
+        CountingOutput(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private final boolean enabled;
+    private final Path dir;
+    private final long intervalSeconds;
+    private final InMemoryStore store;
+    private final Journal journal;
+    private final InMemoryIdService idService;
+    private final ReentrantLock writing = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+    // the archive replaced by the latest write; readers may still hold it, so it is closed one write later
+    private Archive retired;
+
+    public StoreSnapshots(@Value("${app.snapshot.enabled:false}") boolean enabled,
+                          @Value("${app.snapshot.dir:data/snapshot}") String dir,
+                          @Value("${app.snapshot.interval-seconds:300}") long intervalSeconds,
+                          InMemoryStore store, Journal journal, InMemoryIdService idService) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.intervalSeconds = intervalSeconds;
+        this.store = store;
+        this.journal = journal;
+        this.idService = idService;
+    }
+
+    // without the journal there is nothing to replay after a snapshot, so snapshots need it
+    public boolean isEnabled() {
+        return enabled && journal.isEnabled();
+    }
+
+    /**
+     * Loads the latest snapshot into the (empty) store and returns the journal position to replay from, or 0
+     * when there is no snapshot.
+     */
+    public long load() {
+        if (!isEnabled()) return 0;
+        try {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve(TMP));
+            Path file = dir.resolve(FILE);
+            if (!Files.exists(file)) return 0;
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(20);
+            ByteBuffer footer = ByteBuffer.allocate(16);
+            channel.read(header, 0);
+            channel.read(footer, size - footer.capacity());
+            header.flip();
+            footer.flip();
+            long metadataOffset = footer.getLong();
+            int version = size < 36 || header.getLong() != MAGIC || footer.getLong() != MAGIC ? 0 : header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalStateException("unreadable snapshot " + file);
+            }
+            long checkpoint = header.getLong();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(metadataOffset)), 64 * 1024));
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                String id = in.readUTF();
+                String username = readString(in);
+                store.putUser(new User(id, username, User.normalize(username), readString(in), readString(in)));
+            }
+            int accountCount = in.readInt();
+            int base = store.balances.size();
+            Archive archive = archive(channel, base + accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                String id = in.readUTF();
+                String userId = in.readUTF();
+                String accountNumber = in.readUTF();
+                String accountType = readString(in);
+                long opening = in.readLong();
+                long openedAt = version >= 4 ? in.readLong() : NO_INSTANT;
+                long balance = in.readLong();
+                User owner = store.users.get(userId);
+                if (owner == null) {
+                    owner = new User();
+                    owner.setId(userId);
+                }
+                BigDecimal openingBalance = MinorUnits.toDecimal(opening);
+                Instant opened = openedAt == NO_INSTANT ? null : Instant.EPOCH.plus(openedAt, ChronoUnit.MICROS);
+                int ordinal = store.openAccount(new Account(id, owner, accountNumber, accountType, openingBalance,
+                        openingBalance, opened), balance);
+                archive.ids()[ordinal] = id;
+                archive.offsets()[ordinal] = in.readLong();
+                archive.sizes()[ordinal] = in.readInt();
+                archive.counts()[ordinal] = in.readInt();
+                archive.balances()[ordinal] = balance;
+                idService.skipPast(accountNumber);
+            }
+            int keyCount = version >= 2 ? in.readInt() : 0;
+            for (int i = 0; i < keyCount; i++) {
+                store.rememberKey(new IdempotencyRecord(null, in.readUTF(), readString(in), readString(in),
+                        in.readUTF(), Instant.EPOCH.plus(in.readLong(), ChronoUnit.MICROS)));
+            }
+            store.setArchive(archive);
+            return checkpoint;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot load snapshot from " + dir, e);
+        }
+    }
+
+    public void start() {
+        if (!isEnabled() || intervalSeconds <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "store-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // writes a snapshot now and returns the journal checkpoint it covers
+    public long write() {
+        if (!isEnabled()) return 0;
+        writing.lock();
+        try {
+            Files.createDirectories(dir);
+            long checkpoint = journal.checkpoint();
+            Archive previous = store.archive() instanceof Archive a ? a : null;
+            Archive next = archive(null, store.balances.size());
+            Path tmp = dir.resolve(TMP);
+            List<Account> written = new ArrayList<>();
+            List<Integer> ordinals = new ArrayList<>();
+            CountingOutput counting = new CountingOutput(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024));
+            try (DataOutputStream out = new DataOutputStream(counting)) {
+                out.writeLong(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(checkpoint);
+                for (Account account : store.accounts.values()) {
+                    Integer ordinal = store.accountOrdinals.get(account.getId());
+                    // opened after the checkpoint and after the arrays were sized, or given the ordinal of an
+                    // account closed after the checkpoint and already written: the journal tail has it
+                    if (ordinal == null || ordinal >= next.counts().length || next.ids()[ordinal] != null) continue;
+                    next.ids()[ordinal] = account.getId();
+                    next.offsets()[ordinal] = counting.count;
+                    writeHistory(out, account, ordinal, previous, next);
+                    next.sizes()[ordinal] = (int) (counting.count - next.offsets()[ordinal]);
+                    written.add(account);
+                    ordinals.add(ordinal);
+                }
+
+                long metadataOffset = counting.count;
+                List<User> users = new ArrayList<>(store.users.values());
+                out.writeInt(users.size());
+                for (User user : users) {
+                    out.writeUTF(user.getId());
+                    writeString(out, user.getUsername());
+                    writeString(out, user.getFullName());
+                    writeString(out, user.getPassword());
+                }
+                out.writeInt(written.size());
+                for (int i = 0; i < written.size(); i++) {
+                    Account account = written.get(i);
+                    int ordinal = ordinals.get(i);
+                    out.writeUTF(account.getId());
+                    out.writeUTF(account.getUser().getId());
+                    out.writeUTF(account.getAccountNumber());
+                    writeString(out, account.getAccountType());
+                    out.writeLong(MinorUnits.of(account.getBalance()));
+                    out.writeLong(account.getOpenedAt() == null
+                            ? NO_INSTANT : ChronoUnit.MICROS.between(Instant.EPOCH, account.getOpenedAt()));
+                    out.writeLong(next.balances()[ordinal]);
+                    out.writeLong(next.offsets()[ordinal]);
+                    out.writeInt(next.sizes()[ordinal]);
+                    out.writeInt(next.counts()[ordinal]);
+                }
+                List<IdempotencyRecord> keys = new ArrayList<>(store.idempotencyKeys.values());
+                out.writeInt(keys.size());
+                for (IdempotencyRecord key : keys) {
+                    out.writeUTF(key.getAccountId());
+                    writeString(out, key.getIdempotencyKey());
+                    writeString(out, key.getFingerprint());
+                    out.writeUTF(key.getTransactionId());
+                    out.writeLong(ChronoUnit.MICROS.between(Instant.EPOCH, key.getCreatedAt()));
+                }
+                out.writeLong(metadataOffset);
+                out.writeLong(MAGIC);
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Path file = dir.resolve(FILE);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            store.setArchive(new Archive(FileChannel.open(file, StandardOpenOption.READ), next.ids(), next.offsets(),
+                    next.sizes(), next.counts(), next.balances()));
+            if (retired != null) retired.channel().close();
+            retired = previous;
+            journal.truncateBefore(checkpoint);
+            return checkpoint;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write snapshot to " + dir, e);
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    private void writeHistory(DataOutputStream out, Account account, int ordinal, Archive previous, Archive next)
+            throws IOException {
+        // postings replayed since the previous snapshot have to be written before the journal is cut
+        TransactionLog log = store.hasReplayed(account.getId())
+                ? store.history(account.getId())
+                : store.transactions.get(account.getId());
+        if (log != null) {
+            int size = log.size();
+            for (int i = 0; i < size; i++) writeEntry(out, log.get(i));
+            next.counts()[ordinal] = size;
+            next.balances()[ordinal] = size > 0
+                    ? MinorUnits.of(log.get(size - 1).getBalanceAfter())
+                    : MinorUnits.of(account.getBalance());
+        } else if (previous != null && previous.holds(ordinal, account.getId())) {
+            // never loaded since the last snapshot, so nothing was posted to it before the checkpoint
+            ByteBuffer bytes = ByteBuffer.allocate(previous.sizes()[ordinal]);
+            while (bytes.hasRemaining()) {
+                if (previous.channel().read(bytes, previous.offsets()[ordinal] + bytes.position()) < 0) break;
+            }
+            out.write(bytes.array(), 0, bytes.position());
+            next.counts()[ordinal] = previous.counts()[ordinal];
+            next.balances()[ordinal] = previous.balances()[ordinal];
+        } else {
+            next.counts()[ordinal] = 0;
+            next.balances()[ordinal] = MinorUnits.of(account.getBalance());
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (RuntimeException e) {
+            // the previous snapshot and the journal after it are intact; the next interval tries again
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) scheduler.shutdown();
+    }
+
+    private static Archive archive(FileChannel channel, int capacity) {
+        int[] counts = new int[capacity];
+        Arrays.fill(counts, -1);
+        return new Archive(channel, new String[capacity], new long[capacity], new int[capacity], counts,
+                new long[capacity]);
+    }
+
+    private static void writeEntry(DataOutputStream out, Transaction tx) throws IOException {
+        out.writeUTF(tx.getId());
+        out.writeByte(tx.getType().ordinal());
+        out.writeLong(MinorUnits.of(tx.getAmount()));
+        out.writeLong(MinorUnits.of(tx.getBalanceAfter()));
+        out.writeLong(ChronoUnit.MICROS.between(Instant.EPOCH, tx.getCreatedAt()));
+        // only transfer legs carry the id, so entries written before transfers existed read unchanged
+        if (tx.getType().isTransfer()) out.writeUTF(tx.getTransferId());
+    }
+
+    private static Transaction readEntry(DataInputStream in, Account account) throws IOException {
+        Transaction tx = new Transaction();
+        tx.setId(in.readUTF());
+        tx.setAccount(account);
+        tx.setType(TYPES[in.readByte()]);
+        tx.setAmount(MinorUnits.toDecimal(in.readLong()));
+        tx.setBalanceAfter(MinorUnits.toDecimal(in.readLong()));
+        tx.setCreatedAt(Instant.EPOCH.plus(in.readLong(), ChronoUnit.MICROS));
+        if (tx.getType().isTransfer()) tx.setTransferId(in.readUTF());
+        return tx;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.eagle.banking.service.ledger;
+
+import com.eagle.banking.exception.BankingException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for ledger postings. Callers queue their work for the account's lane instead of each opening
+ * a database transaction; the lane takes what is queued, waits until {@code maxDelayMicros} after the oldest
+ * entry for more to arrive, up to {@code maxSize}, and runs the whole group in one transaction, so the group
+ * shares one JDBC batch and one commit. A delay of 0 only groups postings that queued up while the lane was
+ * busy.
+ * <p>
+ * Every caller still gets its own outcome. Work may throw a {@link BankingException} only before it has
+ * written anything; such a rejection fails that caller alone and the rest of the group commits. Any other
+ * failure rolls the group back, and its postings are then retried in a transaction each, so only the posting
+ * at fault fails.
+ */
+public class GroupCommitter {
+
+    private static final class Pending {
+        final Supplier<?> work;
+        final long queuedAt = System.nanoTime();
+        // written and read on the lane thread, or by the caller after its own lane task has finished
+        boolean done;
+        Object result;
+        RuntimeException error;
+
+        Pending(Supplier<?> work) {
+            this.work = work;
+        }
+    }
+
+    private final LedgerSequencer sequencer;
+    private final TransactionTemplate txTemplate;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending>[] queues;
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder committedPostings = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public GroupCommitter(LedgerSequencer sequencer, TransactionTemplate txTemplate, int maxSize, long maxDelayMicros) {
+        this.sequencer = sequencer;
+        this.txTemplate = txTemplate;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, maxDelayMicros));
+        this.queues = new BlockingQueue[sequencer.laneCount()];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new LinkedBlockingQueue<>();
+        }
+    }
+
+    /**
+     * Runs {@code work} inside a group transaction on the lane owning {@code accountId} and returns its result,
+     * or rethrows its exception, once that transaction has committed or rolled back.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T submit(String accountId, Supplier<T> work) {
+        Pending mine = new Pending(work);
+        BlockingQueue<Pending> queue = queues[sequencer.laneFor(accountId)];
+        queue.add(mine);
+        // an earlier caller's task may already have committed this posting; then this one finds it done
+        sequencer.submit(accountId, () -> {
+            while (!mine.done) commit(collect(queue));
+            return null;
+        });
+        if (mine.error != null) throw mine.error;
+        return (T) mine.result;
+    }
+
+    public long commitCount() {
+        return commits.sum();
+    }
+
+    public long committedPostings() {
+        return committedPostings.sum();
+    }
+
+    private List<Pending> collect(BlockingQueue<Pending> queue) {
+        List<Pending> group = new ArrayList<>();
+        queue.drainTo(group, maxSize);
+        if (group.isEmpty() || maxDelayNanos == 0) return group;
+        long deadline = group.get(0).queuedAt + maxDelayNanos;
+        try {
+            while (group.size() < maxSize) {
+                long wait = deadline - System.nanoTime();
+                if (wait <= 0) break;
+                Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (next == null) break;
+                group.add(next);
+                queue.drainTo(group, maxSize - group.size());
+            }
+        } catch (InterruptedException e) {
+            // commit what has been collected; the lane is being shut down
+            Thread.currentThread().interrupt();
+        }
+        return group;
+    }
+
+    private void commit(List<Pending> group) {
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                for (Pending p : group) {
+                    try {
+                        p.result = p.work.get();
+                    } catch (BankingException e) {
+                        p.error = e;
+                    }
+                }
+            });
+            commits.increment();
+            for (Pending p : group) {
+                if (p.error == null) committedPostings.increment();
+            }
+        } catch (RuntimeException groupFailure) {
+            for (Pending p : group) {
+                p.result = null;
+                p.error = null;
+                try {
+                    p.result = txTemplate.execute(status -> p.work.get());
+                    commits.increment();
+                    committedPostings.increment();
+                } catch (RuntimeException e) {
+                    p.error = e;
+                }
+            }
+        }
+        for (Pending p : group) p.done = true;
+    }
+}
@@ -0,0 +1,106 @@
+package com.eagle.banking.service.ledger;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Routes ledger work onto a fixed set of single-writer lanes. An account always hashes to the same lane,
+ * so every post for that account runs one at a time on one thread, while accounts on other lanes proceed
+ * in parallel. This replaces row locking: within this process nothing else mutates an account's balance.
+ */
+@Component
+public class LedgerSequencer {
+
+    private final ExecutorService[] lanes;
+    // lane index of the current thread when it is one of this sequencer's lanes
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+
+    public LedgerSequencer(int laneCount) {
+        this(laneCount, false);
+    }
+
+    @Autowired
+    public LedgerSequencer(@Value("${app.ledger.lanes:0}") int laneCount,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            int lane = i;
+            Thread.Builder builder = virtualThreads
+                    ? Thread.ofVirtual().name("ledger-lane-" + lane)
+                    : Thread.ofPlatform().name("ledger-lane-" + lane).daemon(true);
+            lanes[i] = Executors.newSingleThreadExecutor(r -> builder.unstarted(() -> {
+                currentLane.set(lane);
+                r.run();
+            }));
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int laneFor(String accountId) {
+        int h = accountId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    /**
+     * Runs {@code work} on the lane owning {@code accountId} and waits for its result. Exceptions thrown by
+     * the work are rethrown unchanged to the caller. Calls made from the owning lane itself run inline.
+     */
+    public <T> T submit(String accountId, Supplier<T> work) {
+        return onLane(laneFor(accountId), work);
+    }
+
+    /**
+     * Runs {@code work} while holding the lanes of both accounts, so it is the only writer of either. The lower
+     * lane is always taken first and then blocks while the work runs on the higher one; with every caller
+     * taking lanes in that order, two transfers can never each hold the lane the other is waiting for.
+     * Must not be called from a lane thread, which could already hold a higher lane.
+     */
+    public <T> T submit(String accountId, String otherAccountId, Supplier<T> work) {
+        int first = laneFor(accountId);
+        int second = laneFor(otherAccountId);
+        if (first == second) return onLane(first, work);
+        if (currentLane.get() != null) throw new IllegalStateException("two-account work cannot start on a ledger lane");
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return onLane(low, () -> onLane(high, work));
+    }
+
+    private <T> T onLane(int lane, Supplier<T> work) {
+        Integer current = currentLane.get();
+        if (current != null && current == lane) {
+            return work.get();
+        }
+        Future<T> result = lanes[lane].submit(work::get);
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException("ledger lane failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            throw new IllegalStateException("interrupted while waiting for ledger lane", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.eagle.banking.service.ledger;
+
+import com.eagle.banking.model.Transaction;
+
+public record PostingOutcome(Transaction transaction, RuntimeException error) {
+
+    public static PostingOutcome posted(Transaction transaction) {
+        return new PostingOutcome(transaction, null);
+    }
+
+    public static PostingOutcome rejected(RuntimeException error) {
+        return new PostingOutcome(null, error);
+    }
+
+    public boolean isPosted() {
+        return error == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.eagle.banking.service.ledger;
+
+import com.eagle.banking.model.Transaction;
+
+// the debit and credit legs written atomically by one transfer
+public record Transfer(String id, Transaction debit, Transaction credit) {
+}
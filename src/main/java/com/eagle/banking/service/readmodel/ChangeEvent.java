@@ -0,0 +1,27 @@
+package com.eagle.banking.service.readmodel;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A committed change on the write side, in the shape the read model stores. Events for one account reach the
+ * feed in the order their transactions committed.
+ */
+public sealed interface ChangeEvent {
+
+    record AccountOpened(AccountDto account) implements ChangeEvent {
+    }
+
+    record AccountRetyped(String accountId, String accountType) implements ChangeEvent {
+    }
+
+    record AccountClosed(String accountId) implements ChangeEvent {
+    }
+
+    // transactions of one account in posting order; balance is the account's balance after the last of them
+    record Posted(String accountId, BigDecimal balance, List<TransactionDto> transactions) implements ChangeEvent {
+    }
+}
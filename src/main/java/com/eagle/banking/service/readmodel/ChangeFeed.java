@@ -0,0 +1,177 @@
+package com.eagle.banking.service.readmodel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process feed of committed write-side changes to a single subscriber. An event published inside a
+ * transaction is held until that transaction commits and dropped if it rolls back. Every event gets the next
+ * position in the feed and is handed, in position order, to one background thread; {@link #applied()} is the
+ * position of the last event the subscriber has finished with, so a caller that read {@link #position()}
+ * after its write can wait for the subscriber to have seen it.
+ * <p>
+ * The queue is bounded: when the subscriber falls that far behind, publishing blocks rather than dropping
+ * events, which would leave the subscriber permanently wrong.
+ */
+public class ChangeFeed implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+    private static final int DRAIN_MAX = 1024;
+
+    private record Entry(long position, ChangeEvent event) {
+    }
+
+    private final boolean enabled;
+    private final BlockingQueue<Entry> queue;
+    // taken around numbering and enqueueing so that queue order is position order
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition progress = progressLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private volatile long position;
+    private volatile long applied;
+    private volatile Thread applier;
+
+    public ChangeFeed(int capacity) {
+        this(true, capacity);
+    }
+
+    private ChangeFeed(boolean enabled, int capacity) {
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    // publishes nothing and never starts a thread
+    public static ChangeFeed disabled() {
+        return new ChangeFeed(false, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void publish(ChangeEvent event) {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(ChangeEvent event) {
+        publishLock.lock();
+        try {
+            long next = position + 1;
+            queue.put(new Entry(next, event));
+            position = next;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted publishing to the change feed", e);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    // position of the last event published
+    public long position() {
+        return position;
+    }
+
+    // position of the last event the subscriber has applied
+    public long applied() {
+        return applied;
+    }
+
+    /**
+     * Starts delivering events to {@code subscriber} on the feed's thread, after {@code catchUp} has run there.
+     * Events published before this call are queued and delivered once it has started.
+     */
+    public synchronized void subscribe(Runnable catchUp, Consumer<ChangeEvent> subscriber) {
+        if (!enabled || applier != null) return;
+        applier = Thread.ofPlatform().name("change-feed").daemon(true).unstarted(() -> run(catchUp, subscriber));
+        applier.start();
+    }
+
+    // true once the subscriber has applied every event up to and including target, false on timeout
+    public boolean awaitApplied(long target, long timeoutMillis) {
+        if (applied >= target) return true;
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        progressLock.lock();
+        waiters.incrementAndGet();
+        try {
+            while (applied < target) {
+                if (remaining <= 0) return false;
+                remaining = progress.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.decrementAndGet();
+            progressLock.unlock();
+        }
+    }
+
+    private void run(Runnable catchUp, Consumer<ChangeEvent> subscriber) {
+        try {
+            catchUp.run();
+        } catch (RuntimeException e) {
+            log.error("change feed subscriber failed to catch up; no events will be applied", e);
+            return;
+        }
+        List<Entry> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, DRAIN_MAX - 1);
+                for (Entry entry : batch) {
+                    try {
+                        subscriber.accept(entry.event());
+                    } catch (RuntimeException e) {
+                        log.error("change feed subscriber failed on {}", entry.event(), e);
+                    }
+                }
+                applied = batch.get(batch.size() - 1).position();
+                batch.clear();
+                // applied is written before waiters is read, so a waiter that registered too late sees it
+                if (waiters.get() > 0) signalProgress();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void signalProgress() {
+        progressLock.lock();
+        try {
+            progress.signalAll();
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread current = applier;
+        if (current != null) current.interrupt();
+    }
+}
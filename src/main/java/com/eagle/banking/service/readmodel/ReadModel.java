@@ -0,0 +1,342 @@
+package com.eagle.banking.service.readmodel;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.repo.ChunkedLog;
+import com.eagle.banking.repo.TransactionCursor;
+import com.eagle.banking.repo.TransactionQuery;
+import com.eagle.banking.service.TransactionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Denormalized copy of accounts and their histories for the read endpoints, kept apart from the JPA entities
+ * the ledger writes. It is built once from the database on the change feed's thread and then follows the
+ * feed, which is its only writer; readers take no locks. Each account's history is appended in posting order,
+ * which is (createdAt, id) order, so a page starts from a binary search and the newest entries are at the
+ * tail; each account's rows are also indexed by id. Only the newest {@code historyWindow} rows of an account
+ * are certain to be held, up to twice that before the oldest are dropped; a page reaching back past the oldest
+ * row held, or a transaction no longer held, is read from the write side. A row that arrives out of order, as
+ * when the clock steps back between two postings, is still held, but that account's pages are from then on
+ * read from the write side too.
+ * <p>
+ * Reads here trail the database by however far the feed is behind. A client that sends back the consistency
+ * token from its write is served here only once the feed has applied that write, waiting up to
+ * {@code maxWaitMillis}; otherwise, and until the model is built, the caller reads the write side instead.
+ * A read without a token is served here as soon as the model is built, so it is eventually consistent: it may
+ * miss writes that have already returned. Clients that need to read their own writes send the token back.
+ */
+public class ReadModel implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModel.class);
+
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+
+    public static final int DEFAULT_HISTORY_WINDOW = 1000;
+
+    // the account's newest rows; complete when the write side holds nothing older
+    private record History(ChunkedLog<TransactionDto> rows, boolean complete) {
+    }
+
+    private static final class AccountView {
+        volatile AccountDto account;
+        // replaced, never shortened, when the oldest rows are dropped
+        volatile History history;
+        // cleared for good once a row arrives out of (createdAt, id) order; pages then go to the write side
+        volatile boolean ordered = true;
+        final Map<String, TransactionDto> byId = new ConcurrentHashMap<>();
+
+        AccountView(AccountDto account, boolean complete) {
+            this.account = account;
+            this.history = new History(new ChunkedLog<>(), complete);
+        }
+
+        // rows already present, which the startup load can overlap with queued events, are skipped by id
+        boolean append(TransactionDto tx) {
+            if (byId.containsKey(tx.id())) return false;
+            ChunkedLog<TransactionDto> rows = history.rows();
+            int n = rows.size();
+            if (ordered && n > 0 && compare(tx, rows.get(n - 1)) <= 0) ordered = false;
+            rows.append(tx);
+            byId.put(tx.id(), tx);
+            return true;
+        }
+    }
+
+    private final ChangeFeed feed;
+    private final AccountRepository accountRepository;
+    private final TransactionService transactionService;
+    private final long maxWaitMillis;
+    private final int historyWindow;
+    private final Map<String, AccountView> accounts = new ConcurrentHashMap<>();
+    // each user's account ids in opening order; lists are replaced, never changed, by the feed thread
+    private final Map<String, List<String>> accountIdsByUser = new ConcurrentHashMap<>();
+    private volatile boolean built;
+    // accounts whose history stopped arriving in order, e.g. after the clock stepped back between postings
+    private final AtomicLong unorderedAccounts = new AtomicLong();
+
+    public ReadModel(ChangeFeed feed, AccountRepository accountRepository, TransactionService transactionService,
+                     long maxWaitMillis) {
+        this(feed, accountRepository, transactionService, maxWaitMillis, DEFAULT_HISTORY_WINDOW);
+    }
+
+    public ReadModel(ChangeFeed feed, AccountRepository accountRepository, TransactionService transactionService,
+                     long maxWaitMillis, int historyWindow) {
+        this.feed = feed;
+        this.accountRepository = accountRepository;
+        this.transactionService = transactionService;
+        this.maxWaitMillis = maxWaitMillis;
+        this.historyWindow = Math.max(1, historyWindow);
+    }
+
+    // never built, so every read goes to the write side
+    public static ReadModel disabled() {
+        return new ReadModel(ChangeFeed.disabled(), null, null, 0);
+    }
+
+    public boolean isEnabled() {
+        return feed.isEnabled();
+    }
+
+    // loads the model and starts following the feed, both on the feed's thread
+    public void start() {
+        feed.subscribe(this::load, this::apply);
+    }
+
+    // the consistency token for writes that have returned so far
+    public String token() {
+        return Long.toString(feed.position());
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Whether reads may be served from here: the model is built and, when a token is given, has applied the
+     * write it was issued for.
+     */
+    public boolean canServe(String token) {
+        long position = token == null ? 0 : parse(token);
+        // events are applied only after the load, so waiting for one also waits for the model to be built
+        if (position > 0 && !feed.awaitApplied(position, maxWaitMillis)) return false;
+        return built;
+    }
+
+    private static long parse(String token) {
+        try {
+            long position = Long.parseLong(token);
+            if (position >= 0) return position;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new InvalidRequestException("invalid consistency token");
+    }
+
+    public List<AccountDto> accounts(String userId) {
+        List<String> ids = accountIdsByUser.getOrDefault(userId, List.of());
+        List<AccountDto> dtos = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            AccountView view = accounts.get(id);
+            if (view != null) dtos.add(view.account);
+        }
+        return dtos;
+    }
+
+    public Optional<AccountDto> account(String accountId) {
+        AccountView view = accounts.get(accountId);
+        return view == null ? Optional.empty() : Optional.of(view.account);
+    }
+
+    /**
+     * Same order, bounds and filters as TransactionService.listDtoPage. Empty when the page could include rows
+     * older than those held here.
+     */
+    public Optional<List<TransactionDto>> page(TransactionQuery query) {
+        AccountView view = accounts.get(query.accountId());
+        if (view == null) return Optional.of(List.of());
+        if (!view.ordered) return Optional.empty();
+        String accountType = view.account.accountType();
+        History history = view.history;
+        ChunkedLog<TransactionDto> log = history.rows();
+        int size = log.size();
+        if (!history.complete() && !startsInside(query, log.get(0))) return Optional.empty();
+        int start = 0;
+        TransactionCursor after = query.after();
+        if (after != null) start = firstAfter(log, size, after.createdAt(), after.id());
+        if (query.from() != null) start = Math.max(start, firstAtOrAfter(log, size, query.from()));
+
+        List<TransactionDto> page = new ArrayList<>(Math.max(0, Math.min(query.limit(), size - start)));
+        for (int i = start; i < size && page.size() < query.limit(); i++) {
+            TransactionDto tx = log.get(i);
+            if (query.to() != null && !tx.createdAt().isBefore(query.to())) break;
+            if (query.type() == null || query.type() == tx.type()) page.add(withType(tx, accountType));
+        }
+        return Optional.of(page);
+    }
+
+    // whether every row the query can return is at or after the oldest row held
+    private static boolean startsInside(TransactionQuery query, TransactionDto oldest) {
+        TransactionCursor after = query.after();
+        if (after != null) {
+            int cmp = after.createdAt().compareTo(oldest.createdAt());
+            if (cmp > 0 || (cmp == 0 && after.id().compareTo(oldest.id()) >= 0)) return true;
+        }
+        return query.from() != null && query.from().isAfter(oldest.createdAt());
+    }
+
+    public Optional<TransactionDto> transaction(String accountId, String txId) {
+        AccountView view = accounts.get(accountId);
+        TransactionDto tx = view == null ? null : view.byId.get(txId);
+        return tx == null ? Optional.empty() : Optional.of(withType(tx, view.account.accountType()));
+    }
+
+    void load() {
+        for (AccountDto account : accountRepository.findAllDtos()) {
+            // one row past the window tells whether older rows are left on the write side
+            List<TransactionDto> latest = transactionService.listLatestDtos(account.id(), historyWindow + 1);
+            boolean complete = latest.size() <= historyWindow;
+            AccountView view = new AccountView(account, complete);
+            for (int i = complete ? 0 : 1; i < latest.size(); i++) view.append(latest.get(i));
+            // the balance is read off the last row so that it always agrees with the history loaded
+            if (!latest.isEmpty()) view.account = withBalance(account, latest.get(latest.size() - 1).balanceAfter());
+            open(view);
+        }
+        built = true;
+    }
+
+    void apply(ChangeEvent event) {
+        switch (event) {
+            case ChangeEvent.AccountOpened opened -> open(new AccountView(opened.account(), true));
+            case ChangeEvent.AccountRetyped retyped -> {
+                AccountView view = accounts.get(retyped.accountId());
+                if (view != null) {
+                    AccountDto a = view.account;
+                    view.account = new AccountDto(a.id(), a.userId(), a.accountNumber(), retyped.accountType(), a.balance());
+                }
+            }
+            case ChangeEvent.AccountClosed closed -> {
+                AccountView view = accounts.remove(closed.accountId());
+                if (view != null) {
+                    accountIdsByUser.computeIfPresent(view.account.userId(), (user, ids) -> {
+                        List<String> rest = new ArrayList<>(ids);
+                        rest.remove(closed.accountId());
+                        return rest.isEmpty() ? null : List.copyOf(rest);
+                    });
+                }
+            }
+            case ChangeEvent.Posted posted -> {
+                AccountView view = accounts.get(posted.accountId());
+                if (view == null) return;
+                boolean appended = false;
+                boolean wasOrdered = view.ordered;
+                for (TransactionDto tx : posted.transactions()) appended |= view.append(tx);
+                if (wasOrdered && !view.ordered) {
+                    unorderedAccounts.incrementAndGet();
+                    log.warn("transaction out of order on account {}; its pages are now read from the database",
+                            posted.accountId());
+                }
+                if (appended) {
+                    view.account = withBalance(view.account, posted.balance());
+                    trim(view);
+                }
+            }
+        }
+    }
+
+    // copies the newest window rows once the view holds twice that, so each append pays for one copy
+    private void trim(AccountView view) {
+        ChunkedLog<TransactionDto> rows = view.history.rows();
+        int dropped = rows.size() - historyWindow;
+        if (dropped < historyWindow) return;
+        ChunkedLog<TransactionDto> kept = new ChunkedLog<>();
+        for (int i = dropped; i < rows.size(); i++) kept.append(rows.get(i));
+        view.history = new History(kept, false);
+        for (int i = 0; i < dropped; i++) view.byId.remove(rows.get(i).id());
+    }
+
+    private void open(AccountView view) {
+        AccountDto account = view.account;
+        if (accounts.putIfAbsent(account.id(), view) != null) return;
+        accountIdsByUser.compute(account.userId(), (user, ids) -> {
+            if (ids == null) return List.of(account.id());
+            List<String> more = new ArrayList<>(ids.size() + 1);
+            more.addAll(ids);
+            more.add(account.id());
+            return List.copyOf(more);
+        });
+    }
+
+    private static AccountDto withBalance(AccountDto a, BigDecimal balance) {
+        return new AccountDto(a.id(), a.userId(), a.accountNumber(), a.accountType(), balance);
+    }
+
+    // rows keep the account type they were posted under; an account retyped since gets them rebuilt on read
+    private static TransactionDto withType(TransactionDto tx, String accountType) {
+        if (Objects.equals(tx.accountType(), accountType)) return tx;
+        return new TransactionDto(tx.id(), accountType, tx.amount(), tx.type(), tx.createdAt(), tx.balanceAfter(),
+                tx.transferId());
+    }
+
+    private static int compare(TransactionDto a, TransactionDto b) {
+        int cmp = a.createdAt().compareTo(b.createdAt());
+        return cmp != 0 ? cmp : a.id().compareTo(b.id());
+    }
+
+    // index of the first entry ordered after (createdAt, id)
+    private static int firstAfter(ChunkedLog<TransactionDto> log, int size, Instant createdAt, String id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            TransactionDto tx = log.get(mid);
+            int cmp = tx.createdAt().compareTo(createdAt);
+            if (cmp < 0 || (cmp == 0 && tx.id().compareTo(id) <= 0)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int firstAtOrAfter(ChunkedLog<TransactionDto> log, int size, Instant createdAt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (log.get(mid).createdAt().isBefore(createdAt)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!isEnabled()) return;
+        Gauge.builder("read.model.lag", feed, f -> f.position() - f.applied())
+                .description("changes published but not yet applied to the read model")
+                .register(registry);
+        FunctionCounter.builder("read.model.unordered.accounts", unorderedAccounts, AtomicLong::get)
+                .description("accounts whose history pages are read from the database after a row arrived out of order")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        feed.close();
+    }
+}
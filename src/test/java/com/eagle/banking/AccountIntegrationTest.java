@@ -3,8 +3,14 @@ package com.eagle.banking;
 import com.eagle.banking.dto.AccountDto;
 import com.eagle.banking.dto.AuthRequest;
 import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.exception.ResourceNotFoundException;
 import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
 import com.eagle.banking.model.User;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.ledger.LedgerSequencer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +23,18 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -29,6 +46,15 @@ public class AccountIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerSequencer sequencer;
+
     private String baseUrl() {
         return "http://localhost:" + port + "/v1";
     }
@@ -82,9 +108,9 @@ public class AccountIntegrationTest {
 
         AccountDto created = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, entity, AccountDto.class).getBody();
 
-        ResponseEntity<AccountDto> getResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.getId(), HttpMethod.GET, new HttpEntity<>(headers), AccountDto.class);
+        ResponseEntity<AccountDto> getResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.id(), HttpMethod.GET, new HttpEntity<>(headers), AccountDto.class);
         assertThat(getResp.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(getResp.getBody().getId()).isEqualTo(created.getId());
+        assertThat(getResp.getBody().id()).isEqualTo(created.id());
     }
 
     @Test
@@ -102,12 +128,111 @@ public class AccountIntegrationTest {
 
         AccountDto created = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, entity, AccountDto.class).getBody();
 
-        created.setAccountType("current");
-        HttpEntity<AccountDto> updateEntity = new HttpEntity<>(created, headers);
+        AccountDto update = new AccountDto(created.id(), created.userId(), created.accountNumber(), "current",
+                created.balance());
+        HttpEntity<AccountDto> updateEntity = new HttpEntity<>(update, headers);
 
-        ResponseEntity<AccountDto> updateResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.getId(), HttpMethod.PATCH, updateEntity, AccountDto.class);
+        ResponseEntity<AccountDto> updateResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.id(), HttpMethod.PATCH, updateEntity, AccountDto.class);
         assertThat(updateResp.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(updateResp.getBody().getAccountType()).isEqualTo("current");
+        assertThat(updateResp.getBody().accountType()).isEqualTo("current");
+    }
+
+    @Test
+    @DirtiesContext
+    void patch_racing_postings_keeps_every_posting() throws Exception {
+        String token = setupUserAndAuthToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Account a = new Account();
+        a.setAccountType("savings");
+        String accountId = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers),
+                AccountDto.class).getBody().id();
+
+        // the worst interleaving, forced: the retype works from a row read before a posting landed
+        Account readBeforePosting = accountService.getById(accountId);
+        ledgerService.post(accountId, TransactionType.DEPOSIT, new BigDecimal("10"));
+        accountService.changeType(readBeforePosting, "current");
+        assertThat(accountService.getById(accountId).getBalance()).isEqualByComparingTo("10");
+
+        // and the same over HTTP, with retypes and postings in flight together
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<HttpStatusCode>> calls = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                Account retype = new Account();
+                retype.setAccountType(i % 2 == 0 ? "savings" : "current");
+                Transaction deposit = new Transaction();
+                deposit.setType(TransactionType.DEPOSIT);
+                deposit.setAmount(BigDecimal.ONE);
+                calls.add(pool.submit(() -> restTemplate.exchange(baseUrl() + "/accounts/" + accountId, HttpMethod.PATCH,
+                        new HttpEntity<>(retype, headers), AccountDto.class).getStatusCode()));
+                calls.add(pool.submit(() -> restTemplate.exchange(baseUrl() + "/accounts/" + accountId + "/transactions",
+                        HttpMethod.POST, new HttpEntity<>(deposit, headers), String.class).getStatusCode()));
+            }
+            for (Future<HttpStatusCode> call : calls) assertThat(call.get().is2xxSuccessful()).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+
+        AccountDto after = restTemplate.exchange(baseUrl() + "/accounts/" + accountId, HttpMethod.GET,
+                new HttpEntity<>(headers), AccountDto.class).getBody();
+        assertThat(after.balance()).isEqualByComparingTo("50");
+    }
+
+    @Test
+    @DirtiesContext
+    void delete_racing_a_posting_waits_for_it_and_later_postings_get_404() throws Exception {
+        String token = setupUserAndAuthToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Account a = new Account();
+        a.setAccountType("savings");
+        String accountId = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers),
+                AccountDto.class).getBody().id();
+
+        // stands in for a posting that has loaded the row and not yet written it back
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> posting = callers.submit(() -> sequencer.submit(accountId, () -> {
+                Account row = accountService.getById(accountId);
+                loaded.countDown();
+                await(release);
+                row.setBalance(row.getBalance().add(BigDecimal.ONE));
+                accountService.update(row);
+                return null;
+            }));
+            assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ResponseEntity<Void>> delete = callers.submit(() -> restTemplate.exchange(
+                    baseUrl() + "/accounts/" + accountId, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class));
+
+            assertThatThrownBy(() -> delete.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            release.countDown();
+            posting.get(5, TimeUnit.SECONDS);
+            assertThat(delete.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        } finally {
+            callers.shutdown();
+        }
+
+        Transaction deposit = new Transaction();
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(BigDecimal.ONE);
+        ResponseEntity<String> late = restTemplate.exchange(baseUrl() + "/accounts/" + accountId + "/transactions",
+                HttpMethod.POST, new HttpEntity<>(deposit, headers), String.class);
+        assertThat(late.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThatThrownBy(() -> ledgerService.post(accountId, TransactionType.DEPOSIT, BigDecimal.ONE))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Test
@@ -125,7 +250,7 @@ public class AccountIntegrationTest {
 
         AccountDto created = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, entity, AccountDto.class).getBody();
 
-        ResponseEntity<Void> deleteResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.getId(), HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        ResponseEntity<Void> deleteResp = restTemplate.exchange(baseUrl() + "/accounts/" + created.id(), HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
         assertThat(deleteResp.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
@@ -165,9 +290,7 @@ public class AccountIntegrationTest {
     }
 
     private String authFor(String username, String password) {
-        AuthRequest a = new AuthRequest();
-        a.setUsername(username);
-        a.setPassword(password);
-        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().getToken();
+        AuthRequest a = new AuthRequest(username, password);
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().token();
     }
 }
\ No newline at end of file
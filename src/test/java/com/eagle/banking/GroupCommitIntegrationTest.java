@@ -0,0 +1,173 @@
+package com.eagle.banking;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.UserService;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// concurrent postings committed in groups must leave the same balances and history as one commit each
+@SpringBootTest(properties = {
+        "app.ledger.group-commit.enabled=true",
+        "app.ledger.group-commit.max-size=16",
+        "app.ledger.group-commit.max-delay-micros=2000",
+        "app.ledger.lanes=2",
+        // its own database, so create-drop on this context cannot drop tables under the shared one
+        "spring.datasource.url=jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+public class GroupCommitIntegrationTest {
+
+    private static final int POSTS_PER_ACCOUNT = 60;
+
+    @Autowired private UserService userService;
+    @Autowired private AccountService accountService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private TransactionService transactionService;
+    @Autowired private LedgerSequencer sequencer;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrent_posts_keep_balances_and_history_consistent() throws Exception {
+        User owner = owner("grouped");
+        List<String> accountIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accountIds.add(account(owner));
+        }
+
+        // deposits of 1 and withdrawals of 2 in equal numbers: some withdrawals find the balance short
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < POSTS_PER_ACCOUNT; i++) {
+            for (String accountId : accountIds) {
+                boolean deposit = i % 2 == 0;
+                results.add(callers.submit(() -> {
+                    try {
+                        ledgerService.post(accountId, deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAW,
+                                deposit ? BigDecimal.ONE : new BigDecimal("2"));
+                        return true;
+                    } catch (InsufficientFundsException e) {
+                        return false;
+                    }
+                }));
+            }
+        }
+        int posted = 0;
+        for (Future<Boolean> result : results) {
+            try {
+                if (result.get()) posted++;
+            } catch (ExecutionException e) {
+                throw new AssertionError("posting failed", e.getCause());
+            }
+        }
+        callers.shutdown();
+
+        int recorded = 0;
+        for (String accountId : accountIds) {
+            List<Transaction> history = new ArrayList<>(transactionService.listForAccount(accountId));
+            history.sort(Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId));
+            BigDecimal running = BigDecimal.ZERO;
+            for (Transaction tx : history) {
+                running = tx.getType() == TransactionType.DEPOSIT ? running.add(tx.getAmount()) : running.subtract(tx.getAmount());
+                assertThat(running.signum()).isGreaterThanOrEqualTo(0);
+                assertThat(tx.getBalanceAfter()).isEqualByComparingTo(running);
+            }
+            assertThat(accountService.getById(accountId).getBalance()).isEqualByComparingTo(running);
+            recorded += history.size();
+        }
+        assertThat(recorded).isEqualTo(posted);
+    }
+
+    @Test
+    void reused_key_inside_a_group_fails_that_posting_alone() throws Exception {
+        String accountId = account(owner("grouped-keys"));
+        IdempotencyKey key = IdempotencyKey.of("k-1", TransactionType.DEPOSIT, BigDecimal.ONE);
+
+        // hold the lane so every posting below queues up and is taken as one group
+        CountDownLatch laneHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        callers.submit(() -> sequencer.submit(accountId, () -> {
+            laneHeld.countDown();
+            await(release);
+            return null;
+        }));
+        await(laneHeld);
+        double commitsBefore = meterRegistry.get("ledger.group.commits").functionCounter().count();
+        List<Future<Transaction>> keyed = new ArrayList<>();
+        List<Future<Transaction>> plain = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            keyed.add(callers.submit(() -> ledgerService.post(accountId, TransactionType.DEPOSIT, BigDecimal.ONE, key)));
+            plain.add(callers.submit(() -> ledgerService.post(accountId, TransactionType.DEPOSIT, BigDecimal.ONE)));
+        }
+        Thread.sleep(300);
+        release.countDown();
+
+        int duplicates = 0;
+        for (Future<Transaction> result : keyed) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(DuplicateIdempotencyKeyException.class);
+                duplicates++;
+            }
+        }
+        for (Future<Transaction> result : plain) result.get(10, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        assertThat(duplicates).isEqualTo(1);
+        // the rejected posting wrote nothing, so the group committed once rather than falling back to one each
+        assertThat(meterRegistry.get("ledger.group.commits").functionCounter().count()).isEqualTo(commitsBefore + 1);
+        assertThat(transactionService.listForAccount(accountId)).hasSize(3);
+        assertThat(accountService.getById(accountId).getBalance()).isEqualByComparingTo("3");
+    }
+
+    private User owner(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFullName("Grouped Poster");
+        user.setPassword("password");
+        return userService.create(user);
+    }
+
+    private String account(User owner) {
+        Account account = new Account();
+        account.setUser(owner);
+        account.setAccountType("checking");
+        return accountService.create(account).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) throw new AssertionError("timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.IdempotencyRecordRepository;
+import com.eagle.banking.service.idempotency.IdempotencyTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a table of one entry, so every replay here is answered from the idempotency_keys table
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.idempotency.max-entries=1",
+        "app.idempotency.stripes=1",
+        // its own database, so create-drop on this context cannot drop tables under the shared one
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+public class IdempotencyIntegrationTest {
+
+    @LocalServerPort int port;
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private IdempotencyTable table;
+    @Autowired private IdempotencyRecordRepository records;
+
+    private String baseUrl() { return "http://localhost:" + port + "/v1"; }
+
+    @BeforeEach
+    void setup() {
+        restTemplate.getRestTemplate().setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @Test
+    void replay_of_a_key_evicted_from_the_table_is_served_from_the_database() {
+        String token = token("evicted");
+        String url = baseUrl() + "/accounts/" + account(token).getId() + "/transactions";
+
+        ResponseEntity<TransactionDto> first = post(url, token, "k1", "200");
+        post(url, token, "k2", "50");
+        assertThat(table.size()).isEqualTo(1);
+        ResponseEntity<TransactionDto> replay = post(url, token, "k1", "200");
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(replay.getBody().id()).isEqualTo(first.getBody().id());
+        assertThat(replay.getBody().accountType()).isEqualTo("savings");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<TransactionDto[]> history = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(history.getBody()).hasSize(2);
+    }
+
+    @Test
+    void key_that_expired_before_the_sweep_is_taken_by_a_new_posting() {
+        String token = token("expired");
+        String accountId = account(token).getId();
+        String url = baseUrl() + "/accounts/" + accountId + "/transactions";
+        Instant old = Instant.now().minus(Duration.ofHours(25));
+        records.saveAndFlush(new IdempotencyRecord(null, accountId, "k1", "DEPOSIT:1", "gone", old));
+
+        ResponseEntity<TransactionDto> posted = post(url, token, "k1", "200");
+
+        assertThat(posted.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(posted.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(records.findByAccountIdAndIdempotencyKey(accountId, "k1").orElseThrow().getTransactionId())
+                .isEqualTo(posted.getBody().id());
+    }
+
+    private ResponseEntity<TransactionDto> post(String url, String token, String key, String amount) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(TransactionType.DEPOSIT);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", key);
+        return restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(t, headers), TransactionDto.class);
+    }
+
+    private String token(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setFullName("Test User");
+        u.setPassword("password");
+        restTemplate.postForEntity(baseUrl() + "/users", u, User.class);
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", new AuthRequest(username, "password"), AuthResponse.class)
+                .getBody().token();
+    }
+
+    private Account account(String token) {
+        Account a = new Account();
+        a.setAccountType("savings");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers), Account.class).getBody();
+    }
+}
@@ -0,0 +1,95 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.BalanceDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.service.impl.memory.InMemoryLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "memory"})
+public class MemoryProfileIntegrationTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private String baseUrl() {
+        return "http://localhost:" + port + "/v1";
+    }
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = this.restTemplate.getRestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @Test
+    void full_flow_without_database() {
+        assertThat(context.getBeansOfType(DataSource.class)).isEmpty();
+        assertThat(context.getBean(InMemoryLedgerService.class)).isNotNull();
+
+        User u = new User();
+        u.setUsername("memo");
+        u.setFullName("Mem O");
+        u.setPassword("p");
+        assertThat(restTemplate.postForEntity(baseUrl() + "/users", u, User.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        u.setUsername("MEMO");
+        assertThat(restTemplate.postForEntity(baseUrl() + "/users", u, String.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        AuthRequest auth = new AuthRequest("memo", "p");
+        String token = restTemplate.postForEntity(baseUrl() + "/auth/login", auth, AuthResponse.class).getBody().token();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Account a = new Account();
+        a.setAccountType("savings");
+        AccountDto account = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers), AccountDto.class).getBody();
+        String txUrl = baseUrl() + "/accounts/" + account.id() + "/transactions";
+
+        Transaction deposit = new Transaction();
+        deposit.setAmount(new BigDecimal("120.50"));
+        deposit.setType(TransactionType.DEPOSIT);
+        ResponseEntity<TransactionDto> posted = restTemplate.exchange(txUrl, HttpMethod.POST, new HttpEntity<>(deposit, headers), TransactionDto.class);
+        assertThat(posted.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        Transaction withdrawal = new Transaction();
+        withdrawal.setAmount(new BigDecimal("500"));
+        withdrawal.setType(TransactionType.WITHDRAW);
+        ResponseEntity<String> rejected = restTemplate.exchange(txUrl, HttpMethod.POST, new HttpEntity<>(withdrawal, headers), String.class);
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        ResponseEntity<TransactionDto[]> list = restTemplate.exchange(txUrl, HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(list.getBody()).extracting(TransactionDto::id).containsExactly(posted.getBody().id());
+
+        ResponseEntity<BalanceDto> balance = restTemplate.exchange(baseUrl() + "/accounts/" + account.id() + "/balance", HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(balance.getBody().balance()).isEqualByComparingTo("120.50");
+    }
+}
@@ -0,0 +1,106 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// test contexts export no metrics unless asked; the separate database keeps this context's create-drop off the shared one
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1")
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class MetricsIntegrationTest {
+
+    @LocalServerPort int port;
+    @LocalManagementPort int managementPort;
+    @Autowired private TestRestTemplate restTemplate;
+
+    private String baseUrl() { return "http://localhost:" + port; }
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = this.restTemplate.getRestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @Test
+    void prometheus_scrape_exposes_hot_path_timers_without_a_token_on_the_management_port() {
+        String token = signUp("metrics-user");
+        Account account = restTemplate.exchange(baseUrl() + "/v1/accounts", HttpMethod.POST,
+                new HttpEntity<>(savings(), headers(token)), Account.class).getBody();
+        assertThat(post(token, account.getId(), TransactionType.DEPOSIT, "10").getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(post(token, account.getId(), TransactionType.WITHDRAW, "50").getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/v1/accounts/{accountId}/transactions\"")
+                .contains("ledger_post_seconds_count{outcome=\"posted\",type=\"DEPOSIT\"}")
+                .contains("ledger_post_seconds_count{outcome=\"insufficient_funds\",type=\"WITHDRAW\"}")
+                .contains("jwt_verify_seconds_count{outcome=\"valid\"}")
+                .contains("auth_bcrypt_seconds_count")
+                .contains("spring_data_repository_invocations_seconds_count{");
+    }
+
+    @Test
+    void public_port_serves_no_metrics() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity(baseUrl() + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isIn(HttpStatus.UNAUTHORIZED, HttpStatus.FORBIDDEN, HttpStatus.NOT_FOUND);
+
+        ResponseEntity<String> health = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/health", String.class);
+        assertThat(health.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<TransactionDto> post(String token, String accountId, TransactionType type, String amount) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        return restTemplate.exchange(baseUrl() + "/v1/accounts/" + accountId + "/transactions", HttpMethod.POST,
+                new HttpEntity<>(t, headers(token)), TransactionDto.class);
+    }
+
+    private Account savings() {
+        Account a = new Account();
+        a.setAccountType("savings");
+        return a;
+    }
+
+    private String signUp(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setFullName(username + " Example");
+        u.setPassword("password");
+        restTemplate.postForEntity(baseUrl() + "/v1/users", u, User.class);
+        AuthRequest a = new AuthRequest(username, "password");
+        return restTemplate.postForEntity(baseUrl() + "/v1/auth/login", a, AuthResponse.class).getBody().token();
+    }
+
+    private HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
@@ -0,0 +1,136 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// list endpoints must cost the same number of statements however many rows they return
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                // its own database, so create-drop on this context cannot drop tables under the shared one
+                "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles("test")
+public class QueryCountIntegrationTest {
+
+    @LocalServerPort int port;
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private String baseUrl() { return "http://localhost:" + port + "/v1"; }
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = this.restTemplate.getRestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @Test
+    @DirtiesContext
+    void list_endpoints_issue_one_select_regardless_of_size() {
+        User user = createUser("counter");
+        String token = login("counter");
+        Account account = createAccount(token);
+        createAccount(token);
+        createAccount(token);
+        TransactionDto first = deposit(token, account.getId(), new BigDecimal("10"));
+        for (int i = 0; i < 4; i++) deposit(token, account.getId(), BigDecimal.ONE);
+
+        long statements = statementsFor(() -> {
+            AccountDto[] accounts = get(token, "/accounts", AccountDto[].class);
+            assertThat(accounts).hasSize(3).allSatisfy(a -> assertThat(a.userId()).isEqualTo(user.getId()));
+        });
+        assertThat(statements).isEqualTo(1);
+
+        statements = statementsFor(() -> {
+            TransactionDto[] page = get(token, "/accounts/" + account.getId() + "/transactions", TransactionDto[].class);
+            assertThat(page).hasSize(5).allSatisfy(t -> assertThat(t.accountType()).isEqualTo("savings"));
+        });
+        assertThat(statements).isEqualTo(1);
+
+        statements = statementsFor(() -> {
+            TransactionDto tx = get(token, "/accounts/" + account.getId() + "/transactions/" + first.id(), TransactionDto.class);
+            assertThat(tx.accountType()).isEqualTo("savings");
+        });
+        assertThat(statements).isEqualTo(1);
+
+        // one read of the user, one existence check for accounts
+        statements = statementsFor(() -> {
+            ResponseEntity<String> response = restTemplate.exchange(baseUrl() + "/users/" + user.getId(), HttpMethod.DELETE,
+                    new HttpEntity<>(headers(token)), String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        });
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private long statementsFor(Runnable request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private <T> T get(String token, String path, Class<T> type) {
+        ResponseEntity<T> response = restTemplate.exchange(baseUrl() + path, HttpMethod.GET, new HttpEntity<>(headers(token)), type);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private User createUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setFullName(username + " Example");
+        u.setPassword("password");
+        return restTemplate.postForEntity(baseUrl() + "/users", u, User.class).getBody();
+    }
+
+    private String login(String username) {
+        AuthRequest a = new AuthRequest(username, "password");
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().token();
+    }
+
+    private Account createAccount(String token) {
+        Account a = new Account();
+        a.setAccountType("savings");
+        return restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers(token)), Account.class).getBody();
+    }
+
+    private TransactionDto deposit(String token, String accountId, BigDecimal amount) {
+        Transaction t = new Transaction();
+        t.setAmount(amount);
+        t.setType(TransactionType.DEPOSIT);
+        return restTemplate.exchange(baseUrl() + "/accounts/" + accountId + "/transactions", HttpMethod.POST,
+                new HttpEntity<>(t, headers(token)), TransactionDto.class).getBody();
+    }
+
+    private HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
@@ -0,0 +1,150 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.TransactionQuery;
+import com.eagle.banking.service.readmodel.ReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static com.eagle.banking.testutil.TestUtil.bearerHeaders;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// reads carrying the token from a write must see that write, served from the read model rather than the tables
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.read-model.enabled=true",
+        // its own database, so create-drop on this context cannot drop tables under the shared one
+        "spring.datasource.url=jdbc:h2:mem:readmodel;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+public class ReadModelIntegrationTest {
+
+    @LocalServerPort int port;
+    @Autowired private TestRestTemplate restTemplate;
+    @Autowired private ReadModel readModel;
+
+    private String baseUrl() { return "http://localhost:" + port + "/v1"; }
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        RestTemplate restTemplate = this.restTemplate.getRestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+        // the model is loaded in the background after startup; until then reads fall back to the database
+        for (int i = 0; i < 500 && !readModel.isBuilt(); i++) Thread.sleep(10);
+        assertThat(readModel.isBuilt()).isTrue();
+    }
+
+    @Test
+    void reads_with_the_write_token_see_the_write() throws InterruptedException {
+        String jwt = login("reader");
+        HttpHeaders headers = bearerHeaders(restTemplate, jwt);
+
+        Account a = new Account();
+        a.setAccountType("savings");
+        ResponseEntity<AccountDto> created = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST,
+                new HttpEntity<>(a, headers), AccountDto.class);
+        assertThat(created.getHeaders().getFirst(ReadModel.TOKEN_HEADER)).isNotNull();
+        String accountId = created.getBody().id();
+        String txUrl = baseUrl() + "/accounts/" + accountId + "/transactions";
+
+        post(txUrl, headers, TransactionType.DEPOSIT, "100");
+        ResponseEntity<TransactionDto> withdrawal = post(txUrl, headers, TransactionType.WITHDRAW, "30");
+        String token = withdrawal.getHeaders().getFirst(ReadModel.TOKEN_HEADER);
+        assertThat(token).isNotNull();
+
+        // a client that sends no token reads the model as soon as it is built, and sees the write once applied
+        BigDecimal untokened = null;
+        for (int i = 0; i < 500; i++) {
+            untokened = restTemplate.exchange(baseUrl() + "/accounts/" + accountId, HttpMethod.GET,
+                    new HttpEntity<>(headers), AccountDto.class).getBody().balance();
+            if (untokened.compareTo(new BigDecimal("70")) == 0) break;
+            Thread.sleep(10);
+        }
+        assertThat(untokened).isEqualByComparingTo("70");
+
+        HttpHeaders consistent = bearerHeaders(restTemplate, jwt);
+        consistent.set(ReadModel.TOKEN_HEADER, token);
+        ResponseEntity<AccountDto[]> accounts = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.GET,
+                new HttpEntity<>(consistent), AccountDto[].class);
+        assertThat(accounts.getBody()).hasSize(1);
+        assertThat(accounts.getBody()[0].balance()).isEqualByComparingTo("70");
+
+        ResponseEntity<TransactionDto[]> history = restTemplate.exchange(txUrl, HttpMethod.GET,
+                new HttpEntity<>(consistent), TransactionDto[].class);
+        assertThat(history.getBody()).hasSize(2);
+        assertThat(history.getBody()[0].balanceAfter()).isEqualByComparingTo("100");
+        assertThat(history.getBody()[1].balanceAfter()).isEqualByComparingTo("70");
+        // the same rows the model holds, so the response did come from it
+        assertThat(readModel.page(new TransactionQuery(accountId, null, null, null, null, 10)).orElseThrow())
+                .containsExactly(history.getBody());
+
+        ResponseEntity<TransactionDto> one = restTemplate.exchange(txUrl + "/" + withdrawal.getBody().id(),
+                HttpMethod.GET, new HttpEntity<>(consistent), TransactionDto.class);
+        assertThat(one.getBody()).isEqualTo(withdrawal.getBody());
+
+        // a retype shows on rows posted before it
+        Account update = new Account();
+        update.setAccountType("current");
+        ResponseEntity<AccountDto> patched = restTemplate.exchange(baseUrl() + "/accounts/" + accountId,
+                HttpMethod.PATCH, new HttpEntity<>(update, headers), AccountDto.class);
+        consistent.set(ReadModel.TOKEN_HEADER, patched.getHeaders().getFirst(ReadModel.TOKEN_HEADER));
+        history = restTemplate.exchange(txUrl, HttpMethod.GET, new HttpEntity<>(consistent), TransactionDto[].class);
+        assertThat(history.getBody()).extracting(TransactionDto::accountType).containsOnly("current");
+
+        // accounts with history cannot be deleted, so open and close a second one
+        String spareId = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers),
+                AccountDto.class).getBody().id();
+        ResponseEntity<Void> deleted = restTemplate.exchange(baseUrl() + "/accounts/" + spareId, HttpMethod.DELETE,
+                new HttpEntity<>(headers), Void.class);
+        assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        consistent.set(ReadModel.TOKEN_HEADER, deleted.getHeaders().getFirst(ReadModel.TOKEN_HEADER));
+        accounts = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.GET, new HttpEntity<>(consistent),
+                AccountDto[].class);
+        assertThat(accounts.getBody()).extracting(AccountDto::id).containsExactly(accountId);
+    }
+
+    @Test
+    void malformed_token_is_rejected() {
+        HttpHeaders headers = bearerHeaders(restTemplate, login("badtoken"));
+        headers.set(ReadModel.TOKEN_HEADER, "not-a-position");
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<TransactionDto> post(String url, HttpHeaders headers, TransactionType type, String amount) {
+        Transaction t = new Transaction();
+        t.setType(type);
+        t.setAmount(new BigDecimal(amount));
+        ResponseEntity<TransactionDto> response = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(t, headers),
+                TransactionDto.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response;
+    }
+
+    private String login(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setFullName("Read Model");
+        u.setPassword("p");
+        restTemplate.postForEntity(baseUrl() + "/users", u, User.class);
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", new AuthRequest(username, "p"), AuthResponse.class)
+                .getBody().token();
+    }
+}
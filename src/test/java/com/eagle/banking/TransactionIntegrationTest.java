@@ -1,7 +1,11 @@
 package com.eagle.banking;
 
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.AccountSummaryDto;
 import com.eagle.banking.dto.AuthRequest;
 import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.BalanceDto;
+import com.eagle.banking.dto.BatchItemResult;
 import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.model.Account;
 import com.eagle.banking.model.Transaction;
@@ -20,6 +24,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -39,8 +46,8 @@ public class TransactionIntegrationTest {
     }
 
     private String authFor(String username, String password) {
-        AuthRequest a = new AuthRequest(); a.setUsername(username); a.setPassword(password);
-        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().getToken();
+        AuthRequest a = new AuthRequest(username, password);
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().token();
     }
 
     @Test
@@ -61,7 +68,36 @@ public class TransactionIntegrationTest {
         ResponseEntity<TransactionDto> response = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId() + "/transactions", HttpMethod.POST, entity, TransactionDto.class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getAmount()).isEqualByComparingTo(new BigDecimal("200"));
+        assertThat(response.getBody().amount()).isEqualByComparingTo(new BigDecimal("200"));
+    }
+
+    @Test
+    @DirtiesContext
+    void create_transaction_with_idempotency_key_posts_once() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/transactions";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", "retry-1");
+        HttpEntity<Transaction> entity = new HttpEntity<>(transaction(new BigDecimal("200"), TransactionType.DEPOSIT), headers);
+
+        ResponseEntity<TransactionDto> first = restTemplate.exchange(url, HttpMethod.POST, entity, TransactionDto.class);
+        ResponseEntity<TransactionDto> retry = restTemplate.exchange(url, HttpMethod.POST, entity, TransactionDto.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getBody().id()).isEqualTo(first.getBody().id());
+
+        HttpEntity<Transaction> reused = new HttpEntity<>(transaction(new BigDecimal("300"), TransactionType.DEPOSIT), headers);
+        ResponseEntity<String> conflict = restTemplate.exchange(url, HttpMethod.POST, reused, String.class);
+        assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        ResponseEntity<TransactionDto[]> history = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(history.getBody()).hasSize(1);
     }
 
     @Test
@@ -74,9 +110,9 @@ public class TransactionIntegrationTest {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(token);
 
-        ResponseEntity<TransactionDto> response = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId() + "/transactions/" + createdTransaction.getId(), HttpMethod.GET, new HttpEntity<>(headers), TransactionDto.class);
+        ResponseEntity<TransactionDto> response = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId() + "/transactions/" + createdTransaction.id(), HttpMethod.GET, new HttpEntity<>(headers), TransactionDto.class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody().getId()).isEqualTo(createdTransaction.getId());
+        assertThat(response.getBody().id()).isEqualTo(createdTransaction.id());
     }
 
     @Test
@@ -95,6 +131,157 @@ public class TransactionIntegrationTest {
         assertThat(response.getBody()).hasSize(2);
     }
 
+    @Test
+    @DirtiesContext
+    void create_transaction_batch() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<Transaction> items = List.of(
+                transaction(new BigDecimal("100"), TransactionType.DEPOSIT),
+                transaction(new BigDecimal("500"), TransactionType.WITHDRAW),
+                transaction(new BigDecimal("40"), TransactionType.WITHDRAW),
+                transaction(BigDecimal.ZERO, TransactionType.DEPOSIT));
+
+        ResponseEntity<BatchItemResult[]> response = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId() + "/transactions/batch", HttpMethod.POST, new HttpEntity<>(items, headers), BatchItemResult[].class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchItemResult::status).containsExactly(201, 422, 201, 400);
+        assertThat(response.getBody()[0].transaction().id()).isNotNull();
+
+        AccountDto after = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId(), HttpMethod.GET, new HttpEntity<>(headers), AccountDto.class).getBody();
+        assertThat(after.balance()).isEqualByComparingTo(new BigDecimal("60"));
+
+        ResponseEntity<TransactionDto[]> list = restTemplate.exchange(baseUrl() + "/accounts/" + account.getId() + "/transactions", HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(list.getBody()).hasSize(2);
+    }
+
+    @Test
+    @DirtiesContext
+    void list_transactions_paginated() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+        TransactionDto first = createTransaction(token, account.getId(), new BigDecimal("100"), TransactionType.DEPOSIT);
+        TransactionDto second = createTransaction(token, account.getId(), new BigDecimal("50"), TransactionType.WITHDRAW);
+        TransactionDto third = createTransaction(token, account.getId(), new BigDecimal("20"), TransactionType.DEPOSIT);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/transactions";
+
+        ResponseEntity<TransactionDto[]> page1 = restTemplate.exchange(url + "?limit=2", HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(page1.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(page1.getBody()).extracting(TransactionDto::id).containsExactly(first.id(), second.id());
+        String cursor = page1.getHeaders().getFirst("X-Next-Cursor");
+        assertThat(cursor).isNotNull();
+
+        ResponseEntity<TransactionDto[]> page2 = restTemplate.exchange(url + "?limit=2&cursor=" + cursor, HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(page2.getBody()).extracting(TransactionDto::id).containsExactly(third.id());
+        assertThat(page2.getHeaders().getFirst("X-Next-Cursor")).isNull();
+
+        ResponseEntity<TransactionDto[]> withdrawals = restTemplate.exchange(url + "?type=WITHDRAW", HttpMethod.GET, new HttpEntity<>(headers), TransactionDto[].class);
+        assertThat(withdrawals.getBody()).extracting(TransactionDto::id).containsExactly(second.id());
+
+        ResponseEntity<String> tooLarge = restTemplate.exchange(url + "?limit=10000", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(tooLarge.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DirtiesContext
+    void export_transactions() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+        TransactionDto first = createTransaction(token, account.getId(), new BigDecimal("100"), TransactionType.DEPOSIT);
+        createTransaction(token, account.getId(), new BigDecimal("50"), TransactionType.WITHDRAW);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/transactions/export";
+
+        ResponseEntity<String> ndjson = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(ndjson.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ndjson.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        String[] lines = ndjson.getBody().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":\"" + first.id() + "\"").contains("\"type\":\"DEPOSIT\"");
+
+        ResponseEntity<String> csv = restTemplate.exchange(url + "?format=csv", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(csv.getBody().split("\n")).hasSize(3);
+        assertThat(csv.getBody()).startsWith("id,accountType,amount,type,createdAt,balanceAfter,transferId\n");
+    }
+
+    @Test
+    @DirtiesContext
+    void balance_at_point_in_time() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+        TransactionDto first = createTransaction(token, account.getId(), new BigDecimal("100"), TransactionType.DEPOSIT);
+        TransactionDto second = createTransaction(token, account.getId(), new BigDecimal("30"), TransactionType.WITHDRAW);
+        assertThat(second.balanceAfter()).isEqualByComparingTo("70");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/balance";
+
+        ResponseEntity<BalanceDto> current = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(current.getBody().balance()).isEqualByComparingTo("70");
+
+        ResponseEntity<BalanceDto> atFirst = restTemplate.exchange(url + "?at=" + first.createdAt(), HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(atFirst.getBody().balance()).isEqualByComparingTo("100");
+
+        ResponseEntity<BalanceDto> beforeAny = restTemplate.exchange(url + "?at=" + first.createdAt().minusSeconds(60), HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(beforeAny.getBody().balance()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DirtiesContext
+    void balance_before_first_posting_is_the_opening_balance() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token, new BigDecimal("250"));
+        TransactionDto first = createTransaction(token, account.getId(), new BigDecimal("100"), TransactionType.DEPOSIT);
+        assertThat(first.balanceAfter()).isEqualByComparingTo("350");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/balance";
+
+        ResponseEntity<BalanceDto> beforeDeposit = restTemplate.exchange(url + "?at=" + first.createdAt().minusNanos(1000), HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(beforeDeposit.getBody().balance()).isEqualByComparingTo("250");
+
+        ResponseEntity<BalanceDto> beforeOpening = restTemplate.exchange(url + "?at=" + first.createdAt().minusSeconds(60), HttpMethod.GET, new HttpEntity<>(headers), BalanceDto.class);
+        assertThat(beforeOpening.getBody().balance()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DirtiesContext
+    void account_summary_from_rollups() {
+        String token = setupUserAndAuthToken();
+        Account account = createAccount(token);
+        createTransaction(token, account.getId(), new BigDecimal("100"), TransactionType.DEPOSIT);
+        createTransaction(token, account.getId(), new BigDecimal("40"), TransactionType.DEPOSIT);
+        createTransaction(token, account.getId(), new BigDecimal("25"), TransactionType.WITHDRAW);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        String url = baseUrl() + "/accounts/" + account.getId() + "/summary?from=" + today.minusDays(40) + "&to=" + today.plusDays(1);
+
+        ResponseEntity<AccountSummaryDto[]> monthly = restTemplate.exchange(url + "&granularity=month", HttpMethod.GET, new HttpEntity<>(headers), AccountSummaryDto[].class);
+        assertThat(monthly.getStatusCode()).isEqualTo(HttpStatus.OK);
+        AccountSummaryDto[] months = monthly.getBody();
+        AccountSummaryDto current = months[months.length - 1];
+        assertThat(current.depositTotal()).isEqualByComparingTo("140");
+        assertThat(current.withdrawTotal()).isEqualByComparingTo("25");
+        assertThat(current.transactionCount()).isEqualTo(3);
+        assertThat(current.minAmount()).isEqualByComparingTo("25");
+        assertThat(current.closingBalance()).isEqualByComparingTo("115");
+
+        ResponseEntity<String> badGranularity = restTemplate.exchange(url + "&granularity=year", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(badGranularity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     @DirtiesContext
     void create_transaction_with_invalid_data() {
@@ -132,8 +319,13 @@ public class TransactionIntegrationTest {
     }
 
     private Account createAccount(String token) {
+        return createAccount(token, BigDecimal.ZERO);
+    }
+
+    private Account createAccount(String token, BigDecimal openingBalance) {
         Account a = new Account();
         a.setAccountType("savings");
+        a.setBalance(openingBalance);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(token);
@@ -143,6 +335,13 @@ public class TransactionIntegrationTest {
         return restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, entity, Account.class).getBody();
     }
 
+    private Transaction transaction(BigDecimal amount, TransactionType type) {
+        Transaction t = new Transaction();
+        t.setAmount(amount);
+        t.setType(type);
+        return t;
+    }
+
     private TransactionDto createTransaction(String token, String accountId, BigDecimal amount, TransactionType type) {
         Transaction t = new Transaction();
         t.setAmount(amount);
@@ -0,0 +1,121 @@
+package com.eagle.banking;
+
+import com.eagle.banking.dto.AuthRequest;
+import com.eagle.banking.dto.AuthResponse;
+import com.eagle.banking.dto.BalanceDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.dto.TransferDto;
+import com.eagle.banking.dto.TransferRequest;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class TransferIntegrationTest {
+
+    @LocalServerPort int port;
+    @Autowired private TestRestTemplate restTemplate;
+
+    private String baseUrl() { return "http://localhost:" + port + "/v1"; }
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = this.restTemplate.getRestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @Test
+    @DirtiesContext
+    void transfer_moves_money_between_accounts() {
+        String sender = signUp("sender");
+        String recipient = signUp("recipient");
+        Account from = createAccount(sender);
+        Account to = createAccount(recipient);
+        deposit(sender, from.getId(), new BigDecimal("100"));
+
+        ResponseEntity<TransferDto> response = transfer(sender, from.getId(), to.getId(), new BigDecimal("40"), TransferDto.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().transaction().type()).isEqualTo(TransactionType.TRANSFER_OUT);
+        assertThat(response.getBody().transaction().balanceAfter()).isEqualByComparingTo("60");
+        assertThat(response.getBody().transaction().transferId()).isEqualTo(response.getBody().id());
+
+        assertThat(balance(sender, from.getId())).isEqualByComparingTo("60");
+        assertThat(balance(recipient, to.getId())).isEqualByComparingTo("40");
+        TransactionDto[] credits = restTemplate.exchange(baseUrl() + "/accounts/" + to.getId() + "/transactions", HttpMethod.GET,
+                new HttpEntity<>(headers(recipient)), TransactionDto[].class).getBody();
+        assertThat(credits).hasSize(1);
+        assertThat(credits[0].type()).isEqualTo(TransactionType.TRANSFER_IN);
+        assertThat(credits[0].transferId()).isEqualTo(response.getBody().id());
+    }
+
+    @Test
+    @DirtiesContext
+    void transfer_is_refused_for_foreign_source_or_insufficient_funds() {
+        String sender = signUp("sender");
+        String recipient = signUp("recipient");
+        Account from = createAccount(sender);
+        Account to = createAccount(recipient);
+
+        assertThat(transfer(recipient, from.getId(), to.getId(), BigDecimal.ONE, String.class).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(transfer(sender, from.getId(), to.getId(), BigDecimal.ONE, String.class).getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(transfer(sender, from.getId(), from.getId(), BigDecimal.ONE, String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(balance(recipient, to.getId())).isEqualByComparingTo("0");
+    }
+
+    private <T> ResponseEntity<T> transfer(String token, String fromId, String toId, BigDecimal amount, Class<T> type) {
+        HttpEntity<TransferRequest> entity = new HttpEntity<>(new TransferRequest(fromId, toId, amount), headers(token));
+        return restTemplate.exchange(baseUrl() + "/transfers", HttpMethod.POST, entity, type);
+    }
+
+    private BigDecimal balance(String token, String accountId) {
+        return restTemplate.exchange(baseUrl() + "/accounts/" + accountId + "/balance", HttpMethod.GET,
+                new HttpEntity<>(headers(token)), BalanceDto.class).getBody().balance();
+    }
+
+    private String signUp(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setFullName(username + " Example");
+        u.setPassword("password");
+        restTemplate.postForEntity(baseUrl() + "/users", u, User.class);
+        AuthRequest a = new AuthRequest(username, "password");
+        return restTemplate.postForEntity(baseUrl() + "/auth/login", a, AuthResponse.class).getBody().token();
+    }
+
+    private Account createAccount(String token) {
+        Account a = new Account();
+        a.setAccountType("savings");
+        return restTemplate.exchange(baseUrl() + "/accounts", HttpMethod.POST, new HttpEntity<>(a, headers(token)), Account.class).getBody();
+    }
+
+    private void deposit(String token, String accountId, BigDecimal amount) {
+        Transaction t = new Transaction();
+        t.setAmount(amount);
+        t.setType(TransactionType.DEPOSIT);
+        restTemplate.exchange(baseUrl() + "/accounts/" + accountId + "/transactions", HttpMethod.POST, new HttpEntity<>(t, headers(token)), TransactionDto.class);
+    }
+
+    private HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
@@ -49,6 +49,20 @@ public class UserIntegrationTest {
         assertThat(resp.getBody().getUsername()).isEqualTo("alice");
     }
 
+    @Test
+    void createUser_duplicateUsernameIgnoringCase_conflict() {
+        User u = new User();
+        u.setUsername("dora");
+        u.setFullName("Dora D");
+        u.setPassword("pass");
+        assertThat(restTemplate.postForEntity(baseUrl() + "/users", u, User.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+
+        u.setUsername("DoRa");
+        ResponseEntity<String> resp = restTemplate.postForEntity(baseUrl() + "/users", u, String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void createUser_missingField_badRequest() {
         User u = new User();
@@ -71,12 +85,10 @@ public class UserIntegrationTest {
         String userId = createResp.getBody().getId();
 
         // login
-        AuthRequest auth = new AuthRequest();
-        auth.setUsername("charlie");
-        auth.setPassword("pwd");
+        AuthRequest auth = new AuthRequest("charlie", "pwd");
         ResponseEntity<AuthResponse> tokenResp = restTemplate.postForEntity(baseUrl() + "/auth/login", auth, AuthResponse.class);
         assertThat(tokenResp.getStatusCode()).isEqualTo(HttpStatus.OK);
-        String token = tokenResp.getBody().getToken();
+        String token = tokenResp.getBody().token();
 
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(token);
@@ -104,10 +116,8 @@ public class UserIntegrationTest {
         User cu2 = restTemplate.postForEntity(baseUrl() + "/users", u2, User.class).getBody();
 
         // login as user1
-        AuthRequest auth = new AuthRequest();
-        auth.setUsername("d1");
-        auth.setPassword("p");
-        String token = restTemplate.postForEntity(baseUrl() + "/auth/login", auth, AuthResponse.class).getBody().getToken();
+        AuthRequest auth = new AuthRequest("d1", "p");
+        String token = restTemplate.postForEntity(baseUrl() + "/auth/login", auth, AuthResponse.class).getBody().token();
 
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(token);
@@ -116,4 +126,21 @@ public class UserIntegrationTest {
         ResponseEntity<String> resp = restTemplate.exchange(baseUrl() + "/users/" + cu2.getId(), HttpMethod.GET, entity, String.class);
         assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
+
+    @Test
+    void login_wrongPassword_or_unknownUser_unauthorized() {
+        User u = new User();
+        u.setUsername("erin");
+        u.setFullName("Erin E");
+        u.setPassword("right");
+        restTemplate.postForEntity(baseUrl() + "/users", u, User.class);
+
+        AuthRequest wrongPassword = new AuthRequest("erin", "wrong");
+        ResponseEntity<String> resp = restTemplate.postForEntity(baseUrl() + "/auth/login", wrongPassword, String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        AuthRequest unknownUser = new AuthRequest("nobody", "right");
+        resp = restTemplate.postForEntity(baseUrl() + "/auth/login", unknownUser, String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
 }
@@ -0,0 +1,105 @@
+package com.eagle.banking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline. Each benchmark and parameter combination is
+ * matched by name; a result is a regression when it is worse than the baseline by more than the threshold
+ * and by more than the two runs' error margins combined. Benchmarks present in only one file are skipped.
+ *
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec@compare [-Dbenchmark.baseline=...] [-Dbenchmark.threshold=10]</pre>
+ *
+ * Exits with status 1 when anything regressed.
+ */
+public final class BenchmarkComparison {
+
+    public record Result(String name, String mode, String unit, double baseline, double baselineError,
+                         double current, double currentError) {
+
+        // throughput scores go up when things get faster; time per operation goes down
+        public boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        // positive when slower than the baseline, as a fraction of it
+        public double slowdown() {
+            if (baseline == 0) return 0;
+            double change = (current - baseline) / baseline;
+            return higherIsBetter() ? -change : change;
+        }
+
+        public boolean regressed(double thresholdPercent) {
+            double margin = finite(baselineError) + finite(currentError);
+            return slowdown() * 100 > thresholdPercent && Math.abs(current - baseline) > margin;
+        }
+
+        private static double finite(double error) {
+            return Double.isFinite(error) ? error : 0;
+        }
+    }
+
+    private BenchmarkComparison() {
+    }
+
+    public static List<Result> compare(JsonNode baseline, JsonNode current) {
+        Map<String, JsonNode> before = index(baseline);
+        List<Result> results = new ArrayList<>();
+        index(current).forEach((name, now) -> {
+            JsonNode then = before.get(name);
+            if (then == null || !then.path("mode").asText().equals(now.path("mode").asText())) return;
+            JsonNode thenMetric = then.path("primaryMetric");
+            JsonNode nowMetric = now.path("primaryMetric");
+            if (!thenMetric.path("scoreUnit").asText().equals(nowMetric.path("scoreUnit").asText())) return;
+            results.add(new Result(name, now.path("mode").asText(), nowMetric.path("scoreUnit").asText(),
+                    thenMetric.path("score").asDouble(), thenMetric.path("scoreError").asDouble(Double.NaN),
+                    nowMetric.path("score").asDouble(), nowMetric.path("scoreError").asDouble(Double.NaN)));
+        });
+        return results;
+    }
+
+    // "Class.method" plus sorted parameters, e.g. "JwtAuthFilterBenchmark.filter{cacheSize=0}"
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String benchmark = result.path("benchmark").asText();
+            int method = benchmark.lastIndexOf('.');
+            int type = benchmark.lastIndexOf('.', method - 1);
+            StringBuilder name = new StringBuilder(benchmark.substring(type + 1));
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            if (!params.isEmpty()) name.append(params);
+            byName.put(name.toString().replace(", ", ","), result);
+        }
+        return byName;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        ObjectMapper mapper = new ObjectMapper();
+        List<Result> results = compare(mapper.readTree(new File(args[0])), mapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        for (Result r : results) {
+            boolean regressed = r.regressed(threshold);
+            if (regressed) regressions++;
+            System.out.printf(Locale.ROOT, "%-70s %14.3f -> %14.3f %-8s %+7.1f%% slower%s%n", r.name(), r.baseline(),
+                    r.current(), r.unit(), r.slowdown() * 100, regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf(Locale.ROOT, "%d compared, %d regressed beyond %.1f%%%n", results.size(), regressions, threshold);
+        if (regressions > 0) System.exit(1);
+    }
+}
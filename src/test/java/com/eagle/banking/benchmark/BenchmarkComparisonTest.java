@@ -0,0 +1,63 @@
+package com.eagle.banking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkComparisonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void compare_ShouldMatchByBenchmarkAndParams() throws Exception {
+        JsonNode baseline = results(
+                result("JwtAuthFilterBenchmark.filter", "avgt", "{\"cacheSize\":\"0\"}", 1000, 10, "ns/op"),
+                result("JwtAuthFilterBenchmark.filter", "avgt", "{\"cacheSize\":\"10000\"}", 100, 1, "ns/op"),
+                result("LedgerSequencerBenchmark.post", "thrpt", "{}", 500, 5, "ops/ms"));
+        JsonNode current = results(
+                result("JwtAuthFilterBenchmark.filter", "avgt", "{\"cacheSize\":\"10000\"}", 150, 1, "ns/op"),
+                result("JwtAuthFilterBenchmark.filter", "avgt", "{\"cacheSize\":\"0\"}", 1020, 10, "ns/op"),
+                result("LedgerSequencerBenchmark.post", "thrpt", "{}", 400, 5, "ops/ms"),
+                result("JwtUtilBenchmark.parseToken", "avgt", "{}", 900, 9, "ns/op"));
+
+        List<BenchmarkComparison.Result> results = BenchmarkComparison.compare(baseline, current);
+
+        assertEquals(3, results.size());
+        BenchmarkComparison.Result cached = find(results, "JwtAuthFilterBenchmark.filter{cacheSize=10000}");
+        assertEquals(0.5, cached.slowdown(), 1e-9);
+        assertTrue(cached.regressed(10));
+        assertFalse(find(results, "JwtAuthFilterBenchmark.filter{cacheSize=0}").regressed(10));
+        // lower throughput is the regression for thrpt scores
+        BenchmarkComparison.Result ledger = find(results, "LedgerSequencerBenchmark.post");
+        assertEquals(0.2, ledger.slowdown(), 1e-9);
+        assertTrue(ledger.regressed(10));
+    }
+
+    @Test
+    void regressed_ShouldIgnoreChangesWithinTheErrorMargins() throws Exception {
+        JsonNode baseline = results(result("DtoSerializationBenchmark.accountToJson", "avgt", "{}", 100, 30, "ns/op"));
+        JsonNode current = results(result("DtoSerializationBenchmark.accountToJson", "avgt", "{}", 140, 30, "ns/op"));
+
+        BenchmarkComparison.Result result = BenchmarkComparison.compare(baseline, current).get(0);
+
+        assertEquals(0.4, result.slowdown(), 1e-9);
+        assertFalse(result.regressed(10));
+    }
+
+    private JsonNode results(String... entries) throws Exception {
+        return mapper.readTree("[" + String.join(",", entries) + "]");
+    }
+
+    private static String result(String name, String mode, String params, double score, double error, String unit) {
+        return "{\"benchmark\":\"com.eagle.banking.benchmark." + name + "\",\"mode\":\"" + mode + "\",\"params\":" + params
+                + ",\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":" + error + ",\"scoreUnit\":\"" + unit + "\"}}";
+    }
+
+    private static BenchmarkComparison.Result find(List<BenchmarkComparison.Result> results, String name) {
+        return results.stream().filter(r -> r.name().equals(name)).findFirst().orElseThrow();
+    }
+}
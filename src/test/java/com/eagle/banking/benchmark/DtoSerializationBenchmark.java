@@ -0,0 +1,78 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.config.DtoJsonModule;
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping entities to response DTOs and writing them with a mapper configured like Spring Boot's (including
+ * {@link DtoJsonModule}), for a single account and for a default-sized page of transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper mapper;
+    private Account account;
+    private List<Transaction> page;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new DtoJsonModule()).build();
+        User user = new User();
+        user.setId("0190c2a4-7e1b-7000-8000-000000000001");
+        account = new Account("0190c2a4-7e1b-7000-8000-000000000002", user, "ACCT-00000001007", "savings",
+                new BigDecimal("1234.56"), BigDecimal.ZERO, Instant.parse("2024-06-01T09:00:00Z"));
+        page = new ArrayList<>(PAGE_SIZE);
+        Instant start = Instant.parse("2024-07-01T09:00:00Z");
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            BigDecimal amount = new BigDecimal("12.50");
+            balance = balance.add(amount);
+            page.add(new Transaction("0190c2a4-7e1b-7000-8000-" + String.format("%012d", i), account, amount,
+                    TransactionType.DEPOSIT, start.plusSeconds(i), balance, null));
+        }
+    }
+
+    @Benchmark
+    public AccountDto accountFromEntity() {
+        return AccountDto.fromEntity(account);
+    }
+
+    @Benchmark
+    public byte[] accountToJson() throws Exception {
+        return mapper.writeValueAsBytes(AccountDto.fromEntity(account));
+    }
+
+    @Benchmark
+    public TransactionDto transactionFromEntity() {
+        return TransactionDto.fromEntity(page.get(0));
+    }
+
+    @Benchmark
+    public byte[] transactionPageToJson() throws Exception {
+        return mapper.writeValueAsBytes(page.stream().map(TransactionDto::fromEntity).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.exception.BankingException;
+import com.eagle.banking.exception.ErrorResponseWriter;
+import com.eagle.banking.exception.ForbiddenException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throwing a 403 from {@code depth} frames down and turning it into a response body. "legacy" is the old
+ * path: a RuntimeException with its stack captured, then a map with a LocalDateTime written by Jackson.
+ * "stackless" is the current one: a BankingException and the prebuilt ErrorResponseWriter. Run with
+ * {@code -prof gc} to compare allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    static class LegacyForbiddenException extends RuntimeException {
+        LegacyForbiddenException(String message) {
+            super(message);
+        }
+    }
+
+    // roughly how deep a controller call sits below the servlet container
+    @Param({"16", "128"})
+    public int depth;
+
+    private ObjectMapper mapper;
+    private ErrorResponseWriter writer;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        writer = new ErrorResponseWriter();
+    }
+
+    @Benchmark
+    public byte[] legacy() throws Exception {
+        try {
+            throwFrom(depth, () -> new LegacyForbiddenException("forbidden"));
+            return null;
+        } catch (LegacyForbiddenException ex) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", HttpStatus.FORBIDDEN.value());
+            body.put("error", HttpStatus.FORBIDDEN.getReasonPhrase());
+            body.put("message", ex.getMessage());
+            return mapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] stackless() {
+        try {
+            throwFrom(depth, () -> new ForbiddenException("forbidden"));
+            return null;
+        } catch (BankingException ex) {
+            return writer.write(ex.getStatus(), ex.getMessage());
+        }
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void throwFrom(int depth, Supplier<RuntimeException> error) {
+        if (depth == 0) throw error.get();
+        throwFrom(depth - 1, error);
+    }
+}
@@ -0,0 +1,112 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.BankingApplication;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single deposits from 32 callers through the JPA ledger, against a file-backed H2 database so that a commit
+ * costs a write. {@code maxDelayMicros} of -1 turns group commit off; 0 groups only postings that queued while
+ * the lane was busy; larger values trade that much added latency for bigger groups. Throughput is postings per
+ * millisecond and the sampled mode gives the latency percentiles; commits per second and postings per commit
+ * are printed at the end of each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class GroupCommitBenchmark {
+
+    private static final int ACCOUNTS = 256;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"-1", "0", "500"})
+    public long maxDelayMicros;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledger;
+    private MeterRegistry registry;
+    private String[] accountIds;
+    private long iterationStart;
+    private double commitsAtStart;
+    private double postingsAtStart;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                // arguments rather than default properties, which application.yaml would override
+                .run("--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:file:./target/group-commit-bench",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--app.ledger.group-commit.enabled=" + (maxDelayMicros >= 0),
+                        "--app.ledger.group-commit.max-delay-micros=" + Math.max(0, maxDelayMicros));
+        ledger = context.getBean(LedgerService.class);
+        registry = context.getBean(MeterRegistry.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setFullName("Bench User");
+        user.setPassword("bench");
+        User owner = context.getBean(UserService.class).create(user);
+        AccountService accountService = context.getBean(AccountService.class);
+        accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(owner);
+            account.setAccountType("checking");
+            accountIds[i] = accountService.create(account).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        iterationStart = System.nanoTime();
+        commitsAtStart = count("ledger.group.commits");
+        postingsAtStart = count("ledger.group.postings");
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIteration() {
+        if (maxDelayMicros < 0) return;
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        double commits = count("ledger.group.commits") - commitsAtStart;
+        double postings = count("ledger.group.postings") - postingsAtStart;
+        System.out.printf(Locale.ROOT, "  %.0f commits/s, %.1f postings per commit%n", commits / seconds,
+                commits == 0 ? 0 : postings / commits);
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return ledger.post(accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)], TransactionType.DEPOSIT, AMOUNT);
+    }
+
+    private double count(String name) {
+        FunctionCounter counter = registry.find(name).functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.helper.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a file-backed H2 table shaped like transactions, keyed by random UUIDs (what the
+ * entities used before) or by {@link UuidV7}. The table is preloaded so the primary key index is already
+ * deep when measurement starts; each operation commits one JDBC batch of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    private static final int BATCH = 500;
+
+    @Param({"random", "v7"})
+    public String ids;
+
+    @Param({"200000"})
+    public int preload;
+
+    private Path dir;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("id-insert-bench");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("bench") + ";CACHE_SIZE=16384", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement st = connection.createStatement()) {
+            st.execute("create table transactions (id varchar(36) primary key, account_id varchar(36) not null, "
+                    + "amount numeric(38, 2) not null, created_at timestamp not null)");
+            st.execute("create index idx_transactions_account_created_id on transactions (account_id, created_at, id)");
+        }
+        insert = connection.prepareStatement("insert into transactions values (?, ?, ?, ?)");
+        for (int i = 0; i < preload; i += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, "v7".equals(ids) ? UuidV7.nextString() : UUID.randomUUID().toString());
+            insert.setString(2, "acct-" + (i & 63));
+            insert.setBigDecimal(3, BigDecimal.TEN);
+            insert.setTimestamp(4, now);
+            insert.addBatch();
+        }
+        int rows = insert.executeBatch().length;
+        connection.commit();
+        return rows;
+    }
+}
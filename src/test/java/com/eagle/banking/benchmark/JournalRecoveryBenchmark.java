@@ -0,0 +1,95 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.helper.AccountNumbers;
+import com.eagle.banking.helper.UuidV7;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.FsyncPolicy;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.impl.memory.InMemoryAccountSummaryService;
+import com.eagle.banking.service.impl.memory.InMemoryIdService;
+import com.eagle.banking.service.impl.memory.JournalRecovery;
+import com.eagle.banking.service.impl.memory.StoreSnapshots;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Time to come back from a journal of {@code entries} postings spread over {@code accounts} accounts.
+ * {@code scan} only reads and decodes the segments; {@code recover} rebuilds balances, history and rollups in
+ * a fresh store, as a restart of the memory profile does. The 100M case needs about 7 GB of disk for the
+ * journal and a heap large enough to hold every transaction (-jvmArgs -Xmx48g):
+ * {@code -p entries=100000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int entries;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private Path dir;
+    private Journal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal-recovery-bench");
+        try (Journal writer = new Journal(dir, 64 * 1024 * 1024, FsyncPolicy.INTERVAL, 1000, 0)) {
+            String[] ids = new String[accounts];
+            long[] balances = new long[accounts];
+            Instant start = Instant.now().truncatedTo(ChronoUnit.MICROS).minus(365, ChronoUnit.DAYS);
+            for (int i = 0; i < accounts; i++) {
+                ids[i] = UuidV7.nextString();
+                writer.append(new JournalRecord.AccountSaved(ids[i], "bench-user", AccountNumbers.format(i + 1L),
+                        "savings", 0, start));
+            }
+            for (int i = 0; i < entries; i++) {
+                int a = i % accounts;
+                balances[a] += 100;
+                writer.append(new JournalRecord.Posted(UuidV7.nextString(), ids[a], TransactionType.DEPOSIT, 100,
+                        balances[a], start.plus(i, ChronoUnit.MICROS)));
+            }
+        }
+        journal = new Journal(dir, 64 * 1024 * 1024, FsyncPolicy.INTERVAL, 1000, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long scan() {
+        LongAdder count = new LongAdder();
+        journal.replay(record -> count.increment());
+        return count.sum();
+    }
+
+    @Benchmark
+    public InMemoryStore recover() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryIdService idService = new InMemoryIdService();
+        new JournalRecovery(journal, store, new InMemoryAccountSummaryService(store, 1830), idService,
+                new StoreSnapshots(false, "", 0, store, journal, idService)).afterSingletonsInstantiated();
+        return store;
+    }
+}
@@ -0,0 +1,55 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.security.JwtAuthFilter;
+import com.eagle.banking.security.JwtUtil;
+import com.eagle.banking.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JwtAuthFilter for a client reusing one token, with the verified-token cache
+ * enabled (cacheSize > 0) and disabled (0, full HMAC check and claims parse every time).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "change-this-secret-to-a-long-random-value");
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "eagle-bank");
+        ReflectionTestUtils.setField(jwtUtil, "expirationSeconds", 3600L);
+        jwtUtil.init();
+
+        filter = new JwtAuthFilter(jwtUtil, new VerifiedTokenCache(cacheSize), new SimpleMeterRegistry());
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("user-1"));
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,44 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing a token at login and the full HMAC verification plus claims parse that an uncached request pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "change-this-secret-to-a-long-random-value");
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "eagle-bank");
+        ReflectionTestUtils.setField(jwtUtil, "expirationSeconds", 3600L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("user-1");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("user-1");
+    }
+
+    @Benchmark
+    public Jws<Claims> parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+}
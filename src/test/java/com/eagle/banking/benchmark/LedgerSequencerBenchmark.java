@@ -0,0 +1,54 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting throughput across many accounts as the lane count grows. With enough caller threads the score
+ * should rise roughly linearly until lanes reach the core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class LedgerSequencerBenchmark {
+
+    private static final int ACCOUNTS = 4096;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int lanes;
+
+    private LedgerSequencer sequencer;
+    private String[] accountIds;
+    private long[] balances;
+
+    @Setup
+    public void setUp() {
+        sequencer = new LedgerSequencer(lanes);
+        accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) accountIds[i] = "acct-" + i;
+        balances = new long[ACCOUNTS];
+    }
+
+    @TearDown
+    public void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Benchmark
+    public long post() {
+        int i = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        return sequencer.submit(accountIds[i], () -> {
+            // stand-in for the balance check and entity work done per post
+            Blackhole.consumeCPU(2_000);
+            return balances[i] += 1;
+        });
+    }
+}
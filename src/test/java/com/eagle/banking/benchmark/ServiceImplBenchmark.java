@@ -0,0 +1,107 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.BankingApplication;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.TransactionQuery;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same service calls against the JPA/H2 implementations and the "memory" profile, each in its own
+ * Spring context without the web tier. Accounts are preloaded with history so reads have something to page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceImplBenchmark {
+
+    private static final int ACCOUNTS = 256;
+    private static final int HISTORY = 200;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"jpa", "memory"})
+    public String impl;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private TransactionService transactionService;
+    private AccountService accountService;
+    private String[] accountIds;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("memory".equals(impl)) builder.profiles("memory");
+        // arguments rather than default properties, which application.yaml would override
+        context = builder.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        ledgerService = context.getBean(LedgerService.class);
+        transactionService = context.getBean(TransactionService.class);
+        accountService = context.getBean(AccountService.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setFullName("Bench User");
+        user.setPassword("bench");
+        User owner = context.getBean(UserService.class).create(user);
+        accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(owner);
+            account.setAccountType("checking");
+            accountIds[i] = accountService.create(account).getId();
+            for (int j = 0; j < HISTORY; j += 50) {
+                ledgerService.postBatch(accountIds[i], deposits(50));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction post() {
+        return ledgerService.post(randomAccount(), TransactionType.DEPOSIT, AMOUNT);
+    }
+
+    @Benchmark
+    public List<Transaction> firstPage() {
+        return transactionService.listPage(new TransactionQuery(randomAccount(), null, null, null, null, 51));
+    }
+
+    @Benchmark
+    public Account getAccount() {
+        return accountService.getById(randomAccount());
+    }
+
+    private String randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+
+    private static List<Transaction> deposits(int count) {
+        Transaction tx = new Transaction();
+        tx.setAmount(AMOUNT);
+        tx.setType(TransactionType.DEPOSIT);
+        return Collections.nCopies(count, tx);
+    }
+}
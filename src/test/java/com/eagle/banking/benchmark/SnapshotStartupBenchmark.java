@@ -0,0 +1,109 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.helper.AccountNumbers;
+import com.eagle.banking.helper.UuidV7;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.FsyncPolicy;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.repo.journal.JournalRecord;
+import com.eagle.banking.service.impl.memory.InMemoryAccountSummaryService;
+import com.eagle.banking.service.impl.memory.InMemoryIdService;
+import com.eagle.banking.service.impl.memory.JournalRecovery;
+import com.eagle.banking.service.impl.memory.StoreSnapshots;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time until the memory profile is ready to serve, for a bank of {@code accounts} accounts with
+ * {@code postingsPerAccount} postings each: replaying the whole journal, or loading a snapshot and replaying
+ * the journal after it. The 10M-account case needs a large heap: {@code -p accounts=10000000 -jvmArgs -Xmx32g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SnapshotStartupBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @Param({"100000", "1000000"})
+    public int accounts;
+
+    @Param({"2"})
+    public int postingsPerAccount;
+
+    private Path root;
+    private Journal journalOnly;
+    private Journal withSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("snapshot-startup-bench");
+        writeJournal(root.resolve("journal-only"));
+        writeJournal(root.resolve("with-snapshot").resolve("journal"));
+        journalOnly = new Journal(root.resolve("journal-only"), SEGMENT_SIZE, FsyncPolicy.INTERVAL, 1000, 0);
+        withSnapshot = new Journal(root.resolve("with-snapshot").resolve("journal"), SEGMENT_SIZE,
+                FsyncPolicy.INTERVAL, 1000, 0);
+        // one recovery through the journal, then a snapshot of it; the snapshot drops the journal it covers
+        recover(withSnapshot, true).snapshots.write();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journalOnly.close();
+        withSnapshot.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public InMemoryStore journalReplay() {
+        return recover(journalOnly, false).store;
+    }
+
+    @Benchmark
+    public InMemoryStore snapshotLoad() {
+        return recover(withSnapshot, true).store;
+    }
+
+    private record Recovered(InMemoryStore store, StoreSnapshots snapshots) {
+    }
+
+    private Recovered recover(Journal journal, boolean snapshots) {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryIdService idService = new InMemoryIdService();
+        StoreSnapshots snapshotter = new StoreSnapshots(snapshots, root.resolve("with-snapshot").resolve("snapshot")
+                .toString(), 0, store, journal, idService);
+        new JournalRecovery(journal, store, new InMemoryAccountSummaryService(store, 1830), idService, snapshotter)
+                .afterSingletonsInstantiated();
+        return new Recovered(store, snapshotter);
+    }
+
+    private void writeJournal(Path dir) {
+        try (Journal writer = new Journal(dir, SEGMENT_SIZE, FsyncPolicy.INTERVAL, 1000, 0)) {
+            writer.append(new JournalRecord.UserSaved("bench-user", "bench", "Bench User", "$2a$10$hash"));
+            Instant start = Instant.now().truncatedTo(ChronoUnit.MICROS).minus(30, ChronoUnit.DAYS);
+            for (int i = 0; i < accounts; i++) {
+                String id = UuidV7.nextString();
+                writer.append(new JournalRecord.AccountSaved(id, "bench-user", AccountNumbers.format(i + 1L),
+                        "savings", 0, start));
+                for (int p = 1; p <= postingsPerAccount; p++) {
+                    writer.append(new JournalRecord.Posted(UuidV7.nextString(), id, TransactionType.DEPOSIT, 100,
+                            100L * p, start.plus((long) i * postingsPerAccount + p, ChronoUnit.MICROS)));
+                }
+            }
+        }
+    }
+}
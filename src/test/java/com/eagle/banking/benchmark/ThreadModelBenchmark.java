@@ -0,0 +1,75 @@
+package com.eagle.banking.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains 10k concurrent tasks that each sleep for a simulated JDBC wait, so it compares the executors alone:
+ * "platform" is a 200-thread pool (Tomcat's default), "platform-10k" gives every task its own platform thread,
+ * "virtual" is spring.threads.virtual.enabled. Run with -prof gc to compare allocation; the peakThreads aux
+ * counter shows how many OS threads (and stacks) each mode needs. A sleep never pins, so this says nothing about
+ * the real driver; {@code com.eagle.banking.load.ThreadModelComparison} runs the endpoints under both models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xss1m")
+public class ThreadModelBenchmark {
+
+    private static final int CONNECTIONS = 10_000;
+    private static final long JDBC_WAIT_MILLIS = 5;
+
+    @Param({"platform", "platform-10k", "virtual"})
+    public String mode;
+
+    private ExecutorService executor;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PeakThreads {
+        public long peakThreads;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        executor = switch (mode) {
+            case "platform" -> Executors.newFixedThreadPool(200);
+            case "platform-10k" -> Executors.newFixedThreadPool(CONNECTIONS);
+            case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public void drainConnections(PeakThreads threads) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            executor.execute(() -> {
+                Blackhole.consumeCPU(500); // parse request, map DTO
+                try {
+                    Thread.sleep(JDBC_WAIT_MILLIS); // stand-in for the H2/JDBC round trip
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        threads.peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+    }
+}
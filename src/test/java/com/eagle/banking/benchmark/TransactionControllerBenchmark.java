@@ -0,0 +1,97 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.BankingApplication;
+import com.eagle.banking.controller.TransactionController;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionController.create called directly, so the score covers the ownership check, validation, the
+ * ledger post and the DTO mapping but not HTTP or JSON. Runs against the JPA/H2 services and the "memory"
+ * profile, with and without an Idempotency-Key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionControllerBenchmark {
+
+    private static final int ACCOUNTS = 256;
+
+    @Param({"jpa", "memory"})
+    public String impl;
+
+    private ConfigurableApplicationContext context;
+    private TransactionController controller;
+    private Authentication auth;
+    private Transaction request;
+    private String[] accountIds;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("memory".equals(impl)) builder.profiles("memory");
+        // arguments rather than default properties, which application.yaml would override
+        context = builder.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        controller = context.getBean(TransactionController.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setFullName("Bench User");
+        user.setPassword("bench");
+        User owner = context.getBean(UserService.class).create(user);
+        auth = new UsernamePasswordAuthenticationToken(owner.getId(), null, List.of());
+        AccountService accountService = context.getBean(AccountService.class);
+        accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(owner);
+            account.setAccountType("checking");
+            accountIds[i] = accountService.create(account).getId();
+        }
+
+        request = new Transaction();
+        request.setAmount(new BigDecimal("1.00"));
+        request.setType(TransactionType.DEPOSIT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<TransactionDto> create() {
+        return controller.create(randomAccount(), request, null, auth);
+    }
+
+    @Benchmark
+    public ResponseEntity<TransactionDto> createWithIdempotencyKey() {
+        return controller.create(randomAccount(), request, UUID.randomUUID().toString(), auth);
+    }
+
+    private String randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+}
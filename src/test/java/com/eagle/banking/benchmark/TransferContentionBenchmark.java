@@ -0,0 +1,89 @@
+package com.eagle.banking.benchmark;
+
+import com.eagle.banking.BankingApplication;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.LedgerService;
+import com.eagle.banking.service.UserService;
+import com.eagle.banking.service.ledger.Transfer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads transferring in both directions across a small set of hot accounts. Every pair is taken in
+ * lane order, so the run must neither deadlock nor lose money; tear-down checks the total is unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class TransferContentionBenchmark {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"jpa", "memory"})
+    public String impl;
+
+    @Param({"2", "8", "64"})
+    public int hotAccounts;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private AccountService accountService;
+    private String[] accountIds;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("memory".equals(impl)) builder.profiles("memory");
+        // arguments rather than default properties, which application.yaml would override
+        context = builder.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        ledgerService = context.getBean(LedgerService.class);
+        accountService = context.getBean(AccountService.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setFullName("Bench User");
+        user.setPassword("bench");
+        User owner = context.getBean(UserService.class).create(user);
+        accountIds = new String[hotAccounts];
+        for (int i = 0; i < hotAccounts; i++) {
+            Account account = new Account();
+            account.setUser(owner);
+            account.setAccountType("checking");
+            accountIds[i] = accountService.create(account).getId();
+            ledgerService.post(accountIds[i], TransactionType.DEPOSIT, OPENING);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (String id : accountIds) total = total.add(accountService.getById(id).getBalance());
+        context.close();
+        if (total.compareTo(OPENING.multiply(BigDecimal.valueOf(hotAccounts))) != 0) {
+            throw new IllegalStateException("transfers changed the total balance to " + total);
+        }
+    }
+
+    @Benchmark
+    public Transfer transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(hotAccounts);
+        int to = (from + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+        return ledgerService.transfer(accountIds[from], accountIds[to], AMOUNT);
+    }
+}
@@ -0,0 +1,49 @@
+package com.eagle.banking.config;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DtoJsonModuleTest {
+
+    // configured like Spring Boot's, with and without the module
+    private final ObjectMapper plain = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ObjectMapper withModule = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new DtoJsonModule()).build();
+
+    @Test
+    void accountDto_ShouldSerializeLikeTheDefaultRecordSerializer() throws Exception {
+        AccountDto dto = new AccountDto("a1", "u1", "ACCT-00000001007", "savings", new BigDecimal("1234.50"));
+
+        assertEquals(plain.writeValueAsString(dto), withModule.writeValueAsString(dto));
+    }
+
+    @Test
+    void transactionDto_ShouldSerializeLikeTheDefaultRecordSerializer() throws Exception {
+        TransactionDto deposit = new TransactionDto("t1", "savings", new BigDecimal("12.50"), TransactionType.DEPOSIT,
+                Instant.parse("2024-07-01T09:00:00.123456Z"), new BigDecimal("112.50"), null);
+        TransactionDto transfer = new TransactionDto("t2", "checking", BigDecimal.ONE, TransactionType.TRANSFER_OUT,
+                Instant.parse("2024-07-01T09:00:00Z"), BigDecimal.ZERO, "tr\"1");
+
+        assertEquals(plain.writeValueAsString(deposit), withModule.writeValueAsString(deposit));
+        assertEquals(plain.writeValueAsString(transfer), withModule.writeValueAsString(transfer));
+    }
+
+    @Test
+    void transactionDto_ShouldWriteNullsForMissingFields() throws Exception {
+        TransactionDto empty = new TransactionDto(null, null, null, null, null, null, null);
+
+        assertEquals(plain.writeValueAsString(empty), withModule.writeValueAsString(empty));
+    }
+}
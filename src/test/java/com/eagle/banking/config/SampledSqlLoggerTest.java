@@ -0,0 +1,35 @@
+package com.eagle.banking.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledSqlLoggerTest {
+
+    @Test
+    void customize_ShouldRegisterAsStatementInspector() {
+        SampledSqlLogger logger = new SampledSqlLogger(0, 16);
+        Map<String, Object> properties = new HashMap<>();
+
+        logger.customize(properties);
+
+        assertSame(logger, properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+    }
+
+    @Test
+    void inspect_ShouldLeaveStatementsUnchanged() {
+        SampledSqlLogger off = new SampledSqlLogger(0, 16);
+        SampledSqlLogger all = new SampledSqlLogger(1, 16);
+        try {
+            assertEquals("select 1", off.inspect("select 1"));
+            assertEquals("select 1", all.inspect("select 1"));
+            assertEquals(0, off.droppedCount());
+        } finally {
+            all.shutdown();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.eagle.banking.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorResponseWriterTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T09:15:30.123Z").toEpochMilli();
+
+    private final ErrorResponseWriter writer = new ErrorResponseWriter(ZoneOffset.UTC);
+
+    @Test
+    void write_ShouldProduceTheHandlersJsonLayout() {
+        String body = new String(writer.write(HttpStatus.NOT_FOUND, "Account not found: a1", NOW), StandardCharsets.UTF_8);
+
+        assertEquals("{\"timestamp\":\"2026-03-01T09:15:30.123\",\"status\":404,\"error\":\"Not Found\","
+                + "\"message\":\"Account not found: a1\"}", body);
+    }
+
+    @Test
+    void write_ShouldMatchJackson_ForEscapesAndNonAscii() throws Exception {
+        // as Spring Boot configures it for the web layer
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        String message = "bad \"id\" \\ line\nbreak\t\u0001 café € 💸";
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("timestamp", LocalDateTime.ofInstant(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+        expected.put("status", 422);
+        expected.put("error", "Unprocessable Entity");
+        expected.put("message", message);
+
+        byte[] written = writer.write(HttpStatus.UNPROCESSABLE_ENTITY, message, NOW);
+
+        assertEquals(mapper.readTree(mapper.writeValueAsBytes(expected)), mapper.readTree(written));
+        assertEquals(message, mapper.readTree(written).get("message").asText());
+    }
+
+    @Test
+    void write_ShouldWriteNullMessageAndReplaceLoneSurrogates() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertTrue(mapper.readTree(writer.write(HttpStatus.FORBIDDEN, null, NOW)).get("message").isNull());
+        assertEquals("a?b", mapper.readTree(writer.write(HttpStatus.FORBIDDEN, "a\ud800b", NOW)).get("message").asText());
+    }
+
+    @Test
+    void bankingExceptions_ShouldCarryStatusWithoutStackTrace() {
+        BankingException ex = new ForbiddenException("forbidden");
+
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatus());
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(HttpStatus.CONFLICT, new DuplicateIdempotencyKeyException("dup").getStatus());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, new InsufficientFundsException("no").getStatus());
+    }
+}
@@ -0,0 +1,25 @@
+package com.eagle.banking.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumbersTest {
+
+    @Test
+    void format_ShouldPadAndAppendLuhnDigit() {
+        assertEquals("ACCT-00000000794", AccountNumbers.format(79));
+        assertTrue(AccountNumbers.isValid(AccountNumbers.format(1234567)));
+    }
+
+    @Test
+    void isValid_ShouldRejectSingleDigitTyposAndMalformedInput() {
+        String number = AccountNumbers.format(1234567);
+        String typo = number.substring(0, 8) + (char) ('0' + (number.charAt(8) - '0' + 1) % 10) + number.substring(9);
+
+        assertFalse(AccountNumbers.isValid(typo));
+        assertFalse(AccountNumbers.isValid("ACCT-12a4"));
+        assertFalse(AccountNumbers.isValid("1234567"));
+        assertFalse(AccountNumbers.isValid(null));
+    }
+}
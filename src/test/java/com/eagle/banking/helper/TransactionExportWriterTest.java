@@ -0,0 +1,64 @@
+package com.eagle.banking.helper;
+
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionExportWriterTest {
+
+    @Test
+    void ndjson_ShouldWriteOneObjectPerLine() throws IOException {
+        String out = export(TransactionExportWriter.Format.NDJSON, "savings");
+
+        assertEquals("{\"id\":\"t1\",\"accountType\":\"savings\",\"amount\":12.50,\"type\":\"DEPOSIT\",\"createdAt\":\"2024-05-01T10:00:00Z\",\"balanceAfter\":12.50,\"transferId\":null}\n"
+                + "{\"id\":\"t2\",\"accountType\":\"savings\",\"amount\":3,\"type\":\"WITHDRAW\",\"createdAt\":\"2024-05-01T11:00:00Z\",\"balanceAfter\":9.50,\"transferId\":null}\n"
+                + "{\"id\":\"t3\",\"accountType\":\"savings\",\"amount\":4,\"type\":\"TRANSFER_OUT\",\"createdAt\":\"2024-05-01T12:00:00Z\",\"balanceAfter\":5.50,\"transferId\":\"x1\"}\n", out);
+    }
+
+    @Test
+    void csv_ShouldWriteHeaderAndQuoteSpecialValues() throws IOException {
+        String out = export(TransactionExportWriter.Format.CSV, "joint, \"family\"");
+
+        assertEquals("id,accountType,amount,type,createdAt,balanceAfter,transferId\n"
+                + "t1,\"joint, \"\"family\"\"\",12.50,DEPOSIT,2024-05-01T10:00:00Z,12.50,\n"
+                + "t2,\"joint, \"\"family\"\"\",3,WITHDRAW,2024-05-01T11:00:00Z,9.50,\n"
+                + "t3,\"joint, \"\"family\"\"\",4,TRANSFER_OUT,2024-05-01T12:00:00Z,5.50,x1\n", out);
+    }
+
+    @Test
+    void format_ShouldRejectUnknownValue() {
+        assertEquals(TransactionExportWriter.Format.CSV, TransactionExportWriter.Format.from("csv"));
+        assertThrows(InvalidRequestException.class, () -> TransactionExportWriter.Format.from("xml"));
+    }
+
+    private String export(TransactionExportWriter.Format format, String accountType) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = new TransactionExportWriter(bytes, format, accountType)) {
+            writer.accept(tx("t1", "12.50", TransactionType.DEPOSIT, "2024-05-01T10:00:00Z", "12.50"));
+            writer.accept(tx("t2", "3", TransactionType.WITHDRAW, "2024-05-01T11:00:00Z", "9.50"));
+            Transaction leg = tx("t3", "4", TransactionType.TRANSFER_OUT, "2024-05-01T12:00:00Z", "5.50");
+            leg.setTransferId("x1");
+            writer.accept(leg);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private Transaction tx(String id, String amount, TransactionType type, String createdAt, String balanceAfter) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        t.setCreatedAt(Instant.parse(createdAt));
+        t.setBalanceAfter(new BigDecimal(balanceAfter));
+        return t;
+    }
+}
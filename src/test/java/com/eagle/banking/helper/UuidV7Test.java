@@ -0,0 +1,30 @@
+package com.eagle.banking.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void next_ShouldBeVersion7AndStrictlyIncreasing() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UuidV7.next();
+            assertEquals(7, id.version());
+            assertEquals(2, id.variant());
+            assertTrue(id.toString().compareTo(previous.toString()) > 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_ShouldEmbedCurrentTime() {
+        long before = System.currentTimeMillis();
+        long millis = UuidV7.next().getMostSignificantBits() >>> 16;
+
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1000);
+    }
+}
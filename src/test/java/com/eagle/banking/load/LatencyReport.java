@@ -0,0 +1,85 @@
+package com.eagle.banking.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms in microseconds, with a count of failed requests (transport errors and
+ * non-2xx responses) alongside. Failed requests are recorded too, so a slow failure still shows in the tail.
+ */
+public class LatencyReport {
+
+    // one hour, far above any timeout the driver uses
+    private static final long HIGHEST_MICROS = 3_600_000_000L;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean ok) {
+        long micros = Math.min(Math.max(1, latencyNanos / 1_000), HIGHEST_MICROS);
+        histograms.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(HIGHEST_MICROS, 3)).recordValue(micros);
+        LongAdder failed = errors.computeIfAbsent(endpoint, e -> new LongAdder());
+        if (!ok) failed.increment();
+    }
+
+    // drops everything recorded so far, e.g. at the end of warm-up
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public void print(PrintStream out, double elapsedSeconds) {
+        out.printf(Locale.ROOT, "%-34s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(histograms).entrySet()) {
+            Histogram h = e.getValue();
+            out.printf(Locale.ROOT, "%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    e.getKey(), h.getTotalCount(), errors.get(e.getKey()).sum(), h.getTotalCount() / elapsedSeconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        }
+    }
+
+    // full percentile distributions in the .hgrm format the HdrHistogram plotter reads, one file per endpoint
+    public void writeDistributions(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Histogram> e : histograms.entrySet()) {
+            Path file = dir.resolve(e.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                e.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    public long totalCount() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long count(String endpoint) {
+        Histogram h = histograms.get(endpoint);
+        return h == null ? 0 : h.getTotalCount();
+    }
+
+    public long errors(String endpoint) {
+        LongAdder failed = errors.get(endpoint);
+        return failed == null ? 0 : failed.sum();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
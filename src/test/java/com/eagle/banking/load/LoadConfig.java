@@ -0,0 +1,81 @@
+package com.eagle.banking.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings for a {@link LoadDriver} run, parsed from {@code key=value} arguments. {@code mix} weights the
+ * operations started at each arrival, e.g. {@code register:5,deposit:40,withdraw:20,history:35}.
+ * {@code connections} above 0 replaces the arrival rate with that many clients, each on its own connection,
+ * starting their next operation as soon as the last one ends.
+ */
+public record LoadConfig(String url, double rate, Duration duration, Duration warmup, int users, int burst,
+                         int connections, Map<Operation, Integer> mix, String reportDir) {
+
+    public enum Operation {
+        // register -> login -> create account, then the new session joins the pool
+        REGISTER,
+        // `burst` deposits back to back on one account
+        DEPOSIT,
+        // `burst` small withdrawals back to back on one account
+        WITHDRAW,
+        // first page of an account's history
+        HISTORY
+    }
+
+    public static final String DEFAULT_MIX = "register:5,deposit:40,withdraw:20,history:35";
+
+    public LoadConfig {
+        if (rate <= 0) throw new IllegalArgumentException("rate must be positive");
+        if (users < 1) throw new IllegalArgumentException("users must be at least 1");
+        if (burst < 1) throw new IllegalArgumentException("burst must be at least 1");
+        if (connections < 0) throw new IllegalArgumentException("connections must not be negative");
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+    }
+
+    public static LoadConfig parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("expected key=value but got " + arg);
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return new LoadConfig(
+                values.getOrDefault("url", "http://localhost:8080"),
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Integer.parseInt(values.getOrDefault("burst", "5")),
+                Integer.parseInt(values.getOrDefault("connections", "0")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                values.getOrDefault("report", "target/load"));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("mix entries look like deposit:40, got " + part);
+            weights.merge(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()), Integer::sum);
+        }
+        return weights;
+    }
+
+    // maps a uniform draw in [0, totalWeight) onto the operation whose band it falls in
+    public Operation pick(int draw) {
+        for (Map.Entry<Operation, Integer> e : mix.entrySet()) {
+            draw -= e.getValue();
+            if (draw < 0) return e.getKey();
+        }
+        throw new IllegalArgumentException("draw beyond total weight");
+    }
+
+    public int totalWeight() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.eagle.banking.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadConfigTest {
+
+    @Test
+    void parse_ShouldApplyDefaultsAndOverrides() {
+        LoadConfig config = LoadConfig.parse("url=http://host:9000", "rate=250", "duration=30", "mix=deposit:3,history:1");
+
+        assertEquals("http://host:9000", config.url());
+        assertEquals(250, config.rate());
+        assertEquals(Duration.ofSeconds(30), config.duration());
+        assertEquals(Duration.ofSeconds(10), config.warmup());
+        assertEquals(5, config.burst());
+        assertEquals(0, config.connections());
+        assertEquals(4, config.totalWeight());
+        assertEquals(10_000, LoadConfig.parse("connections=10000").connections());
+    }
+
+    @Test
+    void pick_ShouldMapDrawsOntoWeightedBands() {
+        LoadConfig config = LoadConfig.parse("mix=register:1,deposit:2,history:1");
+
+        assertEquals(LoadConfig.Operation.REGISTER, config.pick(0));
+        assertEquals(LoadConfig.Operation.DEPOSIT, config.pick(1));
+        assertEquals(LoadConfig.Operation.DEPOSIT, config.pick(2));
+        assertEquals(LoadConfig.Operation.HISTORY, config.pick(3));
+        assertThrows(IllegalArgumentException.class, () -> config.pick(4));
+    }
+
+    @Test
+    void parse_ShouldRejectBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("rate"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("rate=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("mix=transfer:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("mix=deposit:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("connections=-1"));
+    }
+}
@@ -0,0 +1,222 @@
+package com.eagle.banking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a running instance with the same flows the integration tests use (sign up, log in, open an account,
+ * post deposits and withdrawals, page the history) and reports per-endpoint latency percentiles.
+ *
+ * <p>Arrivals are open-loop: operation {@code i} is due at {@code start + i / rate} whatever happened to
+ * earlier ones, and each runs on its own virtual thread. The first request of an operation is timed from
+ * that due time rather than from when it was actually sent, so a stalled server shows up as queueing delay
+ * in the percentiles instead of quietly lowering the offered load. Later requests in the same operation
+ * depend on the one before and are timed from their own send.
+ *
+ * <p>With {@code connections=N} the load is closed-loop instead: N clients, each a virtual thread, start their
+ * next operation as soon as the last one ends, so N requests are in flight the whole time, each on its own
+ * HTTP/1.1 connection. This is what holds thousands of connections open against the server; it needs the
+ * server's {@code server.tomcat.max-connections} above N and a file descriptor limit above 2N when both ends
+ * run on one host.
+ *
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec@load -Dload.url=http://localhost:8080 -Dload.rate=200
+ * ./mvnw -Pbenchmark test-compile exec:exec@load -Dload.connections=10000</pre>
+ */
+public class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String OPENING_DEPOSIT = "1000.00";
+
+    record Session(String token, String accountId) {
+    }
+
+    private final LoadConfig config;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyReport report = new LatencyReport();
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong userCounter = new AtomicLong();
+
+    public LoadDriver(LoadConfig config) {
+        this.config = config;
+        // one request per connection at a time, so concurrent requests mean as many connections
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        LoadDriver driver = new LoadDriver(config);
+        double seconds = driver.run();
+        driver.report.print(System.out, seconds);
+        Path dir = Path.of(config.reportDir());
+        driver.report.writeDistributions(dir);
+        System.out.println("distributions written to " + dir.toAbsolutePath());
+    }
+
+    // seeds the session pool, then offers load for warm-up plus duration; returns the measured seconds
+    public double run() throws InterruptedException {
+        try (ExecutorService seeding = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                seeding.submit(() -> register(System.nanoTime()));
+            }
+        }
+        if (sessions.isEmpty()) throw new IllegalStateException("could not sign up any users at " + config.url());
+        report.reset();
+        if (config.connections() > 0) return runClosedLoop();
+
+        long intervalNanos = (long) (1_000_000_000L / config.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        boolean measuring = config.warmup().isZero();
+        try (ExecutorService arrivals = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + i * intervalNanos;
+                if (due >= end) break;
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                if (!measuring && due >= measureFrom) {
+                    report.reset();
+                    measuring = true;
+                }
+                LoadConfig.Operation op = config.pick(ThreadLocalRandom.current().nextInt(config.totalWeight()));
+                arrivals.submit(() -> perform(op, due));
+            }
+        }
+        return (end - measureFrom) / 1e9;
+    }
+
+    // every client loops until the end; the report restarts once warm-up is over
+    private double runClosedLoop() {
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < config.connections(); c++) {
+                clients.submit(() -> {
+                    for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+                        perform(config.pick(ThreadLocalRandom.current().nextInt(config.totalWeight())), now);
+                    }
+                });
+            }
+            parkUntil(measureFrom);
+            report.reset();
+        }
+        return (end - measureFrom) / 1e9;
+    }
+
+    private static void parkUntil(long nanoTime) {
+        for (long wait = nanoTime - System.nanoTime(); wait > 0; wait = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    public LatencyReport report() {
+        return report;
+    }
+
+    private void perform(LoadConfig.Operation op, long due) {
+        switch (op) {
+            case REGISTER -> register(due);
+            case DEPOSIT -> burst(due, "DEPOSIT", "10.00");
+            case WITHDRAW -> burst(due, "WITHDRAW", "1.00");
+            case HISTORY -> {
+                Session s = randomSession();
+                send("GET /v1/accounts/{id}/transactions", due,
+                        get("/v1/accounts/" + s.accountId() + "/transactions?limit=50", s.token()));
+            }
+        }
+    }
+
+    private void register(long due) {
+        String username = "load-" + runId + "-" + userCounter.incrementAndGet();
+        JsonNode user = send("POST /v1/users", due, post("/v1/users", null,
+                Map.of("username", username, "fullName", "Load " + username, "password", "password")));
+        if (user == null) return;
+        JsonNode login = send("POST /v1/auth/login", System.nanoTime(), post("/v1/auth/login", null,
+                Map.of("username", username, "password", "password")));
+        if (login == null) return;
+        String token = login.path("token").asText();
+        JsonNode account = send("POST /v1/accounts", System.nanoTime(), post("/v1/accounts", token,
+                Map.of("accountType", "checking")));
+        if (account == null) return;
+        String accountId = account.path("id").asText();
+        // funds the withdrawals that will be drawn against this account
+        send("POST /v1/accounts/{id}/transactions", System.nanoTime(), post("/v1/accounts/" + accountId + "/transactions",
+                token, Map.of("amount", OPENING_DEPOSIT, "type", "DEPOSIT")));
+        sessions.add(new Session(token, accountId));
+    }
+
+    private void burst(long due, String type, String amount) {
+        Session s = randomSession();
+        long sent = due;
+        for (int i = 0; i < config.burst(); i++) {
+            send("POST /v1/accounts/{id}/transactions", sent, post("/v1/accounts/" + s.accountId() + "/transactions",
+                    s.token(), Map.of("amount", amount, "type", type)));
+            sent = System.nanoTime();
+        }
+    }
+
+    private Session randomSession() {
+        return sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+    }
+
+    // sends and records against `endpoint` from `sentAt`; returns the parsed body on 2xx, otherwise null
+    private JsonNode send(String endpoint, long sentAt, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() / 100 == 2;
+            report.record(endpoint, System.nanoTime() - sentAt, ok);
+            return ok && !response.body().isEmpty() ? mapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - sentAt, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, String> body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("unserializable request body", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(config.url() + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+}
@@ -0,0 +1,266 @@
+package com.eagle.banking.load;
+
+import com.eagle.banking.BankingApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the real endpoints on platform and then virtual request threads and drives each with {@link LoadDriver};
+ * {@code exec:exec@thread-model} makes that 10,000 clients each holding its own connection. The application
+ * runs in a JVM of its own, so what is reported for the server is the server's alone: throughput and latency
+ * per endpoint, peak heap in use and peak live platform threads (sampled from the actuator every second), and
+ * peak resident set size (Linux only). The virtual threads that were pinned to their carrier are read back from
+ * a flight recording and grouped by the first H2, Hikari or application frame on the stack.
+ * <p>
+ * The virtual run uses the {@code virtual-threads} profile; the platform run gets the same connection limits
+ * and otherwise the defaults. Both ends open a socket per connection, so raise the file descriptor limit
+ * ({@code ulimit -n}) above twice the connection count first.
+ *
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec@thread-model [-Dthread-model.connections=... -Dload.duration=...]</pre>
+ */
+public class ThreadModelComparison {
+
+    // what application-virtual-threads.yaml sets, given to the platform run too
+    private static final int MAX_CONNECTIONS = 12_000;
+    private static final int ACCEPT_COUNT = 2_000;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(1);
+    private static final List<String> FORWARDED_PROPERTIES =
+            List.of("jdk.tracePinnedThreads", "spring.devtools.restart.enabled");
+
+    private static final HttpClient ACTUATOR = HttpClient.newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record Result(String mode, double throughput, long requests, long errors, long peakHeapBytes, long peakThreads,
+                  long peakRssBytes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            Path dir = Path.of("target", "load", mode).toAbsolutePath();
+            Files.createDirectories(dir);
+            Path recording = dir.resolve("server.jfr");
+            int port = freePort();
+            int managementPort = freePort();
+            Process server = start(mode, port, managementPort, recording, dir.resolve("server.log"));
+            try {
+                awaitHealthy(server, managementPort, dir.resolve("server.log"));
+                List<String> loadArgs = new ArrayList<>(List.of(args));
+                loadArgs.add("url=http://localhost:" + port);
+                loadArgs.add("report=" + dir);
+                LoadConfig config = LoadConfig.parse(loadArgs.toArray(String[]::new));
+                LoadDriver driver = new LoadDriver(config);
+
+                Sampler sampler = new Sampler(managementPort);
+                Thread sampling = Thread.ofVirtual().name("server-sampler").start(sampler);
+                double seconds = driver.run();
+                sampler.stop();
+                sampling.join();
+
+                LatencyReport report = driver.report();
+                System.out.println("== " + mode + " request threads, " + describe(config));
+                report.print(System.out, seconds);
+                results.add(new Result(mode, report.totalCount() / seconds, report.totalCount(), report.totalErrors(),
+                        sampler.peakHeap.get(), sampler.peakThreads.get(), peakRss(server.pid())));
+            } finally {
+                stop(server);
+            }
+            printPinned(recording);
+        }
+
+        System.out.println("== summary");
+        System.out.printf(Locale.ROOT, "%-10s %10s %10s %8s %14s %14s %14s%n",
+                "threads", "req/s", "requests", "errors", "peak heap MB", "peak threads", "peak RSS MB");
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-10s %10.1f %10d %8d %14s %14d %14s%n",
+                    r.mode(), r.throughput(), r.requests(), r.errors(), megabytes(r.peakHeapBytes()), r.peakThreads(),
+                    megabytes(r.peakRssBytes()));
+        }
+    }
+
+    private static String describe(LoadConfig config) {
+        return config.connections() > 0
+                ? config.connections() + " connections"
+                : String.format(Locale.ROOT, "%.0f arrivals/s", config.rate());
+    }
+
+    private static Process start(String mode, int port, int managementPort, Path recording, Path log)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:StartFlightRecording:jdk.VirtualThreadPinned#threshold=0ms,dumponexit=true,filename="
+                + recording);
+        for (String property : FORWARDED_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) command.add("-D" + property + "=" + value);
+        }
+        command.addAll(List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                BankingApplication.class.getName(),
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:thread-model;DB_CLOSE_DELAY=-1"));
+        if ("virtual".equals(mode)) {
+            command.add("--spring.profiles.active=virtual-threads");
+        } else {
+            command.add("--server.tomcat.max-connections=" + MAX_CONNECTIONS);
+            command.add("--server.tomcat.accept-count=" + ACCEPT_COUNT);
+        }
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private static void awaitHealthy(Process server, int managementPort, Path log) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) throw new IllegalStateException("server exited during startup, see " + log);
+            try {
+                HttpResponse<Void> response = ACTUATOR.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + managementPort + "/actuator/health")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return;
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("server not healthy after " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    // SIGTERM first, so Spring shuts down and the flight recording is written
+    private static void stop(Process server) throws InterruptedException {
+        server.destroy();
+        if (!server.waitFor(1, TimeUnit.MINUTES)) {
+            server.destroyForcibly();
+            server.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // the kernel's high-water mark of the process's resident memory, -1 where /proc is not there to ask
+    private static long peakRss(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmHWM:")) return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        } catch (IOException e) {
+            // not Linux, or already gone
+        }
+        return -1;
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Polls the server's actuator for heap in use and live threads, keeping the highest of each. Virtual threads
+     * are not counted by the JVM's thread gauges, so the thread figure is platform threads only.
+     */
+    private static final class Sampler implements Runnable {
+
+        final AtomicLong peakHeap = new AtomicLong(-1);
+        final AtomicLong peakThreads = new AtomicLong(-1);
+        private final int managementPort;
+        private final AtomicBoolean running = new AtomicBoolean(true);
+
+        Sampler(int managementPort) {
+            this.managementPort = managementPort;
+        }
+
+        @Override
+        public void run() {
+            while (running.get()) {
+                peakHeap.accumulateAndGet((long) metric("jvm.memory.used?tag=area:heap"), Math::max);
+                peakThreads.accumulateAndGet((long) metric("jvm.threads.live"), Math::max);
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void stop() {
+            running.set(false);
+        }
+
+        // the metric's VALUE measurement, or -1 when the server does not answer in time
+        private double metric(String query) {
+            try {
+                HttpResponse<String> response = ACTUATOR.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + managementPort + "/actuator/metrics/" + query))
+                        .timeout(SAMPLE_INTERVAL).build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) return -1;
+                JsonNode measurements = MAPPER.readTree(response.body()).path("measurements");
+                return measurements.isEmpty() ? -1 : measurements.get(0).path("value").asDouble(-1);
+            } catch (IOException e) {
+                return -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+
+    private static void printPinned(Path recording) throws IOException {
+        if (!Files.exists(recording)) {
+            System.out.println("virtual threads pinned: unknown, no flight recording at " + recording);
+            return;
+        }
+        Map<String, Long> pinnedAt = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (event.getEventType().getName().equals("jdk.VirtualThreadPinned")) {
+                    pinnedAt.merge(site(event), 1L, Long::sum);
+                }
+            }
+        }
+        long total = pinnedAt.values().stream().mapToLong(Long::longValue).sum();
+        System.out.println("virtual threads pinned: " + total);
+        pinnedAt.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                .limit(10)
+                .forEach(e -> System.out.printf("%10d  %s%n", e.getValue(), e.getKey()));
+    }
+
+    // the first frame that is ours or the database's; the JDK frames above it say little about the cause
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) return "(no stack)";
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.h2.") || type.startsWith("com.zaxxer.") || type.startsWith("com.eagle.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "(JDK only)";
+    }
+}
@@ -0,0 +1,23 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCursorTest {
+
+    @Test
+    void decode_ShouldRoundTripEncodedCursor() {
+        TransactionCursor cursor = new TransactionCursor(Instant.parse("2024-05-01T10:15:30.123456Z"), "tx:1");
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_ShouldThrow_WhenTokenMalformed() {
+        assertThrows(InvalidRequestException.class, () -> TransactionCursor.decode("not-a-cursor"));
+    }
+}
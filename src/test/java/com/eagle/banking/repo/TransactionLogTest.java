@@ -0,0 +1,50 @@
+package com.eagle.banking.repo;
+
+import com.eagle.banking.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionLogTest {
+
+    @Test
+    void append_ShouldKeepOrderAcrossChunks() {
+        TransactionLog log = new TransactionLog();
+        for (int i = 0; i < 5000; i++) log.append(tx(i));
+
+        assertEquals(5000, log.size());
+        for (int i = 0; i < 5000; i++) assertEquals(String.valueOf(i), log.get(i).getId());
+        assertEquals(5000, log.snapshot().size());
+    }
+
+    @Test
+    void readers_ShouldNeverSeeUnpublishedEntries() throws InterruptedException {
+        TransactionLog log = new TransactionLog();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int n = log.size();
+                for (int i = 0; i < n; i++) {
+                    Transaction tx = log.get(i);
+                    if (tx == null || !tx.getId().equals(String.valueOf(i))) failure.set("bad entry at " + i);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 100_000; i++) log.append(tx(i));
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    private Transaction tx(int i) {
+        Transaction tx = new Transaction();
+        tx.setId(String.valueOf(i));
+        return tx;
+    }
+}
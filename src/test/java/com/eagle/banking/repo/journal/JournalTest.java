@@ -0,0 +1,159 @@
+package com.eagle.banking.repo.journal;
+
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.journal.JournalRecord.AccountDeleted;
+import com.eagle.banking.repo.journal.JournalRecord.AccountSaved;
+import com.eagle.banking.repo.journal.JournalRecord.KeyRemembered;
+import com.eagle.banking.repo.journal.JournalRecord.Posted;
+import com.eagle.banking.repo.journal.JournalRecord.Transferred;
+import com.eagle.banking.repo.journal.JournalRecord.UserSaved;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private static final int SEGMENT_SIZE = 70_000;
+    private static final String ACCOUNT = "0190a3c2-7a1e-7c3d-8e2f-1a2b3c4d5e6f";
+    private static final Instant OPENED = Instant.parse("2024-07-01T09:00:00.000001Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_ShouldReturnRecordsInWriteOrderAfterReopen() {
+        List<JournalRecord> written = List.of(
+                new UserSaved("u1", "alice", "Alice A", "$2a$hash"),
+                new AccountSaved(ACCOUNT, "u1", "ACCT-00000000018", "savings", 500, OPENED),
+                posted(0, 1250, 1750),
+                new KeyRemembered(ACCOUNT, "retry-1", "DEPOSIT:12.5", posted(0, 1250, 1750).transactionId(),
+                        Instant.EPOCH.plusMillis(1)),
+                new Transferred("transfer-1", posted(1, 100, 1650),
+                        new Posted("tx-in", "acct-2", TransactionType.TRANSFER_IN, 100, 100, Instant.EPOCH)));
+        try (Journal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            written.forEach(journal::append);
+        }
+
+        assertEquals(written, replay());
+    }
+
+    @Test
+    void append_ShouldRollIntoNewSegmentsWhenFull() throws IOException {
+        try (Journal journal = open(FsyncPolicy.GROUP_COMMIT)) {
+            long position = 0;
+            for (int i = 0; i < 3000; i++) position = journal.append(posted(i, 1, i + 1));
+            journal.sync(position);
+        }
+
+        List<JournalRecord> replayed = replay();
+        assertEquals(3000, replayed.size());
+        assertEquals(posted(2999, 1, 3000), replayed.get(2999));
+        assertTrue(files(".seg").size() > 1);
+    }
+
+    @Test
+    void open_ShouldCutOffTornTailAndKeepAppending() throws IOException {
+        try (Journal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            journal.append(posted(0, 100, 100));
+            journal.append(posted(1, 100, 200));
+        }
+        Path segment = files(".seg").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // second record: skip the first one's header and payload, then corrupt a payload byte
+            file.seek(0);
+            int firstLength = file.readInt();
+            file.seek(8 + firstLength + 8 + 3);
+            file.write(0x7f);
+        }
+
+        try (Journal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            journal.append(posted(2, 50, 150));
+        }
+
+        assertEquals(List.of(posted(0, 100, 100), posted(2, 50, 150)), replay());
+    }
+
+    @Test
+    void compact_ShouldDropDeletedAccountsAndFoldAccountUpdates() throws IOException {
+        String closed = "0190a3c2-7a1e-7c3d-8e2f-000000000001";
+        try (Journal journal = open(FsyncPolicy.INTERVAL)) {
+            journal.append(new AccountSaved(ACCOUNT, "u1", "ACCT-00000000018", "savings", 500, OPENED));
+            journal.append(new AccountSaved(closed, "u1", "ACCT-00000000026", "current", 0, null));
+            journal.append(posted(0, 100, 600));
+            journal.append(new Posted("tx-closed", closed, TransactionType.DEPOSIT, 5, 5, Instant.EPOCH));
+            journal.append(new AccountSaved(ACCOUNT, "u1", "ACCT-00000000018", "business", 0, OPENED));
+            journal.append(new AccountDeleted(closed));
+            for (int i = 1; i < 1500; i++) journal.append(posted(i, 1, 600 + i));
+            journal.compact();
+        }
+
+        assertEquals(1, files(".compacted").size());
+        List<JournalRecord> replayed = replay();
+        assertEquals(new AccountSaved(ACCOUNT, "u1", "ACCT-00000000018", "business", 500, OPENED), replayed.get(0));
+        assertEquals(posted(0, 100, 600), replayed.get(1));
+        assertEquals(1 + 1500 + 1, replayed.size());
+        assertTrue(replayed.contains(new AccountDeleted(closed)));
+        assertTrue(replayed.stream().noneMatch(r -> r instanceof Posted p && p.accountId().equals(closed)));
+    }
+
+    @Test
+    void replayFromCheckpoint_ShouldSkipEarlierRecordsAndTruncateDropsEarlierSegments() throws IOException {
+        long checkpoint;
+        try (Journal journal = open(FsyncPolicy.GROUP_COMMIT)) {
+            for (int i = 0; i < 1500; i++) journal.append(posted(i, 1, i + 1));
+            checkpoint = journal.checkpoint();
+            journal.commit(posted(1500, 1, 1501), () -> {
+            });
+            journal.truncateBefore(checkpoint);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (Journal journal = open(FsyncPolicy.INTERVAL)) {
+            journal.replay(checkpoint, replayed::add);
+        }
+        assertEquals(List.of(posted(1500, 1, 1501)), replayed);
+        assertEquals(1, files(".seg").size());
+    }
+
+    @Test
+    void disabled_ShouldAcceptAndForgetEverything() {
+        Journal journal = Journal.disabled();
+        journal.sync(journal.append(posted(0, 1, 1)));
+        List<JournalRecord> replayed = new ArrayList<>();
+        journal.replay(replayed::add);
+        assertTrue(replayed.isEmpty());
+    }
+
+    private Journal open(FsyncPolicy policy) {
+        return new Journal(dir, SEGMENT_SIZE, policy, 5, 0);
+    }
+
+    private List<JournalRecord> replay() {
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (Journal journal = open(FsyncPolicy.INTERVAL)) {
+            journal.replay(replayed::add);
+        }
+        return replayed;
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.filter(p -> p.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static Posted posted(int i, long amount, long balanceAfter) {
+        return new Posted(String.format("0190a3c2-7a1e-7c3d-8e2f-%012d", i), ACCOUNT, TransactionType.DEPOSIT, amount,
+                balanceAfter, Instant.parse("2024-06-01T10:15:30.123456Z").plusSeconds(i));
+    }
+}
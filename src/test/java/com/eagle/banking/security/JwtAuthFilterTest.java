@@ -3,6 +3,7 @@ package com.eagle.banking.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +11,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,6 +19,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -29,8 +30,8 @@ class JwtAuthFilterTest {
     @Mock
     private JwtUtil jwtUtil;
 
-    @InjectMocks
     private JwtAuthFilter jwtAuthFilter;
+    private SimpleMeterRegistry registry;
 
     private MockHttpServletRequest request;
     private MockHttpServletResponse response;
@@ -41,6 +42,8 @@ class JwtAuthFilterTest {
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
         filterChain = mock(FilterChain.class);
+        registry = new SimpleMeterRegistry();
+        jwtAuthFilter = new JwtAuthFilter(jwtUtil, new VerifiedTokenCache(100), registry);
         SecurityContextHolder.clearContext();
     }
 
@@ -74,6 +77,7 @@ class JwtAuthFilterTest {
         verify(jwtUtil).parseToken("invalidToken");
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(registry.get("jwt.verify").tag("outcome", "invalid").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -98,4 +102,27 @@ class JwtAuthFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
         assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo("userId");
     }
-}
\ No newline at end of file
+
+    @Test
+    void doFilterInternal_repeatedToken_skipsVerification() throws IOException, ServletException {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("userId");
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        Jws<Claims> jwsClaims = mock(Jws.class);
+        when(jwsClaims.getPayload()).thenReturn(claims);
+        when(jwtUtil.parseToken("validToken")).thenReturn(jwsClaims);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest req = new MockHttpServletRequest();
+            req.addHeader("Authorization", "Bearer validToken");
+            SecurityContextHolder.clearContext();
+
+            jwtAuthFilter.doFilterInternal(req, response, filterChain);
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo("userId");
+        }
+        verify(jwtUtil, times(1)).parseToken("validToken");
+        // only the verification is timed, not the cache hits
+        assertThat(registry.get("jwt.verify").tag("outcome", "valid").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.eagle.banking.security;
+
+import com.eagle.banking.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void matches_ShouldVerifyAgainstBcryptHash() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(encoder, 1, 4, 5000, 1, registry);
+        String hash = encoder.encode("secret");
+
+        assertTrue(executor.matches("secret", hash));
+        assertFalse(executor.matches("wrong", hash));
+        assertEquals(2, registry.get("auth.bcrypt").timer().count());
+    }
+
+    @Test
+    void matches_ShouldShedWithRetryAfter_WhenQueueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.matches(any(), any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        executor = new PasswordHashingExecutor(encoder, 1, 1, 5000, 7, new SimpleMeterRegistry());
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("a", "h"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "h"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queueDepth() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        ServiceUnavailableException shed = assertThrows(ServiceUnavailableException.class,
+                () -> executor.matches("c", "h"));
+        assertEquals(7, shed.getRetryAfterSeconds());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
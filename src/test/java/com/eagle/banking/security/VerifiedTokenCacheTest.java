@@ -0,0 +1,64 @@
+package com.eagle.banking.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static Date inOneMinute() {
+        return new Date(System.currentTimeMillis() + 60_000);
+    }
+
+    @Test
+    void get_ShouldReturnSubjectAndCountHit_WhenCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        String digest = cache.digest("token-a");
+        cache.put(digest, "user-1", inOneMinute());
+
+        assertEquals("user-1", cache.get(digest));
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test
+    void get_ShouldMissAndEvict_WhenTokenExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        String digest = cache.digest("token-a");
+        cache.put(digest, "user-1", new Date(System.currentTimeMillis() - 1));
+
+        assertNull(cache.get(digest));
+        assertEquals(1, cache.missCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_ShouldStayBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(20);
+        for (int i = 0; i < 100; i++) {
+            cache.put(cache.digest("token-" + i), "user", inOneMinute());
+        }
+
+        assertTrue(cache.size() <= 20);
+    }
+
+    @Test
+    void put_ShouldBeNoOp_WhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        String digest = cache.digest("token-a");
+        cache.put(digest, "user-1", inOneMinute());
+
+        assertNull(cache.get(digest));
+    }
+
+    @Test
+    void digest_ShouldNotContainRawToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        assertEquals(cache.digest("token-a"), cache.digest("token-a"));
+        assertNotEquals(cache.digest("token-a"), cache.digest("token-b"));
+        assertFalse(cache.digest("token-a").contains("token-a"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.eagle.banking.service.idempotency;
+
+import com.eagle.banking.exception.ConflictException;
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.LedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyGuardTest {
+
+    private static final BigDecimal TEN = new BigDecimal("10");
+
+    private IdempotencyTable table;
+    private IdempotencyService idempotencyService;
+    private LedgerService ledgerService;
+    private IdempotencyGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        table = new IdempotencyTable(100, 4, 24);
+        idempotencyService = mock(IdempotencyService.class);
+        ledgerService = mock(LedgerService.class);
+        guard = new IdempotencyGuard(table, idempotencyService, ledgerService);
+        when(idempotencyService.find(any(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void post_ShouldPostOnceAndReplayForSameKey() {
+        Transaction tx = tx("t1");
+        when(ledgerService.post(eq("a1"), eq(TransactionType.DEPOSIT), eq(TEN), any())).thenReturn(tx);
+
+        IdempotencyGuard.Result first = guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN);
+        IdempotencyGuard.Result retry = guard.post("a1", key("k"), TransactionType.DEPOSIT, new BigDecimal("10.00"));
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertSame(tx, retry.transaction());
+        verify(ledgerService, times(1)).post(any(), any(), any(), any());
+    }
+
+    @Test
+    void post_ShouldMakeConcurrentDuplicateWaitForInFlightResult() throws Exception {
+        CountDownLatch posting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Transaction tx = tx("t1");
+        when(ledgerService.post(any(), any(), any(), any())).thenAnswer(inv -> {
+            posting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return tx;
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyGuard.Result> owner = callers.submit(() -> guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN));
+            assertTrue(posting.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyGuard.Result> duplicate = callers.submit(() -> guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN));
+            release.countDown();
+
+            assertSame(tx, owner.get(5, TimeUnit.SECONDS).transaction());
+            assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+            assertSame(tx, duplicate.get().transaction());
+            verify(ledgerService, times(1)).post(any(), any(), any(), any());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void post_ShouldRejectKeyReusedForDifferentRequest() {
+        when(ledgerService.post(any(), any(), any(), any())).thenReturn(tx("t1"));
+        guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN);
+
+        IdempotencyKey other = IdempotencyKey.of("k", TransactionType.WITHDRAW, TEN);
+        assertThrows(ConflictException.class, () -> guard.post("a1", other, TransactionType.WITHDRAW, TEN));
+    }
+
+    @Test
+    void post_ShouldReleaseKey_WhenPostingFails() {
+        when(ledgerService.post(any(), any(), any(), any()))
+                .thenThrow(new InsufficientFundsException("insufficient funds"))
+                .thenReturn(tx("t1"));
+
+        assertThrows(InsufficientFundsException.class, () -> guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN));
+        IdempotencyGuard.Result retry = guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN);
+
+        assertFalse(retry.replayed());
+        assertEquals("t1", retry.transaction().getId());
+    }
+
+    @Test
+    void post_ShouldAnswerFromDurableRecord_WhenTableHasNoEntry() {
+        Transaction tx = tx("t1");
+        when(idempotencyService.find("a1", "k"))
+                .thenReturn(Optional.of(new IdempotencyService.Remembered(key("k").fingerprint(), tx)));
+
+        IdempotencyGuard.Result result = guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN);
+
+        assertTrue(result.replayed());
+        assertSame(tx, result.transaction());
+        verify(ledgerService, never()).post(any(), any(), any(), any());
+    }
+
+    @Test
+    void post_ShouldDropExpiredKeyAndPostAgain_WhenUniqueIndexStillHoldsIt() {
+        Transaction tx = tx("t2");
+        when(ledgerService.post(any(), any(), any(), any()))
+                .thenThrow(new DuplicateIdempotencyKeyException("Idempotency-Key already used: k"))
+                .thenReturn(tx);
+        when(idempotencyService.forgetExpired("a1", "k")).thenReturn(true);
+
+        IdempotencyGuard.Result result = guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN);
+
+        assertFalse(result.replayed());
+        assertSame(tx, result.transaction());
+        verify(ledgerService, times(2)).post(any(), any(), any(), any());
+    }
+
+    @Test
+    void post_ShouldRethrowDuplicate_WhenKeyIsNeitherRememberedNorExpired() {
+        when(ledgerService.post(any(), any(), any(), any()))
+                .thenThrow(new DuplicateIdempotencyKeyException("Idempotency-Key already used: k"));
+
+        assertThrows(DuplicateIdempotencyKeyException.class,
+                () -> guard.post("a1", key("k"), TransactionType.DEPOSIT, TEN));
+        verify(ledgerService, times(1)).post(any(), any(), any(), any());
+    }
+
+    private static IdempotencyKey key(String value) {
+        return IdempotencyKey.of(value, TransactionType.DEPOSIT, TEN);
+    }
+
+    private static Transaction tx(String id) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        return tx;
+    }
+}
@@ -0,0 +1,59 @@
+package com.eagle.banking.service.idempotency;
+
+import com.eagle.banking.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyTableTest {
+
+    @Test
+    void putIfAbsent_ShouldReturnExistingEntry() {
+        IdempotencyTable table = new IdempotencyTable(10, 1, 24);
+        CompletableFuture<Transaction> first = new CompletableFuture<>();
+
+        assertNull(table.putIfAbsent("k", "f", first));
+        IdempotencyTable.Entry existing = table.putIfAbsent("k", "f", new CompletableFuture<>());
+
+        assertSame(first, existing.result());
+    }
+
+    @Test
+    void putIfAbsent_ShouldEvictOldestCompletedEntries_WhenFull() {
+        IdempotencyTable table = new IdempotencyTable(2, 1, 24);
+        CompletableFuture<Transaction> inFlight = new CompletableFuture<>();
+        table.putIfAbsent("a", "f", inFlight);
+        table.putIfAbsent("b", "f", CompletableFuture.completedFuture(new Transaction()));
+
+        // "a" is still posting, so it stays and the table briefly runs over its bound
+        table.putIfAbsent("c", "f", CompletableFuture.completedFuture(new Transaction()));
+        assertEquals(3, table.size());
+
+        inFlight.complete(new Transaction());
+        table.putIfAbsent("d", "f", new CompletableFuture<>());
+        assertEquals(2, table.size());
+        assertNotNull(table.putIfAbsent("d", "f", new CompletableFuture<>()));
+    }
+
+    @Test
+    void putIfAbsent_ShouldTreatExpiredEntryAsAbsent() {
+        IdempotencyTable table = new IdempotencyTable(10, 1, 0);
+        table.putIfAbsent("k", "f", CompletableFuture.completedFuture(new Transaction()));
+
+        assertNull(table.putIfAbsent("k", "f", new CompletableFuture<>()));
+    }
+
+    @Test
+    void remove_ShouldOnlyDropTheGivenAttempt() {
+        IdempotencyTable table = new IdempotencyTable(10, 1, 24);
+        CompletableFuture<Transaction> attempt = new CompletableFuture<>();
+        table.putIfAbsent("k", "f", attempt);
+
+        table.remove("k", new CompletableFuture<>());
+        assertEquals(1, table.size());
+        table.remove("k", attempt);
+        assertEquals(0, table.size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.helper.UuidV7;
+import com.eagle.banking.repo.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountOwnershipCacheTest {
+
+    private static final String OWNER = UuidV7.nextString();
+
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+    }
+
+    @Test
+    void ownerOf_ShouldMissOnceThenHit() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 10);
+        String a1 = UuidV7.nextString();
+        when(accountRepository.findOwnerIdById(a1)).thenReturn(Optional.of(OWNER));
+
+        assertEquals(OWNER, cache.ownerOf(a1));
+        assertEquals(OWNER, cache.ownerOf(a1));
+
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        verify(accountRepository, times(1)).findOwnerIdById(a1);
+    }
+
+    @Test
+    void ownerOf_ShouldThrowAndCacheNothing_WhenAccountMissing() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 10);
+        String a1 = UuidV7.nextString();
+        when(accountRepository.findOwnerIdById(a1)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.ownerOf(a1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void ownerOf_ShouldQueryEveryTime_WhenIdIsNotAUuid() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 10);
+        when(accountRepository.findOwnerIdById("a1")).thenReturn(Optional.of(OWNER));
+
+        assertEquals(OWNER, cache.ownerOf("a1"));
+        assertEquals(OWNER, cache.ownerOf("a1"));
+
+        assertEquals(0, cache.size());
+        verify(accountRepository, times(2)).findOwnerIdById("a1");
+    }
+
+    @Test
+    void invalidate_ShouldForgetTheAccount() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 10);
+        String a1 = UuidV7.nextString();
+        cache.put(a1, OWNER);
+        cache.invalidate(a1);
+        when(accountRepository.findOwnerIdById(a1)).thenReturn(Optional.empty());
+
+        assertEquals(0, cache.size());
+        assertThrows(ResourceNotFoundException.class, () -> cache.ownerOf(a1));
+    }
+
+    @Test
+    void ownerOf_ShouldNotCacheTheOwner_WhenTheAccountIsDeletedDuringTheLookup() throws Exception {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 10);
+        String a1 = UuidV7.nextString();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        // the row is read, then the delete commits and invalidates before the reader gets to cache it
+        when(accountRepository.findOwnerIdById(a1)).thenAnswer(invocation -> {
+            read.countDown();
+            assertTrue(deleted.await(5, TimeUnit.SECONDS));
+            return Optional.of(OWNER);
+        });
+
+        CompletableFuture<String> lookup = CompletableFuture.supplyAsync(() -> cache.ownerOf(a1));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        cache.invalidate(a1);
+        deleted.countDown();
+
+        assertEquals(OWNER, lookup.get(5, TimeUnit.SECONDS));
+        assertEquals(0, cache.size());
+        when(accountRepository.findOwnerIdById(a1)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> cache.ownerOf(a1));
+    }
+
+    @Test
+    void put_ShouldStayBoundedAndKeepEveryEntryFindable() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 20);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String id = UuidV7.nextString();
+            ids.add(id);
+            cache.put(id, OWNER);
+            if (i % 3 == 0) cache.invalidate(ids.get(i / 2));
+        }
+
+        assertTrue(cache.size() <= 20);
+        // a miss now throws before anything is cached, so only entries still held answer
+        when(accountRepository.findOwnerIdById(anyString())).thenReturn(Optional.empty());
+        int held = 0;
+        for (String id : ids) {
+            try {
+                assertEquals(OWNER, cache.ownerOf(id));
+                held++;
+            } catch (ResourceNotFoundException e) {
+                // evicted or invalidated
+            }
+        }
+        assertEquals(cache.size(), held);
+        assertEquals(OWNER, cache.ownerOf(ids.get(ids.size() - 1)));
+    }
+
+    @Test
+    void put_ShouldEvictEntriesNotUsedSinceTheLastSweep() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 8);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(UuidV7.nextString());
+            cache.put(ids.get(i), OWNER);
+        }
+        // the first half is in use; the second half has not been read since it was cached
+        for (int i = 0; i < 4; i++) assertEquals(OWNER, cache.ownerOf(ids.get(i)));
+
+        for (int i = 0; i < 4; i++) cache.put(UuidV7.nextString(), OWNER);
+
+        assertEquals(8, cache.size());
+        for (int i = 0; i < 4; i++) assertEquals(OWNER, cache.ownerOf(ids.get(i)));
+        verify(accountRepository, never()).findOwnerIdById(anyString());
+        for (int i = 4; i < 8; i++) {
+            String evicted = ids.get(i);
+            assertThrows(ResourceNotFoundException.class, () -> cache.ownerOf(evicted));
+        }
+    }
+
+    @Test
+    void put_ShouldDoNothing_WhenDisabled() {
+        AccountOwnershipCache cache = new AccountOwnershipCache(accountRepository, 0);
+        cache.put(UuidV7.nextString(), OWNER);
+
+        assertEquals(0, cache.size());
+    }
+}
@@ -1,14 +1,20 @@
 package com.eagle.banking.service.impl.db;
 
+import com.eagle.banking.dto.AccountDto;
 import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.helper.UuidV7;
 import com.eagle.banking.model.Account;
 import com.eagle.banking.model.User;
 import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.readmodel.ChangeFeed;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
-import java.util.Collections;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,17 +24,28 @@ import static org.mockito.Mockito.*;
 class DatabaseAccountServiceTest {
 
     private AccountRepository accountRepository;
+    private LedgerSequencer sequencer;
     private DatabaseAccountService accountService;
 
     @BeforeEach
     void setUp() {
         accountRepository = mock(AccountRepository.class);
-        accountService = new DatabaseAccountService(accountRepository);
+        IdService idService = mock(IdService.class);
+        when(idService.nextAccountNumber()).thenReturn("ACCT-00000001007");
+        sequencer = new LedgerSequencer(1);
+        accountService = new DatabaseAccountService(accountRepository, idService,
+                new AccountOwnershipCache(accountRepository, 100), ChangeFeed.disabled(), sequencer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
     }
 
     @Test
     void create_ShouldGenerateAccountNumberAndSave() {
         Account account = new Account();
+        account.setUser(new User());
         when(accountRepository.save(any(Account.class))).thenReturn(account);
 
         Account result = accountService.create(account);
@@ -85,6 +102,24 @@ class DatabaseAccountServiceTest {
         verify(accountRepository).deleteById("1");
     }
 
+    @Test
+    void getOwnerId_ShouldQueryOnceThenServeFromCache_UntilDeleted() {
+        String id = UuidV7.nextString();
+        String ownerId = UuidV7.nextString();
+        Account account = new Account();
+        account.setId(id);
+        when(accountRepository.findOwnerIdById(id)).thenReturn(Optional.of(ownerId));
+        when(accountRepository.findById(id)).thenReturn(Optional.of(account));
+
+        assertEquals(ownerId, accountService.getOwnerId(id));
+        assertEquals(ownerId, accountService.getOwnerId(id));
+        verify(accountRepository, times(1)).findOwnerIdById(id);
+
+        accountService.delete(id);
+        when(accountRepository.findOwnerIdById(id)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getOwnerId(id));
+    }
+
     @Test
     void delete_ShouldThrow_WhenNotFound() {
         when(accountRepository.findById("1")).thenReturn(Optional.empty());
@@ -96,22 +131,34 @@ class DatabaseAccountServiceTest {
 
     @Test
     void userHasAccounts_ShouldReturnTrue_WhenAccountsExist() {
-        when(accountRepository.findByUserId("u1")).thenReturn(List.of(new Account()));
+        when(accountRepository.existsByUserId("u1")).thenReturn(true);
 
         boolean result = accountService.userHasAccounts("u1");
 
         assertTrue(result);
+        verify(accountRepository, never()).findByUserId(any());
     }
 
     @Test
     void userHasAccounts_ShouldReturnFalse_WhenNoAccounts() {
-        when(accountRepository.findByUserId("u1")).thenReturn(Collections.emptyList());
+        when(accountRepository.existsByUserId("u1")).thenReturn(false);
 
         boolean result = accountService.userHasAccounts("u1");
 
         assertFalse(result);
     }
 
+    @Test
+    void getDtosByUserId_ShouldUseProjection() {
+        AccountDto dto = new AccountDto("a1", "user1", "ACCT-1", "savings", BigDecimal.TEN);
+        when(accountRepository.findDtosByUserId("user1")).thenReturn(List.of(dto));
+
+        List<AccountDto> result = accountService.getDtosByUserId("user1");
+
+        assertEquals(List.of(dto), result);
+        verify(accountRepository, never()).findByUserId(any());
+    }
+
     @Test
     void update_ShouldCallSave() {
         Account account = new Account();
@@ -123,4 +170,27 @@ class DatabaseAccountServiceTest {
         verify(accountRepository).save(captor.capture());
         assertEquals("123", captor.getValue().getId());
     }
+
+    @Test
+    void changeType_ShouldWriteTheTypeColumnOnly() {
+        Account account = new Account();
+        account.setId("1");
+        account.setBalance(BigDecimal.TEN);
+        when(accountRepository.updateAccountType("1", "current")).thenReturn(1);
+
+        accountService.changeType(account, "current");
+
+        assertEquals("current", account.getAccountType());
+        verify(accountRepository).updateAccountType("1", "current");
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void changeType_ShouldThrow_WhenNotFound() {
+        Account account = new Account();
+        account.setId("1");
+        when(accountRepository.updateAccountType("1", "current")).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> accountService.changeType(account, "current"));
+    }
 }
@@ -0,0 +1,109 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.dto.AccountSummaryDto;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.AccountDailyRollup;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.AccountDailyRollupRepository;
+import com.eagle.banking.service.AccountSummaryService.Granularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DatabaseAccountSummaryServiceTest {
+
+    private AccountDailyRollupRepository rollupRepository;
+    private DatabaseAccountSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AccountDailyRollupRepository.class);
+        summaryService = new DatabaseAccountSummaryService(rollupRepository, 400);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordPosted_ShouldAccumulateIntoExistingAndNewDays() {
+        AccountDailyRollup existing = new AccountDailyRollup("a1", LocalDate.parse("2024-05-01"));
+        existing.add(tx("10", TransactionType.DEPOSIT, "2024-05-01T08:00:00Z", "10"));
+        when(rollupRepository.findById(new AccountDailyRollup.Key("a1", LocalDate.parse("2024-05-01"))))
+                .thenReturn(Optional.of(existing));
+        when(rollupRepository.findById(new AccountDailyRollup.Key("a1", LocalDate.parse("2024-05-02"))))
+                .thenReturn(Optional.empty());
+
+        summaryService.recordPosted("a1", List.of(
+                tx("4", TransactionType.WITHDRAW, "2024-05-01T23:00:00Z", "6"),
+                tx("20", TransactionType.DEPOSIT, "2024-05-02T01:00:00Z", "26")));
+
+        ArgumentCaptor<Iterable<AccountDailyRollup>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        List<AccountDailyRollup> days = new ArrayList<>();
+        saved.getValue().forEach(days::add);
+        assertEquals(2, days.size());
+        AccountDailyRollup first = days.get(0);
+        assertEquals(2, first.getTransactionCount());
+        assertEquals(new BigDecimal("10"), first.getDepositTotal());
+        assertEquals(new BigDecimal("4"), first.getWithdrawTotal());
+        assertEquals(new BigDecimal("4"), first.getMinAmount());
+        assertEquals(new BigDecimal("6"), first.getClosingBalance());
+        assertTrue(days.get(1).isNew());
+        assertEquals(new BigDecimal("26"), days.get(1).getClosingBalance());
+    }
+
+    @Test
+    void summarize_ShouldFoldDaysIntoMonths() {
+        LocalDate from = LocalDate.parse("2024-04-01");
+        LocalDate to = LocalDate.parse("2024-05-31");
+        when(rollupRepository.findByAccountIdAndDayBetweenOrderByDayAsc("a1", from, to)).thenReturn(List.of(
+                day("2024-04-10", "100", "15"),
+                day("2024-05-02", "5", "20"),
+                day("2024-05-20", "50", "70")));
+
+        List<AccountSummaryDto> months = summaryService.summarize("a1", from, to, Granularity.MONTH);
+
+        assertEquals(2, months.size());
+        AccountSummaryDto may = months.get(1);
+        assertEquals(LocalDate.parse("2024-05-01"), may.periodStart());
+        assertEquals(new BigDecimal("55"), may.depositTotal());
+        assertEquals(2, may.transactionCount());
+        assertEquals(new BigDecimal("5"), may.minAmount());
+        assertEquals(new BigDecimal("50"), may.maxAmount());
+        assertEquals(new BigDecimal("70"), may.closingBalance());
+    }
+
+    @Test
+    void summarize_ShouldRejectInvalidRange() {
+        assertThrows(InvalidRequestException.class, () -> summaryService.summarize("a1",
+                LocalDate.parse("2024-05-02"), LocalDate.parse("2024-05-01"), Granularity.DAY));
+        assertThrows(InvalidRequestException.class, () -> summaryService.summarize("a1",
+                LocalDate.parse("2020-01-01"), LocalDate.parse("2024-01-01"), Granularity.DAY));
+        verify(rollupRepository, never()).findByAccountIdAndDayBetweenOrderByDayAsc(any(), any(), any());
+    }
+
+    private AccountDailyRollup day(String day, String deposit, String closingBalance) {
+        AccountDailyRollup rollup = new AccountDailyRollup("a1", LocalDate.parse(day));
+        rollup.add(tx(deposit, TransactionType.DEPOSIT, day + "T12:00:00Z", closingBalance));
+        return rollup;
+    }
+
+    private Transaction tx(String amount, TransactionType type, String createdAt, String balanceAfter) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        t.setCreatedAt(Instant.parse(createdAt));
+        t.setBalanceAfter(new BigDecimal(balanceAfter));
+        return t;
+    }
+}
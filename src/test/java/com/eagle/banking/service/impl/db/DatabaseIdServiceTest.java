@@ -0,0 +1,58 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.helper.AccountNumbers;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DatabaseIdServiceTest {
+
+    @Test
+    void nextAccountNumber_ShouldReserveOneBlockPerSequenceCall() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 11L);
+        DatabaseIdService idService = new DatabaseIdService(jdbcTemplate, 10);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 15; i++) numbers.add(idService.nextAccountNumber());
+
+        assertEquals(15, numbers.size());
+        assertTrue(numbers.stream().allMatch(AccountNumbers::isValid));
+        assertTrue(numbers.contains(AccountNumbers.format(1)));
+        assertTrue(numbers.contains(AccountNumbers.format(15)));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void nextAccountNumber_ShouldNotReissueNumbersWhenTheBlockSizeChangesAcrossRestarts() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1"));
+        Set<Long> issued = new HashSet<>();
+        for (int blockSize : new int[]{10, 100, 10}) {
+            DatabaseIdService idService = new DatabaseIdService(jdbcTemplate, blockSize);
+            idService.createSequence();
+            for (int i = 0; i < 150; i++) {
+                assertTrue(issued.add(AccountNumbers.sequenceValue(idService.nextAccountNumber())));
+            }
+        }
+    }
+
+    @Test
+    void createSequence_ShouldRefuseDatabasesOtherThanH2() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        DatabaseIdService idService = new DatabaseIdService(jdbcTemplate, 10);
+
+        assertThrows(IllegalStateException.class, idService::createSequence);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
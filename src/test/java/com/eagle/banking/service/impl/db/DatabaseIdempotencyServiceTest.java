@@ -0,0 +1,99 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.model.IdempotencyRecord;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.repo.IdempotencyRecordRepository;
+import com.eagle.banking.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DatabaseIdempotencyServiceTest {
+
+    private IdempotencyRecordRepository repository;
+    private TransactionService transactionService;
+    private DatabaseIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        transactionService = mock(TransactionService.class);
+        idempotencyService = new DatabaseIdempotencyService(repository, transactionService, 24, 0);
+    }
+
+    @Test
+    void find_ShouldReturnRememberedTransaction() {
+        Transaction tx = tx();
+        when(repository.findByAccountIdAndIdempotencyKey("a1", "k"))
+                .thenReturn(Optional.of(new IdempotencyRecord("r1", "a1", "k", "DEPOSIT:10", "t1", Instant.now())));
+        when(transactionService.find("a1", "t1")).thenReturn(Optional.of(tx));
+
+        var remembered = idempotencyService.find("a1", "k").orElseThrow();
+
+        assertEquals("DEPOSIT:10", remembered.fingerprint());
+        assertSame(tx, remembered.transaction());
+    }
+
+    @Test
+    void find_ShouldIgnoreExpiredKey() {
+        Instant old = Instant.now().minus(Duration.ofHours(25));
+        when(repository.findByAccountIdAndIdempotencyKey("a1", "k"))
+                .thenReturn(Optional.of(new IdempotencyRecord("r1", "a1", "k", "DEPOSIT:10", "t1", old)));
+
+        assertTrue(idempotencyService.find("a1", "k").isEmpty());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void remember_ShouldOnlyInsert() {
+        idempotencyService.remember("a1", "k", "DEPOSIT:10", tx());
+
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(repository, never()).deleteExpired(any(), any(), any());
+    }
+
+    @Test
+    void remember_ShouldThrowDuplicate_WhenUniqueIndexRejectsKey() {
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_account_key"));
+
+        assertThrows(DuplicateIdempotencyKeyException.class,
+                () -> idempotencyService.remember("a1", "k", "DEPOSIT:10", tx()));
+    }
+
+    @Test
+    void forgetExpired_ShouldDeleteOnlyRowsOlderThanTtl() {
+        when(repository.deleteExpired(eq("a1"), eq("k"), any(Instant.class))).thenReturn(1);
+
+        assertTrue(idempotencyService.forgetExpired("a1", "k"));
+        verify(repository).deleteExpired(eq("a1"), eq("k"),
+                argThat(before -> before.isBefore(Instant.now().minus(Duration.ofHours(23)))));
+    }
+
+    @Test
+    void sweep_ShouldDeleteEveryKeyOlderThanTtl() {
+        idempotencyService.sweep();
+
+        verify(repository).deleteCreatedBefore(argThat(before ->
+                before.isBefore(Instant.now().minus(Duration.ofHours(23)))
+                        && before.isAfter(Instant.now().minus(Duration.ofHours(25)))));
+    }
+
+    private static Transaction tx() {
+        Transaction tx = new Transaction();
+        tx.setId("t1");
+        tx.setCreatedAt(Instant.now());
+        return tx;
+    }
+}
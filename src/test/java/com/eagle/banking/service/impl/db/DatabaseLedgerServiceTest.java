@@ -0,0 +1,189 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.AccountService;
+import com.eagle.banking.service.AccountSummaryService;
+import com.eagle.banking.service.IdService;
+import com.eagle.banking.service.IdempotencyService;
+import com.eagle.banking.service.TransactionService;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import com.eagle.banking.service.ledger.Transfer;
+import com.eagle.banking.service.readmodel.ChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DatabaseLedgerServiceTest {
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private AccountSummaryService summaryService;
+    private IdempotencyService idempotencyService;
+    private IdService idService;
+    private LedgerSequencer sequencer;
+    private DatabaseLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        accountService = mock(AccountService.class);
+        transactionService = mock(TransactionService.class);
+        summaryService = mock(AccountSummaryService.class);
+        idempotencyService = mock(IdempotencyService.class);
+        idService = mock(IdService.class);
+        sequencer = new LedgerSequencer(2);
+        ledgerService = newLedgerService(3);
+        when(transactionService.record(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(transactionService.recordAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(idService.newId()).thenReturn("transfer-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    // each posting in its own transaction, nothing published to a read model
+    private DatabaseLedgerService newLedgerService(int maxBatchSize) {
+        return new DatabaseLedgerService(accountService, transactionService, summaryService, idempotencyService,
+                sequencer, idService, mock(PlatformTransactionManager.class), maxBatchSize,
+                false, 0, 0, ChangeFeed.disabled());
+    }
+
+    @Test
+    void post_Deposit_ShouldIncreaseBalanceAndRecord() {
+        Account account = account("100");
+        when(accountService.getById("a1")).thenReturn(account);
+
+        Transaction result = ledgerService.post("a1", TransactionType.DEPOSIT, new BigDecimal("50"));
+
+        assertEquals(0, new BigDecimal("150").compareTo(account.getBalance()));
+        assertSame(account, result.getAccount());
+        assertEquals(0, new BigDecimal("150").compareTo(result.getBalanceAfter()));
+        assertEquals(TransactionType.DEPOSIT, result.getType());
+        verify(accountService).update(account);
+        verify(transactionService).record(result);
+        verify(summaryService).recordPosted("a1", List.of(result));
+    }
+
+    @Test
+    void post_WithKey_ShouldRememberKeyInSameUnitOfWork() {
+        when(accountService.getById("a1")).thenReturn(account("100"));
+        IdempotencyKey key = IdempotencyKey.of("k-1", TransactionType.DEPOSIT, new BigDecimal("5"));
+
+        Transaction result = ledgerService.post("a1", TransactionType.DEPOSIT, new BigDecimal("5"), key);
+
+        verify(idempotencyService).remember("a1", "k-1", key.fingerprint(), result);
+    }
+
+    @Test
+    void post_Withdraw_ShouldDecreaseBalance() {
+        Account account = account("100");
+        when(accountService.getById("a1")).thenReturn(account);
+
+        ledgerService.post("a1", TransactionType.WITHDRAW, new BigDecimal("40"));
+
+        assertEquals(0, new BigDecimal("60").compareTo(account.getBalance()));
+    }
+
+    @Test
+    void post_Withdraw_ShouldThrow_WhenInsufficientFunds() {
+        Account account = account("10");
+        when(accountService.getById("a1")).thenReturn(account);
+
+        assertThrows(InsufficientFundsException.class,
+                () -> ledgerService.post("a1", TransactionType.WITHDRAW, new BigDecimal("40")));
+        assertEquals(0, new BigDecimal("10").compareTo(account.getBalance()));
+        verify(transactionService, never()).record(any());
+        verifyNoInteractions(summaryService);
+    }
+
+    @Test
+    void transfer_ShouldDebitAndCreditAsOnePair() {
+        Account from = account("100");
+        Account to = account("5");
+        when(accountService.getById("a1")).thenReturn(from);
+        when(accountService.getById("a2")).thenReturn(to);
+
+        Transfer transfer = ledgerService.transfer("a1", "a2", new BigDecimal("30"));
+
+        assertEquals(0, new BigDecimal("70").compareTo(from.getBalance()));
+        assertEquals(0, new BigDecimal("35").compareTo(to.getBalance()));
+        assertEquals(TransactionType.TRANSFER_OUT, transfer.debit().getType());
+        assertEquals(TransactionType.TRANSFER_IN, transfer.credit().getType());
+        assertEquals("transfer-1", transfer.debit().getTransferId());
+        assertEquals("transfer-1", transfer.credit().getTransferId());
+        assertEquals(0, new BigDecimal("35").compareTo(transfer.credit().getBalanceAfter()));
+        verify(transactionService).recordAll(List.of(transfer.debit(), transfer.credit()));
+    }
+
+    @Test
+    void transfer_ShouldThrowAndChangeNothing_WhenInsufficientFunds() {
+        Account from = account("10");
+        Account to = account("5");
+        when(accountService.getById("a1")).thenReturn(from);
+        when(accountService.getById("a2")).thenReturn(to);
+
+        assertThrows(InsufficientFundsException.class, () -> ledgerService.transfer("a1", "a2", new BigDecimal("30")));
+        assertThrows(InvalidRequestException.class, () -> ledgerService.transfer("a1", "a1", BigDecimal.ONE));
+        verify(accountService, never()).update(any());
+        verify(transactionService, never()).recordAll(anyList());
+    }
+
+    @Test
+    void postBatch_ShouldApplyValidLinesAndRejectOthers() {
+        Account account = account("10");
+        when(accountService.getById("a1")).thenReturn(account);
+
+        List<PostingOutcome> outcomes = ledgerService.postBatch("a1", List.of(
+                line("100", TransactionType.DEPOSIT),
+                line("500", TransactionType.WITHDRAW),
+                line("0", TransactionType.DEPOSIT)));
+
+        assertTrue(outcomes.get(0).isPosted());
+        assertEquals(0, new BigDecimal("110").compareTo(outcomes.get(0).transaction().getBalanceAfter()));
+        assertInstanceOf(InsufficientFundsException.class, outcomes.get(1).error());
+        assertInstanceOf(InvalidRequestException.class, outcomes.get(2).error());
+        assertEquals(0, new BigDecimal("110").compareTo(account.getBalance()));
+        verify(transactionService).recordAll(List.of(outcomes.get(0).transaction()));
+        verify(summaryService).recordPosted("a1", List.of(outcomes.get(0).transaction()));
+        verify(accountService, times(1)).getById("a1");
+    }
+
+    @Test
+    void postBatch_ShouldThrow_WhenBatchTooLarge() {
+        List<Transaction> items = List.of(line("1", TransactionType.DEPOSIT), line("1", TransactionType.DEPOSIT),
+                line("1", TransactionType.DEPOSIT), line("1", TransactionType.DEPOSIT));
+
+        assertThrows(InvalidRequestException.class, () -> ledgerService.postBatch("a1", items));
+        verifyNoInteractions(accountService);
+    }
+
+    private Transaction line(String amount, TransactionType type) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        return t;
+    }
+
+    private Account account(String balance) {
+        Account account = new Account();
+        account.setId("a1");
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+}
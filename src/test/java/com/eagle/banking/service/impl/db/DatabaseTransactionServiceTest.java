@@ -1,13 +1,20 @@
 package com.eagle.banking.service.impl.db;
 
+import com.eagle.banking.dto.TransactionDto;
 import com.eagle.banking.model.Account;
 import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.repo.TransactionQuery;
 import com.eagle.banking.repo.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -15,12 +22,14 @@ import static org.mockito.Mockito.*;
 class DatabaseTransactionServiceTest {
 
     private TransactionRepository transactionRepository;
+    private AccountRepository accountRepository;
     private DatabaseTransactionService transactionService;
 
     @BeforeEach
     void setUp() {
         transactionRepository = mock(TransactionRepository.class);
-        transactionService = new DatabaseTransactionService(transactionRepository);
+        accountRepository = mock(AccountRepository.class);
+        transactionService = new DatabaseTransactionService(transactionRepository, accountRepository);
     }
 
     @Test
@@ -35,6 +44,17 @@ class DatabaseTransactionServiceTest {
         verify(transactionRepository).save(tx);
     }
 
+    @Test
+    void recordAll_ShouldPersistInOneCall() {
+        List<Transaction> txs = List.of(new Transaction(), new Transaction());
+
+        List<Transaction> result = transactionService.recordAll(txs);
+
+        assertSame(txs, result);
+        verify(transactionRepository).persistAll(txs);
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     void listForAccount_ShouldReturnTransactions() {
         String accountId = "acct-1";
@@ -52,6 +72,42 @@ class DatabaseTransactionServiceTest {
         verify(transactionRepository).findByAccountId(accountId);
     }
 
+    @Test
+    void listPage_ShouldDelegateToKeysetQuery() {
+        TransactionQuery query = new TransactionQuery("acct-1", null, null, null, null, 51);
+        Transaction tx = new Transaction();
+        when(transactionRepository.findPage(query)).thenReturn(List.of(tx));
+
+        List<Transaction> result = transactionService.listPage(query);
+
+        assertEquals(List.of(tx), result);
+        verify(transactionRepository).findPage(query);
+        verify(transactionRepository, never()).findByAccountId(any());
+    }
+
+    @Test
+    void listDtoPage_ShouldUseProjection() {
+        TransactionQuery query = new TransactionQuery("acct-1", null, null, null, null, 51);
+        TransactionDto dto = new TransactionDto("tx-1", "savings", BigDecimal.TEN, TransactionType.DEPOSIT,
+                Instant.EPOCH, BigDecimal.TEN, null);
+        when(transactionRepository.findDtoPage(query)).thenReturn(List.of(dto));
+
+        List<TransactionDto> result = transactionService.listDtoPage(query);
+
+        assertEquals(List.of(dto), result);
+        verify(transactionRepository, never()).findPage(any());
+    }
+
+    @Test
+    void exportForAccount_ShouldStreamThroughRepository() {
+        Consumer<Transaction> sink = tx -> { };
+
+        transactionService.exportForAccount("acct-1", sink);
+
+        verify(transactionRepository).forEachInAccount("acct-1", sink);
+        verify(transactionRepository, never()).findByAccountId(any());
+    }
+
     @Test
     void find_ShouldReturnTransaction_WhenExists() {
         String accountId = "acct-1";
@@ -85,4 +141,35 @@ class DatabaseTransactionServiceTest {
         assertFalse(result.isPresent());
         verify(transactionRepository).findByAccountIdAndId(accountId, txId);
     }
+
+    @Test
+    void balanceAt_ShouldReturnBalanceAfterOfLatestTransaction() {
+        Instant at = Instant.parse("2024-05-01T12:00:00Z");
+        Transaction tx = new Transaction();
+        tx.setBalanceAfter(new BigDecimal("75"));
+        when(transactionRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc("acct-1", at))
+                .thenReturn(Optional.of(tx));
+
+        assertEquals(new BigDecimal("75"), transactionService.balanceAt("acct-1", at));
+    }
+
+    @Test
+    void balanceAt_ShouldReturnOpeningBalance_WhenNoTransactionsYet() {
+        Instant at = Instant.parse("2024-05-01T12:00:00Z");
+        when(transactionRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc("acct-1", at))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findOpeningBalance("acct-1", at)).thenReturn(Optional.of(new BigDecimal("250")));
+
+        assertEquals(new BigDecimal("250"), transactionService.balanceAt("acct-1", at));
+    }
+
+    @Test
+    void balanceAt_ShouldReturnZero_BeforeTheAccountWasOpened() {
+        Instant at = Instant.parse("2024-05-01T12:00:00Z");
+        when(transactionRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc("acct-1", at))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findOpeningBalance("acct-1", at)).thenReturn(Optional.empty());
+
+        assertEquals(BigDecimal.ZERO, transactionService.balanceAt("acct-1", at));
+    }
 }
@@ -1,28 +1,35 @@
 package com.eagle.banking.service.impl.db;
 
+import com.eagle.banking.exception.ConflictException;
 import com.eagle.banking.exception.ResourceNotFoundException;
 import com.eagle.banking.model.User;
 import com.eagle.banking.repo.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class DatabaseUserServiceTest {
 
     private UserRepository userRepository;
     private DatabaseUserService userService;
+    private UsernameBloomFilter takenUsernames;
 
     private final BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        userService = new DatabaseUserService(userRepository, encoder);
+        takenUsernames = new UsernameBloomFilter(true, 1000, 0.01, userRepository);
+        userService = new DatabaseUserService(userRepository, encoder, takenUsernames);
     }
 
     @Test
@@ -37,6 +44,54 @@ class DatabaseUserServiceTest {
         verify(userRepository).save(user);
     }
 
+    @Test
+    void create_ShouldSkipExistenceQuery_WhenBloomFilterSaysFree() {
+        User user = new User();
+        user.setUsername("Alice");
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.create(user);
+
+        verify(userRepository, never()).existsByUsernameNormalized(any());
+        assertTrue(takenUsernames.mightContain("alice"));
+    }
+
+    @Test
+    void create_ShouldThrowConflict_WhenNormalizedUsernameExists() {
+        takenUsernames.add("alice");
+        User user = new User();
+        user.setUsername("ALICE");
+        when(userRepository.existsByUsernameNormalized("alice")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.create(user));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void create_ShouldThrowConflict_WhenUniqueIndexRejectsInsert() {
+        User user = new User();
+        user.setUsername("alice");
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(),
+                        "PUBLIC.UK_USERS_USERNAME_NORMALIZED_INDEX_4 ON PUBLIC.USERS(USERNAME_NORMALIZED)")));
+
+        assertThrows(ConflictException.class, () -> userService.create(user));
+        assertFalse(takenUsernames.mightContain("alice"));
+    }
+
+    @Test
+    void create_ShouldRethrow_WhenAnotherConstraintRejectsInsert() {
+        User user = new User();
+        user.setUsername("alice");
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"FULL_NAME\"; SQL statement: "
+                        + "insert into users (full_name,password,username,username_normalized,id) values (?,?,?,?,?)"));
+        when(userRepository.save(user)).thenThrow(notNull);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class, () -> userService.create(user)));
+        assertFalse(takenUsernames.mightContain("alice"));
+    }
+
     @Test
     void getById_ShouldReturnMaskedUser_WhenFound() {
         User user = new User();
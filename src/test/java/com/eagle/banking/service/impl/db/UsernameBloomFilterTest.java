@@ -0,0 +1,46 @@
+package com.eagle.banking.service.impl.db;
+
+import com.eagle.banking.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UsernameBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldBeTrueForAddedNamesAndMostlyFalseOtherwise() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(true, 10_000, 0.01, null);
+        for (int i = 0; i < 10_000; i++) filter.add("user" + i);
+
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("user" + i));
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) if (filter.mightContain("other" + i)) falsePositives++;
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void warm_ShouldLoadExistingUsernames() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllUsernamesNormalized()).thenReturn(List.of("alice", "bob"));
+        UsernameBloomFilter filter = new UsernameBloomFilter(true, 100, 0.01, userRepository);
+
+        filter.warm();
+
+        assertTrue(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("bob"));
+    }
+
+    @Test
+    void mightContain_ShouldAlwaysBeTrue_WhenDisabled() {
+        UserRepository userRepository = mock(UserRepository.class);
+        UsernameBloomFilter filter = new UsernameBloomFilter(false, 100, 0.01, userRepository);
+
+        filter.warm();
+
+        assertTrue(filter.mightContain("anyone"));
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,264 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.DuplicateIdempotencyKeyException;
+import com.eagle.banking.exception.InsufficientFundsException;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import com.eagle.banking.service.ledger.PostingOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLedgerServiceTest {
+
+    private InMemoryStore store;
+    private LedgerSequencer sequencer;
+    private InMemoryAccountService accountService;
+    private InMemoryTransactionService transactionService;
+    private InMemoryLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+        sequencer = new LedgerSequencer(2);
+        InMemoryIdService idService = new InMemoryIdService();
+        accountService = new InMemoryAccountService(store, idService, Journal.disabled(), sequencer);
+        transactionService = new InMemoryTransactionService(store, idService);
+        ledgerService = new InMemoryLedgerService(store, transactionService,
+                new InMemoryAccountSummaryService(store, 400), new InMemoryIdempotencyService(store, 24, 0),
+                sequencer, idService, Journal.disabled(), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Test
+    void post_ShouldUpdateBalanceAndAppendHistory() {
+        String id = account().getId();
+
+        ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("100.25"));
+        Transaction tx = ledgerService.post(id, TransactionType.WITHDRAW, new BigDecimal("40"));
+
+        assertEquals(new BigDecimal("60.25"), tx.getBalanceAfter());
+        assertEquals(new BigDecimal("60.25"), accountService.getById(id).getBalance());
+        assertEquals(2, transactionService.listForAccount(id).size());
+        assertTrue(transactionService.find(id, tx.getId()).isPresent());
+    }
+
+    @Test
+    void post_ShouldRejectOverdraftAndSubCentAmounts() {
+        String id = account().getId();
+        ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("10"));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> ledgerService.post(id, TransactionType.WITHDRAW, new BigDecimal("10.01")));
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("0.001")));
+        assertEquals(new BigDecimal("10.00"), accountService.getById(id).getBalance());
+        assertEquals(1, transactionService.listForAccount(id).size());
+    }
+
+    @Test
+    void post_ShouldRejectCreditsPastTheLargestBalance() {
+        String a = account().getId();
+        String b = account().getId();
+        ledgerService.post(a, TransactionType.DEPOSIT, new BigDecimal("92233720368547758.07"));
+        ledgerService.post(b, TransactionType.DEPOSIT, new BigDecimal("1"));
+
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerService.post(a, TransactionType.DEPOSIT, new BigDecimal("0.01")));
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerService.post(a, TransactionType.DEPOSIT, new BigDecimal("1e30")));
+        assertThrows(InvalidRequestException.class, () -> ledgerService.transfer(b, a, new BigDecimal("1")));
+        List<PostingOutcome> outcomes = ledgerService.postBatch(a, List.of(
+                line("0.01", TransactionType.DEPOSIT),
+                line("1", TransactionType.WITHDRAW)));
+        assertInstanceOf(InvalidRequestException.class, outcomes.get(0).error());
+        assertTrue(outcomes.get(1).isPosted());
+        assertEquals(new BigDecimal("92233720368547757.07"), accountService.getById(a).getBalance());
+        assertEquals(new BigDecimal("1.00"), accountService.getById(b).getBalance());
+    }
+
+    @Test
+    void post_WithKey_ShouldRefuseSecondPostingForSameKey() {
+        String id = account().getId();
+        IdempotencyKey key = IdempotencyKey.of("k-1", TransactionType.DEPOSIT, new BigDecimal("10"));
+        Transaction first = ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("10"), key);
+
+        assertThrows(DuplicateIdempotencyKeyException.class,
+                () -> ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("10"), key));
+        assertEquals(new BigDecimal("10.00"), accountService.getById(id).getBalance());
+        assertEquals(first.getId(), store.idempotencyKeys.get(InMemoryStore.idempotencyKey(id, "k-1")).getTransactionId());
+    }
+
+    @Test
+    void postBatch_ShouldApplyValidLinesAndRejectOthers() {
+        String id = account().getId();
+
+        List<PostingOutcome> outcomes = ledgerService.postBatch(id, List.of(
+                line("100", TransactionType.DEPOSIT),
+                line("500", TransactionType.WITHDRAW),
+                line("0", TransactionType.DEPOSIT)));
+
+        assertTrue(outcomes.get(0).isPosted());
+        assertInstanceOf(InsufficientFundsException.class, outcomes.get(1).error());
+        assertInstanceOf(InvalidRequestException.class, outcomes.get(2).error());
+        assertEquals(new BigDecimal("100.00"), accountService.getById(id).getBalance());
+    }
+
+    @Test
+    void post_ShouldNotLoseUpdatesUnderConcurrency() throws InterruptedException {
+        String id = account().getId();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            callers.execute(() -> ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("0.01")));
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("10.00"), accountService.getById(id).getBalance());
+        assertEquals(1000, transactionService.listForAccount(id).size());
+    }
+
+    @Test
+    void transfer_ShouldConserveMoneyUnderOpposingConcurrentTransfers() throws InterruptedException {
+        String a = account().getId();
+        String b = account().getId();
+        ledgerService.post(a, TransactionType.DEPOSIT, new BigDecimal("100"));
+        ledgerService.post(b, TransactionType.DEPOSIT, new BigDecimal("100"));
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            boolean forward = i % 2 == 0;
+            callers.execute(() -> ledgerService.transfer(forward ? a : b, forward ? b : a, new BigDecimal("1")));
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("100.00"), accountService.getById(a).getBalance());
+        assertEquals(new BigDecimal("100.00"), accountService.getById(b).getBalance());
+        List<Transaction> legs = transactionService.listForAccount(a);
+        assertEquals(1001, legs.size());
+        Transaction leg = legs.get(1);
+        assertTrue(leg.getType().isTransfer());
+        assertTrue(transactionService.listForAccount(b).stream().anyMatch(t -> leg.getTransferId().equals(t.getTransferId())));
+    }
+
+    @Test
+    void delete_ShouldWaitForWorkAlreadyOnTheAccountsLane() throws Exception {
+        String id = account().getId();
+        CountDownLatch onLane = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        // stands in for a posting that has checked the account and not yet written
+        Future<?> posting = callers.submit(() -> sequencer.submit(id, () -> {
+            onLane.countDown();
+            await(release);
+            return ledgerService.post(id, TransactionType.DEPOSIT, BigDecimal.ONE);
+        }));
+        assertTrue(onLane.await(5, TimeUnit.SECONDS));
+        Future<?> delete = callers.submit(() -> accountService.delete(id));
+
+        assertThrows(TimeoutException.class, () -> delete.get(200, TimeUnit.MILLISECONDS));
+        assertTrue(store.accounts.containsKey(id));
+        release.countDown();
+        posting.get(5, TimeUnit.SECONDS);
+        delete.get(5, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        assertFalse(store.accounts.containsKey(id));
+        assertFalse(store.isMaterialized(id), "the posting's history outlived the delete");
+        assertThrows(ResourceNotFoundException.class, () -> ledgerService.post(id, TransactionType.DEPOSIT, BigDecimal.ONE));
+    }
+
+    @Test
+    void delete_ShouldReleaseEverythingHeldForTheAccountAndReuseItsSlot() {
+        String kept = account().getId();
+        ledgerService.post(kept, TransactionType.DEPOSIT, BigDecimal.TEN,
+                IdempotencyKey.of("k-kept", TransactionType.DEPOSIT, BigDecimal.TEN));
+        int accounts = store.accounts.size();
+        int transactions = store.transactionsById.size();
+        int rollups = store.dailyRollups.size();
+        int keys = store.idempotencyKeys.size();
+        int slots = store.balances.size();
+
+        String id = account().getId();
+        int ordinal = store.accountOrdinals.get(id);
+        ledgerService.post(id, TransactionType.DEPOSIT, new BigDecimal("100"),
+                IdempotencyKey.of("k-1", TransactionType.DEPOSIT, new BigDecimal("100")));
+        ledgerService.post(id, TransactionType.WITHDRAW, BigDecimal.ONE);
+        accountService.delete(id);
+
+        assertEquals(accounts, store.accounts.size());
+        assertEquals(accounts, store.accountOrdinals.size());
+        assertEquals(Set.of(kept), store.accountIdsByUser.get("u1"));
+        assertEquals(accounts, store.transactions.size());
+        assertEquals(transactions, store.transactionsById.size());
+        assertEquals(rollups, store.dailyRollups.size());
+        assertEquals(keys, store.idempotencyKeys.size());
+        assertEquals(accounts, store.balances.inUse());
+
+        String reopened = account().getId();
+        assertEquals(ordinal, store.accountOrdinals.get(reopened));
+        assertEquals(slots + 1, store.balances.size());
+        assertEquals(0, accountService.getById(reopened).getBalance().signum());
+        assertEquals(new BigDecimal("10.00"), accountService.getById(kept).getBalance());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void transfer_ShouldRejectOverdraftWithoutWritingEitherLeg() {
+        String a = account().getId();
+        String b = account().getId();
+        ledgerService.post(a, TransactionType.DEPOSIT, new BigDecimal("5"));
+
+        assertThrows(InsufficientFundsException.class, () -> ledgerService.transfer(a, b, new BigDecimal("5.01")));
+        assertEquals(1, transactionService.listForAccount(a).size());
+        assertTrue(transactionService.listForAccount(b).isEmpty());
+    }
+
+    private Account account() {
+        User user = new User();
+        user.setId("u1");
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountType("savings");
+        account.setBalance(BigDecimal.ZERO);
+        return accountService.create(account);
+    }
+
+    private Transaction line(String amount, TransactionType type) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        return t;
+    }
+}
@@ -0,0 +1,107 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.TransactionCursor;
+import com.eagle.banking.repo.TransactionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTransactionServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T10:00:00Z");
+
+    private InMemoryStore store;
+    private InMemoryTransactionService transactionService;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+        transactionService = new InMemoryTransactionService(store, new InMemoryIdService());
+        account = new Account();
+        account.setId("a1");
+        for (int i = 0; i < 10; i++) {
+            Transaction tx = new Transaction();
+            tx.setAccount(account);
+            tx.setAmount(BigDecimal.ONE);
+            tx.setType(i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAW);
+            tx.setCreatedAt(T0.plusSeconds(i / 2)); // two entries per second
+            tx.setBalanceAfter(BigDecimal.valueOf(i));
+            transactionService.record(tx);
+        }
+    }
+
+    @Test
+    void listPage_ShouldWalkAllEntriesByCursor() {
+        List<Transaction> all = transactionService.listForAccount("a1");
+        List<Transaction> walked = new ArrayList<>();
+        TransactionCursor cursor = null;
+        do {
+            List<Transaction> page = transactionService.listPage(new TransactionQuery("a1", null, null, null, cursor, 3));
+            walked.addAll(page);
+            Transaction last = page.isEmpty() ? null : page.get(page.size() - 1);
+            cursor = page.size() < 3 ? null : new TransactionCursor(last.getCreatedAt(), last.getId());
+        } while (cursor != null);
+
+        assertEquals(all, walked);
+    }
+
+    @Test
+    void listPage_ShouldApplyTypeAndHalfOpenTimeRange() {
+        List<Transaction> page = transactionService.listPage(new TransactionQuery("a1", TransactionType.DEPOSIT,
+                T0.plusSeconds(1), T0.plusSeconds(3), null, 50));
+
+        assertEquals(2, page.size());
+        assertTrue(page.stream().allMatch(t -> t.getType() == TransactionType.DEPOSIT));
+        assertEquals(T0.plusSeconds(1), page.get(0).getCreatedAt());
+        assertEquals(T0.plusSeconds(2), page.get(1).getCreatedAt());
+    }
+
+    @Test
+    void balanceAt_ShouldUseLastEntryAtOrBeforeInstant() {
+        assertEquals(BigDecimal.ZERO, transactionService.balanceAt("a1", T0.minusSeconds(1)));
+        assertEquals(BigDecimal.valueOf(1), transactionService.balanceAt("a1", T0));
+        assertEquals(BigDecimal.valueOf(5), transactionService.balanceAt("a1", T0.plusMillis(2500)));
+        assertEquals(BigDecimal.valueOf(9), transactionService.balanceAt("a1", T0.plusSeconds(60)));
+    }
+
+    @Test
+    void balanceAt_ShouldFallBackToOpeningBalanceOnceOpened() {
+        User owner = new User();
+        owner.setId("u1");
+        Account opened = new Account("a2", owner, "ACCT-00000000026", "savings", new BigDecimal("250.00"),
+                new BigDecimal("250.00"), T0);
+        store.openAccount(opened, 25000);
+        Transaction deposit = new Transaction();
+        deposit.setAccount(opened);
+        deposit.setAmount(BigDecimal.TEN);
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setCreatedAt(T0.plusSeconds(10));
+        deposit.setBalanceAfter(new BigDecimal("260.00"));
+        transactionService.record(deposit);
+
+        assertEquals(BigDecimal.ZERO, transactionService.balanceAt("a2", T0.minusSeconds(1)));
+        assertEquals(new BigDecimal("250.00"), transactionService.balanceAt("a2", T0));
+        assertEquals(new BigDecimal("250.00"), transactionService.balanceAt("a2", T0.plusSeconds(5)));
+        assertEquals(new BigDecimal("260.00"), transactionService.balanceAt("a2", T0.plusSeconds(10)));
+    }
+
+    @Test
+    void find_ShouldOnlyMatchOwningAccount() {
+        String id = transactionService.listForAccount("a1").get(0).getId();
+
+        assertTrue(transactionService.find("a1", id).isPresent());
+        assertTrue(transactionService.find("a2", id).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.exception.ConflictException;
+import com.eagle.banking.exception.ResourceNotFoundException;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.Journal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryUserServiceTest {
+
+    private InMemoryUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.encode("secret")).thenReturn("hashed");
+        userService = new InMemoryUserService(new InMemoryStore(), encoder, new InMemoryIdService(),
+                Journal.disabled());
+    }
+
+    @Test
+    void create_ShouldAssignIdHashPasswordAndMask() {
+        User result = userService.create(user("Alice"));
+
+        assertNotNull(result.getId());
+        assertNull(result.getPassword());
+        assertEquals("hashed", userService.findByUsername("Alice").orElseThrow().getPassword());
+        assertTrue(userService.findByUsername("alice").isEmpty());
+    }
+
+    @Test
+    void create_ShouldRejectUsernameDifferingOnlyInCase() {
+        userService.create(user("alice"));
+
+        assertThrows(ConflictException.class, () -> userService.create(user("ALICE")));
+    }
+
+    @Test
+    void delete_ShouldFreeUsername() {
+        User created = userService.create(user("alice"));
+
+        userService.delete(created.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getById(created.getId()));
+        assertNotNull(userService.create(user("alice")).getId());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFullName("Alice A");
+        user.setPassword("secret");
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.AccountSummaryService.Granularity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalRecoveryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restart_ShouldRebuildUsersAccountsBalancesAndHistory() {
+        String userId;
+        String accountId;
+        Transaction last;
+        try (MemoryNode node = new MemoryNode(dir, false)) {
+            userId = node.user("Alice");
+            accountId = node.account(userId, "10.50");
+            String closedId = node.account(userId, "0");
+
+            node.post(accountId, TransactionType.DEPOSIT, "100");
+            node.ledger.postBatch(accountId, List.of(line("30", TransactionType.WITHDRAW),
+                    line("500", TransactionType.WITHDRAW)));
+            last = node.post(accountId, TransactionType.DEPOSIT, "0.25");
+            node.post(closedId, TransactionType.DEPOSIT, "5");
+            node.accounts.delete(closedId);
+        }
+
+        try (MemoryNode node = new MemoryNode(dir, false)) {
+            assertTrue(node.users.findByUsername("Alice").isPresent());
+            Account account = node.accounts.getById(accountId);
+            assertEquals(new BigDecimal("80.75"), account.getBalance());
+            assertEquals(1, node.accounts.getByUserId(userId).size());
+            assertEquals(3, node.transactions.listForAccount(accountId).size());
+            assertEquals(last.getCreatedAt(), node.transactions.find(accountId, last.getId()).orElseThrow().getCreatedAt());
+            LocalDate today = LocalDate.ofInstant(last.getCreatedAt(), ZoneOffset.UTC);
+            assertEquals(3, node.summaries.summarize(accountId, today, today, Granularity.DAY).get(0).transactionCount());
+
+            String openedId = node.account(userId, "0");
+            assertNotEquals(account.getAccountNumber(), node.accounts.getById(openedId).getAccountNumber());
+            node.post(accountId, TransactionType.WITHDRAW, "0.75");
+        }
+
+        try (MemoryNode node = new MemoryNode(dir, false)) {
+            assertEquals(new BigDecimal("80.00"), node.accounts.getById(accountId).getBalance());
+            assertEquals(2, node.accounts.getByUserId(userId).size());
+        }
+    }
+
+    private static Transaction line(String amount, TransactionType type) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        t.setType(type);
+        return t;
+    }
+}
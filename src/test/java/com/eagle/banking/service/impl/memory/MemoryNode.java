@@ -0,0 +1,81 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Account;
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.model.User;
+import com.eagle.banking.repo.InMemoryStore;
+import com.eagle.banking.repo.journal.FsyncPolicy;
+import com.eagle.banking.repo.journal.Journal;
+import com.eagle.banking.service.idempotency.IdempotencyKey;
+import com.eagle.banking.service.ledger.LedgerSequencer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+// one "process" of the memory profile: a fresh store wired to the journal (and snapshots) under dir, recovered
+final class MemoryNode implements AutoCloseable {
+
+    final InMemoryStore store = new InMemoryStore();
+    final Journal journal;
+    final LedgerSequencer sequencer = new LedgerSequencer(2);
+    final InMemoryUserService users;
+    final InMemoryAccountService accounts;
+    final InMemoryTransactionService transactions;
+    final InMemoryAccountSummaryService summaries;
+    final InMemoryIdempotencyService idempotency;
+    final InMemoryLedgerService ledger;
+    final StoreSnapshots snapshots;
+    final JournalRecovery recovery;
+
+    MemoryNode(Path dir, boolean snapshotsEnabled) {
+        InMemoryIdService idService = new InMemoryIdService();
+        journal = new Journal(dir.resolve("journal"), 1024 * 1024, FsyncPolicy.GROUP_COMMIT, 10, 0);
+        users = new InMemoryUserService(store, new BCryptPasswordEncoder(4), idService, journal);
+        accounts = new InMemoryAccountService(store, idService, journal, sequencer);
+        transactions = new InMemoryTransactionService(store, idService);
+        summaries = new InMemoryAccountSummaryService(store, 400);
+        idempotency = new InMemoryIdempotencyService(store, 24, 0);
+        ledger = new InMemoryLedgerService(store, transactions, summaries, idempotency, sequencer, idService,
+                journal, 10);
+        snapshots = new StoreSnapshots(snapshotsEnabled, dir.resolve("snapshot").toString(), 0, store, journal,
+                idService);
+        recovery = new JournalRecovery(journal, store, summaries, idService, snapshots);
+        recovery.afterSingletonsInstantiated();
+    }
+
+    String user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFullName(username + " Example");
+        user.setPassword("secret");
+        return users.create(user).getId();
+    }
+
+    String account(String userId, String openingBalance) {
+        User owner = new User();
+        owner.setId(userId);
+        Account account = new Account();
+        account.setUser(owner);
+        account.setAccountType("savings");
+        account.setBalance(new BigDecimal(openingBalance));
+        return accounts.create(account).getId();
+    }
+
+    Transaction post(String accountId, TransactionType type, String amount) {
+        return ledger.post(accountId, type, new BigDecimal(amount));
+    }
+
+    Transaction post(String accountId, TransactionType type, String amount, String idempotencyKey) {
+        return ledger.post(accountId, type, new BigDecimal(amount),
+                IdempotencyKey.of(idempotencyKey, type, new BigDecimal(amount)));
+    }
+
+    @Override
+    public void close() {
+        snapshots.shutdown();
+        sequencer.shutdown();
+        journal.close();
+    }
+}
@@ -0,0 +1,189 @@
+package com.eagle.banking.service.impl.memory;
+
+import com.eagle.banking.model.Transaction;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.service.AccountSummaryService.Granularity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreSnapshotsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restart_ShouldLoadSnapshotThenReplayJournalTail() {
+        String userId;
+        String accountId;
+        Transaction beforeSnapshot;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            userId = node.user("Alice");
+            accountId = node.account(userId, "5");
+            beforeSnapshot = node.post(accountId, TransactionType.DEPOSIT, "100");
+            node.snapshots.write();
+            node.post(accountId, TransactionType.WITHDRAW, "40");
+            node.account(userId, "0");
+        }
+        assertTrue(Files.exists(dir.resolve("snapshot").resolve("snapshot.bin")));
+
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertEquals(new BigDecimal("65.00"), node.accounts.getById(accountId).getBalance());
+            assertEquals(2, node.accounts.getByUserId(userId).size());
+            assertEquals(2, node.transactions.listForAccount(accountId).size());
+            assertTrue(node.transactions.find(accountId, beforeSnapshot.getId()).isPresent());
+            assertTrue(node.users.findByUsername("Alice").isPresent());
+        }
+    }
+
+    @Test
+    void restart_ShouldRememberIdempotencyKeysFromSnapshotAndJournal() {
+        String accountId;
+        Transaction inSnapshot;
+        Transaction inJournal;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            accountId = node.account(node.user("Alice"), "0");
+            inSnapshot = node.post(accountId, TransactionType.DEPOSIT, "10", "k-1");
+            node.snapshots.write();
+            inJournal = node.post(accountId, TransactionType.DEPOSIT, "20", "k-2");
+        }
+
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertEquals(inSnapshot.getId(), node.idempotency.find(accountId, "k-1").orElseThrow().transaction().getId());
+            assertEquals(inJournal.getId(), node.idempotency.find(accountId, "k-2").orElseThrow().transaction().getId());
+            assertTrue(node.idempotency.find(accountId, "k-3").isEmpty());
+        }
+    }
+
+    @Test
+    void restart_ShouldKeepTransferLegsFromSnapshotAndJournal() {
+        String from;
+        String to;
+        String inSnapshot;
+        String inJournal;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            String userId = node.user("Alice");
+            from = node.account(userId, "100");
+            to = node.account(userId, "0");
+            inSnapshot = node.ledger.transfer(from, to, new BigDecimal("30")).id();
+            node.snapshots.write();
+            inJournal = node.ledger.transfer(to, from, new BigDecimal("10")).id();
+        }
+
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertEquals(new BigDecimal("80.00"), node.accounts.getById(from).getBalance());
+            assertEquals(new BigDecimal("20.00"), node.accounts.getById(to).getBalance());
+            var legs = node.transactions.listForAccount(to);
+            assertEquals(TransactionType.TRANSFER_IN, legs.get(0).getType());
+            assertEquals(inSnapshot, legs.get(0).getTransferId());
+            assertEquals(TransactionType.TRANSFER_OUT, legs.get(1).getType());
+            assertEquals(inJournal, legs.get(1).getTransferId());
+        }
+    }
+
+    @Test
+    void snapshot_ShouldNotHandAClosedAccountsHistoryToTheAccountReusingItsSlot() {
+        String userId;
+        String closedId;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            userId = node.user("Alice");
+            closedId = node.account(userId, "0");
+            node.post(closedId, TransactionType.DEPOSIT, "25");
+            node.snapshots.write();
+        }
+        String reopenedId;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertFalse(node.store.isMaterialized(closedId));
+            int ordinal = node.store.accountOrdinals.get(closedId);
+            node.accounts.delete(closedId);
+            reopenedId = node.account(userId, "0");
+            assertEquals(ordinal, node.store.accountOrdinals.get(reopenedId));
+
+            assertTrue(node.transactions.listForAccount(reopenedId).isEmpty());
+            assertEquals(0, node.accounts.getById(reopenedId).getBalance().signum());
+            node.snapshots.write();
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertTrue(node.transactions.listForAccount(reopenedId).isEmpty());
+            assertFalse(node.store.accounts.containsKey(closedId));
+        }
+    }
+
+    @Test
+    void snapshot_ShouldServeUntouchedHistoryLazilyAndCarryItAcrossSnapshots() {
+        String accountId;
+        Transaction first;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            accountId = node.account(node.user("Alice"), "0");
+            first = node.post(accountId, TransactionType.DEPOSIT, "12.34");
+            node.post(accountId, TransactionType.DEPOSIT, "0.66");
+            node.snapshots.write();
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertFalse(node.store.isMaterialized(accountId));
+            assertEquals(new BigDecimal("13.00"), node.accounts.getById(accountId).getBalance());
+            // written again without ever loading the account: its bytes are copied from the previous file
+            node.snapshots.write();
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertEquals(2, node.transactions.listForAccount(accountId).size());
+            assertTrue(node.transactions.find(accountId, first.getId()).isPresent());
+            LocalDate day = LocalDate.ofInstant(first.getCreatedAt(), ZoneOffset.UTC);
+            assertEquals(new BigDecimal("13.00"),
+                    node.summaries.summarize(accountId, day, day, Granularity.DAY).get(0).closingBalance());
+        }
+    }
+
+    @Test
+    void replay_ShouldLeaveHistoryUnloadedAndCarryTheJournalTailIntoTheNextSnapshot() {
+        String accountId;
+        Transaction inJournal;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            accountId = node.account(node.user("Alice"), "0");
+            node.post(accountId, TransactionType.DEPOSIT, "10");
+            node.snapshots.write();
+            inJournal = node.post(accountId, TransactionType.DEPOSIT, "5");
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertFalse(node.store.isMaterialized(accountId));
+            assertEquals(new BigDecimal("15.00"), node.accounts.getById(accountId).getBalance());
+            node.snapshots.write();
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            assertFalse(node.store.isMaterialized(accountId));
+            assertEquals(2, node.transactions.listForAccount(accountId).size());
+            assertTrue(node.transactions.find(accountId, inJournal.getId()).isPresent());
+            LocalDate day = LocalDate.ofInstant(inJournal.getCreatedAt(), ZoneOffset.UTC);
+            var summary = node.summaries.summarize(accountId, day, day, Granularity.DAY).get(0);
+            assertEquals(2, summary.transactionCount());
+            assertEquals(new BigDecimal("15.00"), summary.closingBalance());
+        }
+    }
+
+    @Test
+    void replay_ShouldSkipPostingsTheSnapshotAlreadyHolds() {
+        String accountId;
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            accountId = node.account(node.user("Alice"), "0");
+            node.post(accountId, TransactionType.DEPOSIT, "10");
+            node.post(accountId, TransactionType.DEPOSIT, "5");
+            node.snapshots.write();
+        }
+        try (MemoryNode node = new MemoryNode(dir, true)) {
+            // as if every journaled record had landed after the checkpoint and been captured anyway
+            node.journal.replay(0, node.recovery::apply);
+
+            assertEquals(new BigDecimal("15.00"), node.accounts.getById(accountId).getBalance());
+            assertEquals(2, node.transactions.listForAccount(accountId).size());
+            LocalDate day = LocalDate.now(ZoneOffset.UTC);
+            assertEquals(2, node.summaries.summarize(accountId, day, day, Granularity.DAY).get(0).transactionCount());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.eagle.banking.service.ledger;
+
+import com.eagle.banking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitterTest {
+
+    private static final int CALLERS = 4;
+
+    private LedgerSequencer sequencer;
+    private PlatformTransactionManager transactionManager;
+    private GroupCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new LedgerSequencer(1);
+        transactionManager = mock(PlatformTransactionManager.class);
+        // a long delay and a group size of CALLERS: the group closes exactly when every caller has queued
+        committer = new GroupCommitter(sequencer, new TransactionTemplate(transactionManager), CALLERS, 10_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Test
+    void submit_ShouldCommitConcurrentPostingsTogether() throws Exception {
+        List<Future<String>> results = submitAll(i -> () -> "posted-" + i);
+
+        for (int i = 0; i < CALLERS; i++) assertEquals("posted-" + i, results.get(i).get());
+        assertEquals(1, committer.commitCount());
+        assertEquals(CALLERS, committer.committedPostings());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void submit_ShouldFailOnlyTheRejectedPosting() throws Exception {
+        List<Future<String>> results = submitAll(i -> () -> {
+            if (i == 1) throw new InsufficientFundsException("insufficient funds");
+            return "posted-" + i;
+        });
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> results.get(1).get());
+        assertInstanceOf(InsufficientFundsException.class, rejected.getCause());
+        assertEquals("posted-0", results.get(0).get());
+        assertEquals("posted-3", results.get(3).get());
+        assertEquals(1, committer.commitCount());
+        assertEquals(CALLERS - 1, committer.committedPostings());
+    }
+
+    @Test
+    void submit_ShouldRetryAlone_WhenTheGroupTransactionFails() throws Exception {
+        List<Future<String>> results = submitAll(i -> () -> {
+            if (i == 2) throw new IllegalStateException("constraint violated");
+            return "posted-" + i;
+        });
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> results.get(2).get());
+        assertInstanceOf(IllegalStateException.class, failed.getCause());
+        assertEquals("posted-0", results.get(0).get());
+        assertEquals("posted-3", results.get(3).get());
+        // the group rolled back, then three of the four committed one transaction each
+        assertEquals(CALLERS - 1, committer.commitCount());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private List<Future<String>> submitAll(IntFunction<Supplier<String>> work) {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Supplier<String> posting = work.apply(i);
+            results.add(callers.submit(() -> committer.submit("acct-1", posting)));
+        }
+        callers.shutdown();
+        return results;
+    }
+}
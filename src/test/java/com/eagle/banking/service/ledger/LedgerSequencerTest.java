@@ -0,0 +1,108 @@
+package com.eagle.banking.service.ledger;
+
+import com.eagle.banking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerSequencerTest {
+
+    private LedgerSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new LedgerSequencer(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Test
+    void submit_ShouldSerializeWorkForSameAccount() throws Exception {
+        long[] balance = new long[1];
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(callers.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    sequencer.submit("acct-1", () -> balance[0]++);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        callers.shutdown();
+
+        assertEquals(8000, balance[0]);
+    }
+
+    @Test
+    void submit_ShouldRethrowBusinessException() {
+        InsufficientFundsException ex = assertThrows(InsufficientFundsException.class,
+                () -> sequencer.submit("acct-1", () -> {
+                    throw new InsufficientFundsException("insufficient funds");
+                }));
+        assertEquals("insufficient funds", ex.getMessage());
+    }
+
+    @Test
+    void submit_ShouldRunInline_WhenCalledFromOwningLane() {
+        String result = sequencer.submit("acct-1", () -> sequencer.submit("acct-1", () -> "nested"));
+
+        assertEquals("nested", result);
+    }
+
+    @Test
+    void submitPair_ShouldNotDeadlockOnOpposingDirections() throws Exception {
+        String a = "acct-1";
+        String other = onOtherLane(a);
+        long[] moved = new long[1];
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            boolean forward = i % 2 == 0;
+            futures.add(callers.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (forward) sequencer.submit(a, other, () -> moved[0]++);
+                    else sequencer.submit(other, a, () -> moved[0]++);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        assertEquals(4000, moved[0]);
+    }
+
+    @Test
+    void submitPair_ShouldRefuseToStartFromALane() {
+        String other = onOtherLane("acct-1");
+        assertThrows(IllegalStateException.class,
+                () -> sequencer.submit("acct-1", () -> sequencer.submit("acct-1", other, () -> 1)));
+    }
+
+    @Test
+    void laneFor_ShouldBeStableAndInRange() {
+        int lane = sequencer.laneFor("acct-1");
+
+        assertEquals(lane, sequencer.laneFor("acct-1"));
+        assertTrue(lane >= 0 && lane < sequencer.laneCount());
+    }
+
+    private String onOtherLane(String accountId) {
+        for (int i = 2; ; i++) {
+            String candidate = "acct-" + i;
+            if (sequencer.laneFor(candidate) != sequencer.laneFor(accountId)) return candidate;
+        }
+    }
+}
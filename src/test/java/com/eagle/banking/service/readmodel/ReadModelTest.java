@@ -0,0 +1,209 @@
+package com.eagle.banking.service.readmodel;
+
+import com.eagle.banking.dto.AccountDto;
+import com.eagle.banking.dto.TransactionDto;
+import com.eagle.banking.exception.InvalidRequestException;
+import com.eagle.banking.model.TransactionType;
+import com.eagle.banking.repo.AccountRepository;
+import com.eagle.banking.repo.TransactionCursor;
+import com.eagle.banking.repo.TransactionQuery;
+import com.eagle.banking.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadModelTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private AccountRepository accountRepository;
+    private TransactionService transactionService;
+    private ChangeFeed feed;
+    private ReadModel model;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        transactionService = mock(TransactionService.class);
+        feed = new ChangeFeed(16);
+        model = new ReadModel(feed, accountRepository, transactionService, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.close();
+    }
+
+    @Test
+    void load_ShouldTakeBalanceFromHistoryAndSkipEventsItAlreadyHolds() {
+        // the account row was read before the second posting committed
+        when(accountRepository.findAllDtos()).thenReturn(List.of(account("a1", "u1", "checking", "100.00")));
+        when(transactionService.listLatestDtos("a1", ReadModel.DEFAULT_HISTORY_WINDOW + 1))
+                .thenReturn(List.of(row("tx-1", T0, "100.00"), row("tx-2", T0.plusSeconds(1), "70.00")));
+
+        model.load();
+        model.apply(posted("a1", "70.00", row("tx-2", T0.plusSeconds(1), "70.00")));
+        model.apply(posted("a1", "95.00", row("tx-3", T0.plusSeconds(2), "95.00")));
+
+        assertEquals(0, new BigDecimal("95.00").compareTo(model.account("a1").orElseThrow().balance()));
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), ids(page(query("a1", null, 10))));
+        assertTrue(model.transaction("a1", "tx-2").isPresent());
+        assertTrue(model.transaction("other", "tx-2").isEmpty());
+    }
+
+    @Test
+    void page_ShouldFollowTheCursorAndFilters() {
+        model.apply(new ChangeEvent.AccountOpened(account("a1", "u1", "checking", "0.00")));
+        model.apply(posted("a1", "30.00",
+                row("tx-1", T0, "10.00"),
+                row("tx-2", T0, "20.00"),
+                withType(row("tx-3", T0.plusSeconds(1), "30.00"), TransactionType.WITHDRAW)));
+        model.apply(posted("a1", "40.00", row("tx-4", T0.plusSeconds(2), "40.00")));
+
+        assertEquals(List.of("tx-1", "tx-2"), ids(page(query("a1", null, 2))));
+        assertEquals(List.of("tx-3", "tx-4"), ids(page(query("a1", new TransactionCursor(T0, "tx-2"), 10))));
+        assertEquals(List.of("tx-3"), ids(page(
+                new TransactionQuery("a1", TransactionType.WITHDRAW, null, null, null, 10))));
+        assertEquals(List.of("tx-3"), ids(page(
+                new TransactionQuery("a1", null, T0.plusSeconds(1), T0.plusSeconds(2), null, 10))));
+        assertEquals(List.of(), page(query("missing", null, 10)));
+    }
+
+    @Test
+    void apply_ShouldRetypeRowsAndDropClosedAccounts() {
+        model.apply(new ChangeEvent.AccountOpened(account("a1", "u1", "checking", "0.00")));
+        model.apply(new ChangeEvent.AccountOpened(account("a2", "u1", "savings", "0.00")));
+        model.apply(posted("a1", "10.00", row("tx-1", T0, "10.00")));
+
+        model.apply(new ChangeEvent.AccountRetyped("a1", "current"));
+        assertEquals("current", page(query("a1", null, 10)).get(0).accountType());
+        assertEquals("current", model.transaction("a1", "tx-1").orElseThrow().accountType());
+
+        model.apply(new ChangeEvent.AccountClosed("a1"));
+        assertEquals(List.of("a2"), model.accounts("u1").stream().map(AccountDto::id).toList());
+        assertTrue(model.account("a1").isEmpty());
+        assertTrue(model.transaction("a1", "tx-1").isEmpty());
+    }
+
+    @Test
+    void load_ShouldHoldTheNewestRowsAndLeaveOlderPagesToTheWriteSide() {
+        model = new ReadModel(feed, accountRepository, transactionService, 1000, 2);
+        when(accountRepository.findAllDtos()).thenReturn(List.of(account("a1", "u1", "checking", "0.00")));
+        when(transactionService.listLatestDtos("a1", 3)).thenReturn(List.of(
+                row("tx-2", T0.plusSeconds(2), "20.00"),
+                row("tx-3", T0.plusSeconds(3), "30.00"),
+                row("tx-4", T0.plusSeconds(4), "40.00")));
+
+        model.load();
+
+        assertTrue(model.page(query("a1", null, 10)).isEmpty());
+        assertTrue(model.page(query("a1", new TransactionCursor(T0.plusSeconds(2), "tx-2"), 10)).isEmpty());
+        assertEquals(List.of("tx-4"), ids(page(query("a1", new TransactionCursor(T0.plusSeconds(3), "tx-3"), 10))));
+        assertEquals(List.of("tx-4"), ids(page(
+                new TransactionQuery("a1", null, T0.plusSeconds(4), null, null, 10))));
+        assertTrue(model.transaction("a1", "tx-2").isEmpty());
+        assertEquals(0, new BigDecimal("40.00").compareTo(model.account("a1").orElseThrow().balance()));
+    }
+
+    @Test
+    void apply_ShouldDropTheOldestRowsOnceTheWindowIsExceeded() {
+        model = new ReadModel(feed, accountRepository, transactionService, 1000, 2);
+        model.apply(new ChangeEvent.AccountOpened(account("a1", "u1", "checking", "0.00")));
+        model.apply(posted("a1", "30.00",
+                row("tx-1", T0, "10.00"), row("tx-2", T0.plusSeconds(1), "20.00"), row("tx-3", T0.plusSeconds(2), "30.00")));
+        // still the whole history, so the first page is served here
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), ids(page(query("a1", null, 10))));
+
+        model.apply(posted("a1", "40.00", row("tx-4", T0.plusSeconds(3), "40.00")));
+
+        assertTrue(model.page(query("a1", null, 10)).isEmpty());
+        assertEquals(List.of("tx-4"), ids(page(query("a1", new TransactionCursor(T0.plusSeconds(2), "tx-3"), 10))));
+        assertTrue(model.transaction("a1", "tx-1").isEmpty());
+        assertTrue(model.transaction("a1", "tx-3").isPresent());
+    }
+
+    @Test
+    void apply_ShouldKeepARowPostedOutOfOrderAndLeaveThePagesToTheWriteSide() {
+        model.apply(new ChangeEvent.AccountOpened(account("a1", "u1", "checking", "0.00")));
+        model.apply(posted("a1", "10.00", row("tx-2", T0.plusSeconds(1), "10.00")));
+        // the clock stepped back before the next posting was stamped
+        model.apply(posted("a1", "20.00", row("tx-1", T0, "20.00")));
+        model.apply(posted("a1", "20.00", row("tx-1", T0, "20.00")));
+
+        assertTrue(model.page(query("a1", null, 10)).isEmpty());
+        assertTrue(model.page(query("a1", new TransactionCursor(T0.plusSeconds(1), "tx-2"), 10)).isEmpty());
+        assertTrue(model.transaction("a1", "tx-1").isPresent());
+        assertEquals(0, new BigDecimal("20.00").compareTo(model.account("a1").orElseThrow().balance()));
+    }
+
+    @Test
+    void canServe_ShouldWaitForTheTokensWriteToBeApplied() {
+        when(accountRepository.findAllDtos()).thenReturn(List.of());
+        assertFalse(model.canServe(null));
+
+        feed.publish(new ChangeEvent.AccountOpened(account("a1", "u1", "checking", "0.00")));
+        String token = model.token();
+        model.start();
+
+        assertTrue(model.canServe(token));
+        assertEquals(List.of("a1"), model.accounts("u1").stream().map(AccountDto::id).toList());
+        assertThrows(InvalidRequestException.class, () -> model.canServe("x"));
+    }
+
+    @Test
+    void canServe_WithoutToken_ShouldServeOnceBuilt() {
+        when(accountRepository.findAllDtos()).thenReturn(List.of());
+        assertFalse(model.canServe(null));
+
+        model.load();
+
+        assertTrue(model.isBuilt());
+        assertTrue(model.canServe(null));
+    }
+
+    @Test
+    void disabled_ShouldNeverServe() {
+        ReadModel disabled = ReadModel.disabled();
+        disabled.start();
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.canServe(null));
+    }
+
+    private static AccountDto account(String id, String userId, String type, String balance) {
+        return new AccountDto(id, userId, "ACC-" + id, type, new BigDecimal(balance));
+    }
+
+    private static TransactionDto row(String id, Instant createdAt, String balanceAfter) {
+        return new TransactionDto(id, "checking", BigDecimal.TEN, TransactionType.DEPOSIT, createdAt,
+                new BigDecimal(balanceAfter), null);
+    }
+
+    private static TransactionDto withType(TransactionDto tx, TransactionType type) {
+        return new TransactionDto(tx.id(), tx.accountType(), tx.amount(), type, tx.createdAt(), tx.balanceAfter(),
+                tx.transferId());
+    }
+
+    private static ChangeEvent.Posted posted(String accountId, String balance, TransactionDto... rows) {
+        return new ChangeEvent.Posted(accountId, new BigDecimal(balance), List.of(rows));
+    }
+
+    private List<TransactionDto> page(TransactionQuery query) {
+        return model.page(query).orElseThrow();
+    }
+
+    private static TransactionQuery query(String accountId, TransactionCursor after, int limit) {
+        return new TransactionQuery(accountId, null, null, null, after, limit);
+    }
+
+    private static List<String> ids(List<TransactionDto> rows) {
+        return rows.stream().map(TransactionDto::id).toList();
+    }
+}